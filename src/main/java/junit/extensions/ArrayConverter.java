@@ -0,0 +1,209 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts arrays to arrays of another array type (e.g. an Object[] of strings to a String[] or an int[] to a long[]).
+ * <p>
+ * Conversions between arrays of primitives and arrays of their wrappers as well as widening primitive conversions have dedicated element
+ * conversions that neither box nor use reflection. Conversions between arrays of reference types are bulk copies with
+ * {@link Arrays#copyOf(Object[], int, Class)}. All other conversions (e.g. an Object[] of integers to an int[]) are done element by
+ * element via reflection. All conversions are looked up by source and target array type; the ones without a dedicated element conversion
+ * are only kept in the lookup table if both array types are visible from the class loader of this class, so the lookup table never keeps
+ * another class loader alive.
+ * </p>
+ *
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+final class ArrayConverter {
+  /**
+   * The conversions per source and target array type.
+   */
+  private static final Map<Class<?>, Map<Class<?>, Conversion>> CONVERSIONS = new ConcurrentHashMap<>();
+
+  static {
+    registerElementwise(byte[].class, short[].class, (from, to, index) -> ((short[]) to)[index] = ((byte[]) from)[index]);
+    registerElementwise(byte[].class, int[].class, (from, to, index) -> ((int[]) to)[index] = ((byte[]) from)[index]);
+    registerElementwise(byte[].class, long[].class, (from, to, index) -> ((long[]) to)[index] = ((byte[]) from)[index]);
+    registerElementwise(byte[].class, float[].class, (from, to, index) -> ((float[]) to)[index] = ((byte[]) from)[index]);
+    registerElementwise(byte[].class, double[].class, (from, to, index) -> ((double[]) to)[index] = ((byte[]) from)[index]);
+    registerElementwise(short[].class, int[].class, (from, to, index) -> ((int[]) to)[index] = ((short[]) from)[index]);
+    registerElementwise(short[].class, long[].class, (from, to, index) -> ((long[]) to)[index] = ((short[]) from)[index]);
+    registerElementwise(short[].class, float[].class, (from, to, index) -> ((float[]) to)[index] = ((short[]) from)[index]);
+    registerElementwise(short[].class, double[].class, (from, to, index) -> ((double[]) to)[index] = ((short[]) from)[index]);
+    registerElementwise(char[].class, int[].class, (from, to, index) -> ((int[]) to)[index] = ((char[]) from)[index]);
+    registerElementwise(char[].class, long[].class, (from, to, index) -> ((long[]) to)[index] = ((char[]) from)[index]);
+    registerElementwise(char[].class, float[].class, (from, to, index) -> ((float[]) to)[index] = ((char[]) from)[index]);
+    registerElementwise(char[].class, double[].class, (from, to, index) -> ((double[]) to)[index] = ((char[]) from)[index]);
+    registerElementwise(int[].class, long[].class, (from, to, index) -> ((long[]) to)[index] = ((int[]) from)[index]);
+    registerElementwise(int[].class, float[].class, (from, to, index) -> ((float[]) to)[index] = ((int[]) from)[index]);
+    registerElementwise(int[].class, double[].class, (from, to, index) -> ((double[]) to)[index] = ((int[]) from)[index]);
+    registerElementwise(long[].class, float[].class, (from, to, index) -> ((float[]) to)[index] = ((long[]) from)[index]);
+    registerElementwise(long[].class, double[].class, (from, to, index) -> ((double[]) to)[index] = ((long[]) from)[index]);
+    registerElementwise(float[].class, double[].class, (from, to, index) -> ((double[]) to)[index] = ((float[]) from)[index]);
+    registerElementwise(Boolean[].class, boolean[].class, (from, to, index) -> ((boolean[]) to)[index] = ((Boolean[]) from)[index]);
+    registerElementwise(Byte[].class, byte[].class, (from, to, index) -> ((byte[]) to)[index] = ((Byte[]) from)[index]);
+    registerElementwise(Character[].class, char[].class, (from, to, index) -> ((char[]) to)[index] = ((Character[]) from)[index]);
+    registerElementwise(Short[].class, short[].class, (from, to, index) -> ((short[]) to)[index] = ((Short[]) from)[index]);
+    registerElementwise(Integer[].class, int[].class, (from, to, index) -> ((int[]) to)[index] = ((Integer[]) from)[index]);
+    registerElementwise(Long[].class, long[].class, (from, to, index) -> ((long[]) to)[index] = ((Long[]) from)[index]);
+    registerElementwise(Float[].class, float[].class, (from, to, index) -> ((float[]) to)[index] = ((Float[]) from)[index]);
+    registerElementwise(Double[].class, double[].class, (from, to, index) -> ((double[]) to)[index] = ((Double[]) from)[index]);
+    registerElementwise(boolean[].class, Boolean[].class, (from, to, index) -> ((Boolean[]) to)[index] = ((boolean[]) from)[index]);
+    registerElementwise(byte[].class, Byte[].class, (from, to, index) -> ((Byte[]) to)[index] = ((byte[]) from)[index]);
+    registerElementwise(char[].class, Character[].class, (from, to, index) -> ((Character[]) to)[index] = ((char[]) from)[index]);
+    registerElementwise(short[].class, Short[].class, (from, to, index) -> ((Short[]) to)[index] = ((short[]) from)[index]);
+    registerElementwise(int[].class, Integer[].class, (from, to, index) -> ((Integer[]) to)[index] = ((int[]) from)[index]);
+    registerElementwise(long[].class, Long[].class, (from, to, index) -> ((Long[]) to)[index] = ((long[]) from)[index]);
+    registerElementwise(float[].class, Float[].class, (from, to, index) -> ((Float[]) to)[index] = ((float[]) from)[index]);
+    registerElementwise(double[].class, Double[].class, (from, to, index) -> ((Double[]) to)[index] = ((double[]) from)[index]);
+  }
+
+  /**
+   * Converts an array to another array type.
+   */
+  @FunctionalInterface
+  private interface Conversion {
+    /**
+     * Converts the given array.
+     *
+     * @param source the array to convert
+     * @param length the length of the array
+     * @return the converted array
+     */
+    Object convert(Object source, int length);
+  }
+
+  /**
+   * Converts a single element of an array to the component type of another array.
+   */
+  @FunctionalInterface
+  private interface ElementConversion {
+    /**
+     * Converts the element at the given index of the source array and stores it at the same index of the target array.
+     *
+     * @param source the array to convert
+     * @param target the array to store the converted element in
+     * @param index the index of the element
+     */
+    void convert(Object source, Object target, int index);
+  }
+
+  /**
+   * Private constructor to make it impossible to instantiate this class.
+   */
+  private ArrayConverter() {
+    assert false : "You mustn't instantiate ArrayConverter";
+  }
+
+  /**
+   * Converts the given array to the given array type.
+   *
+   * @param source the array to convert
+   * @param targetType the array type to convert to
+   * @return a new array of the given array type with the (converted) elements of the given array
+   * @throws IllegalArgumentException if an element of the given array can't be converted to the component type of the given array type
+   */
+  static Object convert(final Object source, final Class<?> targetType) {
+    try {
+      return getConversion(source.getClass(), targetType).convert(source, Array.getLength(source));
+    } catch (ArrayStoreException | ClassCastException | NullPointerException | IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+        "Argument " + source + " of type " + source.getClass() + " does not match expected argument type " + targetType + ".", e);
+    }
+  }
+
+  /**
+   * Gets the conversion from the given source array type to the given target array type. Conversions without a dedicated loop are built
+   * on first use and added to the lookup table, unless one of the array types is not visible from the class loader of this class (e.g.
+   * a class of a test's own class loader), since the lookup table would then keep that class loader alive.
+   *
+   * @param sourceType the array type to convert from
+   * @param targetType the array type to convert to
+   * @return the conversion
+   */
+  private static Conversion getConversion(final Class<?> sourceType, final Class<?> targetType) {
+    Map<Class<?>, Conversion> conversions = CONVERSIONS.get(sourceType);
+    Conversion conversion = (conversions == null) ? null : conversions.get(targetType);
+    if (conversion != null) return conversion;
+
+    conversion = createConversion(targetType,
+      !sourceType.getComponentType().isPrimitive() && !targetType.getComponentType().isPrimitive());
+    if (PA.isVisibleFrom(ArrayConverter.class, sourceType) && PA.isVisibleFrom(ArrayConverter.class, targetType)) {
+      register(sourceType, targetType, conversion);
+    }
+    return conversion;
+  }
+
+  /**
+   * Creates a conversion to the given target array type that either bulk copies arrays of reference types or converts element by element
+   * via reflection.
+   *
+   * @param targetType the array type to convert to
+   * @param references true if both array types are arrays of reference types
+   * @return the conversion
+   */
+  private static Conversion createConversion(final Class<?> targetType, final boolean references) {
+    if (references) {
+      Class<? extends Object[]> targetArrayType = targetType.asSubclass(Object[].class);
+      return (source, length) -> Arrays.copyOf((Object[]) source, length, targetArrayType);
+    }
+    return elementwise(targetType, (source, target, index) -> Array.set(target, index, Array.get(source, index)));
+  }
+
+  /**
+   * Creates a conversion that converts arrays element by element with the given element conversion.
+   *
+   * @param targetType the array type to convert to
+   * @param elementConversion the conversion of a single element
+   * @return the conversion
+   */
+  private static Conversion elementwise(final Class<?> targetType, final ElementConversion elementConversion) {
+    Class<?> componentType = targetType.getComponentType();
+    return (source, length) -> {
+      Object target = Array.newInstance(componentType, length);
+      for (int index = 0; index < length; index++ ) {
+        elementConversion.convert(source, target, index);
+      }
+      return target;
+    };
+  }
+
+  /**
+   * Registers a dedicated conversion that converts arrays element by element with the given element conversion.
+   *
+   * @param sourceType the array type to convert from
+   * @param targetType the array type to convert to
+   * @param elementConversion the conversion of a single element
+   */
+  private static void registerElementwise(final Class<?> sourceType, final Class<?> targetType,
+    final ElementConversion elementConversion) {
+    register(sourceType, targetType, elementwise(targetType, elementConversion));
+  }
+
+  /**
+   * Registers a conversion.
+   *
+   * @param sourceType the array type to convert from
+   * @param targetType the array type to convert to
+   * @param conversion the conversion
+   */
+  private static void register(final Class<?> sourceType, final Class<?> targetType, final Conversion conversion) {
+    CONVERSIONS.computeIfAbsent(sourceType, type -> new ConcurrentHashMap<>()).putIfAbsent(targetType, conversion);
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe counters of a cache, the source of its {@link CacheStatistics}.
+ *
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+final class CacheCounters {
+  private final String name;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder totalLoadTime = new LongAdder();
+
+  /**
+   * Creates counters for the cache with the given name.
+   *
+   * @param name the name of the cache
+   */
+  CacheCounters(final String name) {
+    this.name = name;
+  }
+
+  /**
+   * Counts a lookup that found a cached entry.
+   */
+  void hit() {
+    hits.increment();
+  }
+
+  /**
+   * Counts a lookup that did not find a cached entry.
+   */
+  void miss() {
+    misses.increment();
+  }
+
+  /**
+   * Counts entries evicted from the cache.
+   *
+   * @param count the number of evicted entries
+   */
+  void evicted(final int count) {
+    evictions.add(count);
+  }
+
+  /**
+   * Adds the time spent resolving an entry that was not found in the cache.
+   *
+   * @param nanos the load time in nanoseconds
+   */
+  void loaded(final long nanos) {
+    totalLoadTime.add(nanos);
+  }
+
+  /**
+   * Takes a snapshot of the counters.
+   *
+   * @param size the number of entries currently cached
+   * @return the current statistics of the cache
+   */
+  CacheStatistics snapshot(final long size) {
+    return new CacheStatistics(name, size, hits.sum(), misses.sum(), evictions.sum(), totalLoadTime.sum());
+  }
+}
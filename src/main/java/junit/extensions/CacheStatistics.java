@@ -0,0 +1,109 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+/**
+ * An immutable snapshot of the statistics of one of the caches PA uses to avoid resolving fields, methods, constructors, method signatures
+ * and type names over and over again.
+ *
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ * @see PA#getCacheStatistics()
+ */
+public final class CacheStatistics {
+  private final String name;
+  private final long size;
+  private final long hits;
+  private final long misses;
+  private final long evictions;
+  private final long totalLoadTime;
+
+  /**
+   * Creates a snapshot of the statistics of a cache.
+   *
+   * @param name the name of the cache
+   * @param size the number of entries currently cached
+   * @param hits the number of lookups that found a cached entry
+   * @param misses the number of lookups that did not find a cached entry
+   * @param evictions the number of entries evicted since the cache was full
+   * @param totalLoadTime the time in nanoseconds spent resolving the entries that were not found in the cache
+   */
+  CacheStatistics(final String name, final long size, final long hits, final long misses, final long evictions, final long totalLoadTime) {
+    this.name = name;
+    this.size = size;
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+    this.totalLoadTime = totalLoadTime;
+  }
+
+  /**
+   * Gets the name of the cache.
+   *
+   * @return the name of the cache
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the number of entries currently cached. Entries of classes (or class loaders) that were garbage collected are not counted.
+   *
+   * @return the number of cached entries
+   */
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * Gets the number of lookups that found a cached entry.
+   *
+   * @return the number of cache hits
+   */
+  public long getHits() {
+    return hits;
+  }
+
+  /**
+   * Gets the number of lookups that did not find a cached entry.
+   *
+   * @return the number of cache misses
+   */
+  public long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Gets the number of entries that were evicted since the cache reached its maximum size.
+   *
+   * @return the number of evicted entries
+   * @see PA#setCacheSize(int)
+   */
+  public long getEvictions() {
+    return evictions;
+  }
+
+  /**
+   * Gets the time spent resolving the entries that were not found in the cache.
+   *
+   * @return the total load time in nanoseconds
+   */
+  public long getTotalLoadTime() {
+    return totalLoadTime;
+  }
+
+  @Override
+  public String toString() {
+    return name + " {size=" + size + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + ", totalLoadTime="
+        + totalLoadTime + "ns}";
+  }
+}
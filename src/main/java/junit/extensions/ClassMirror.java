@@ -0,0 +1,290 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable, flattened view of the fields and methods (public, private, protected, default) of a class, all its super classes and all
+ * the interfaces they implement (including private and default methods of interfaces).
+ * <p>
+ * The members are linearized in lookup order: first the members declared by the class itself, then the ones of its super class and so
+ * on, followed by the members of the interfaces of the class, of their super interfaces and then of the interfaces of the super classes.
+ * Each member can be found (or definitely not found) by a single hash lookup; members earlier in lookup order shadow later members with
+ * the same name (fields) or the same name and parameter types (methods). Mirrors are built lazily once per class from the mirrors of its
+ * super class and interfaces, so each type's declared members are fetched only once, however deep the type hierarchy is. Like in Java,
+ * static methods of interfaces are not inherited.
+ * </p>
+ *
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+final class ClassMirror {
+  private static final Class<?>[] NO_TYPES = new Class<?>[0];
+  private static final Field[] NO_FIELDS = new Field[0];
+  private static final Method[] NO_METHODS = new Method[0];
+
+  private static final ClassValue<ClassMirror> MIRRORS = new ClassValue<ClassMirror>() {
+    @Override
+    protected ClassMirror computeValue(final Class<?> type) {
+      return new ClassMirror(type);
+    }
+  };
+
+  private final Class<?> type;
+  private final Class<?>[] linearization;
+  private final Field[] declaredFields;
+  private final Method[] declaredMethods;
+  private final Field[] fields;
+  private final Method[] methods;
+  private final Map<String, Field> fieldsByName;
+  private final Map<MemberKey, Method> methodsByKey;
+  private final Map<String, Method[]> methodsByName;
+  private volatile List<MemberName> fieldNames;
+  private volatile List<MemberName> methodSignatures;
+  private volatile MemberIndex<Field> fieldIndex;
+  private volatile MemberIndex<Method> methodIndex;
+
+  /**
+   * Creates the mirror of the given class.
+   *
+   * @param type the class to mirror
+   */
+  private ClassMirror(final Class<?> type) {
+    this.type = type;
+    linearization = linearize(type);
+    declaredFields = type.getDeclaredFields();
+    declaredMethods = type.getDeclaredMethods();
+
+    List<Field> allFields = new ArrayList<>();
+    List<Method> allMethods = new ArrayList<>();
+    for (Class<?> linearizedType : linearization) {
+      ClassMirror mirror = (linearizedType == type) ? this : of(linearizedType);
+      allFields.addAll(Arrays.asList(mirror.declaredFields));
+      for (Method method : mirror.declaredMethods) {
+        if ((linearizedType == type) || !linearizedType.isInterface() || !Modifier.isStatic(method.getModifiers())) allMethods.add(method);
+      }
+    }
+    fields = allFields.toArray(NO_FIELDS);
+    methods = allMethods.toArray(NO_METHODS);
+
+    fieldsByName = new HashMap<>(capacity(fields.length));
+    for (Field field : fields) {
+      fieldsByName.putIfAbsent(field.getName(), field);
+    }
+
+    methodsByKey = new HashMap<>(capacity(methods.length));
+    Map<String, List<Method>> overloads = new HashMap<>();
+    for (Method method : methods) {
+      methodsByKey.putIfAbsent(new MemberKey(method.getName(), method.getParameterTypes()), method);
+      overloads.computeIfAbsent(method.getName(), name -> new ArrayList<>()).add(method);
+    }
+    methodsByName = new HashMap<>(capacity(overloads.size()));
+    for (Map.Entry<String, List<Method>> overload : overloads.entrySet()) {
+      methodsByName.put(overload.getKey(), overload.getValue().toArray(NO_METHODS));
+    }
+  }
+
+  /**
+   * Gets the mirror of the given class.
+   *
+   * @param type the class to get the mirror of
+   * @return the mirror of the given class
+   */
+  static ClassMirror of(final Class<?> type) {
+    return MIRRORS.get(type);
+  }
+
+  /**
+   * Gets all fields of the class, its super classes and interfaces in lookup order. The returned array must not be changed.
+   *
+   * @return the fields of the class hierarchy
+   */
+  Field[] getFields() {
+    return fields;
+  }
+
+  /**
+   * Gets the field with the given name. Fields earlier in lookup order shadow later fields with the same name.
+   *
+   * @param name the name of the field
+   * @return the field or null if there is no field with the given name
+   */
+  Field getField(final String name) {
+    return fieldsByName.get(name);
+  }
+
+  /**
+   * Gets the index of all fields of the class, its super classes and interfaces by name, type, modifiers and annotations. The index is
+   * built on first access.
+   *
+   * @return the index of the fields of the class hierarchy
+   */
+  MemberIndex<Field> getFieldIndex() {
+    MemberIndex<Field> index = fieldIndex;
+    if (index == null) {
+      index = new MemberIndex<>(type, fields, Field::getType, Modifier.fieldModifiers());
+      fieldIndex = index;
+    }
+    return index;
+  }
+
+  /**
+   * Gets the names of all fields of the class, its super classes and interfaces in lookup order, including shadowed fields, together with
+   * their declaring classes. The list is built on first access.
+   *
+   * @return the immutable list of field names
+   */
+  List<MemberName> getFieldNames() {
+    List<MemberName> names = fieldNames;
+    if (names == null) {
+      names = toMemberNames(fields);
+      fieldNames = names;
+    }
+    return names;
+  }
+
+  /**
+   * Gets all methods of the class, its super classes and interfaces in lookup order. The returned array must not be changed.
+   *
+   * @return the methods of the class hierarchy
+   */
+  Method[] getMethods() {
+    return methods;
+  }
+
+  /**
+   * Gets the index of all methods of the class, its super classes and interfaces by name, return type, modifiers and annotations. The index
+   * is built on first access.
+   *
+   * @return the index of the methods of the class hierarchy
+   */
+  MemberIndex<Method> getMethodIndex() {
+    MemberIndex<Method> index = methodIndex;
+    if (index == null) {
+      index = new MemberIndex<>(type, methods, Method::getReturnType, Modifier.methodModifiers());
+      methodIndex = index;
+    }
+    return index;
+  }
+
+  /**
+   * Gets the signatures (including return types, e.g. "java.lang.String getName()") of all methods of the class, its super classes and
+   * interfaces in lookup order, including overridden methods, together with their declaring classes. The list is built on first access,
+   * each signature on its first access.
+   *
+   * @return the immutable list of method signatures
+   */
+  List<MemberName> getMethodSignatures() {
+    List<MemberName> signatures = methodSignatures;
+    if (signatures == null) {
+      signatures = toMemberNames(methods);
+      methodSignatures = signatures;
+    }
+    return signatures;
+  }
+
+  /**
+   * Gets the method with the given name and parameter types. Methods earlier in lookup order hide later methods with the same name and
+   * parameter types.
+   *
+   * @param key the name and the parameter types of the method
+   * @return the method or null if there is no such method
+   */
+  Method getMethod(final MemberKey key) {
+    return methodsByKey.get(key);
+  }
+
+  /**
+   * Gets all methods with the given name in lookup order. The returned array must not be changed.
+   *
+   * @param name the name of the methods
+   * @return the methods with the given name (an empty array if there is none)
+   */
+  Method[] getMethods(final String name) {
+    return methodsByName.getOrDefault(name, NO_METHODS);
+  }
+
+  /**
+   * Linearizes the type hierarchy of the given class in lookup order: the class and its super classes, followed by the interfaces of the
+   * class (each directly followed by its own super interfaces) and then the ones of the super classes. Each type occurs only once.
+   *
+   * @param type the class to linearize the type hierarchy of
+   * @return the types of the type hierarchy in lookup order
+   */
+  private static Class<?>[] linearize(final Class<?> type) {
+    Set<Class<?>> types = new LinkedHashSet<>();
+    types.add(type);
+
+    Class<?>[] superLinearization = (type.getSuperclass() == null) ? NO_TYPES : of(type.getSuperclass()).linearization;
+    for (Class<?> superType : superLinearization) {
+      if ( !superType.isInterface()) types.add(superType);
+    }
+    for (Class<?> interfaceType : type.getInterfaces()) {
+      types.addAll(Arrays.asList(of(interfaceType).linearization));
+    }
+    types.addAll(Arrays.asList(superLinearization));
+    return types.toArray(NO_TYPES);
+  }
+
+  /**
+   * Gets the names of the given fields or methods.
+   *
+   * @param members the fields or methods
+   * @return the immutable list of the names of the members in the given order
+   */
+  private static List<MemberName> toMemberNames(final Member[] members) {
+    MemberName[] names = new MemberName[members.length];
+    for (int i = 0; i < members.length; i++ ) {
+      names[i] = new MemberName(members[i]);
+    }
+    return Collections.unmodifiableList(Arrays.asList(names));
+  }
+
+  /**
+   * Gets the signature (including the return type) of the given method.
+   *
+   * @param method the method to get the signature of
+   * @return the signature of the method
+   */
+  static String getSignature(final Method method) {
+    StringBuilder signature = new StringBuilder();
+    signature.append(method.getReturnType().getName()).append(' ').append(method.getName()).append('(');
+    Class<?>[] parameterTypes = method.getParameterTypes();
+    for (int i = 0; i < parameterTypes.length; i++ ) {
+      if (i > 0) signature.append(", ");
+      signature.append(parameterTypes[i].getName());
+    }
+    return signature.append(')').toString();
+  }
+
+  /**
+   * Gets the initial capacity of a hash map holding the given number of entries without rehashing.
+   *
+   * @param size the number of entries
+   * @return the initial capacity
+   */
+  private static int capacity(final int size) {
+    return (size * 4 / 3) + 1;
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Checks whether values of one type can be passed for parameters of another type by a method invocation conversion (JLS 5.3), i.e. by an
+ * identity, widening primitive, widening reference, boxing or unboxing conversion or by unboxing followed by a widening primitive
+ * conversion.
+ * <p>
+ * Primitive types are checked through identity tables precomputed for the eight primitives and their wrappers, so each check costs a
+ * table probe instead of a chain of {@link Class#equals(Object)} calls.
+ * </p>
+ *
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+final class Conversions {
+  /**
+   * The bit of each primitive type in the masks of {@link #WIDENINGS}.
+   */
+  private static final Map<Class<?>, Integer> BITS = new IdentityHashMap<>();
+
+  /**
+   * The mask of the primitive types each primitive and wrapper type can be converted to.
+   */
+  private static final Map<Class<?>, Integer> WIDENINGS = new IdentityHashMap<>();
+
+  /**
+   * The wrapper type of each primitive type.
+   */
+  private static final Map<Class<?>, Class<?>> WRAPPERS = new IdentityHashMap<>();
+
+  static {
+    for (Class<?> primitiveType : new Class<?>[] {boolean.class, byte.class, short.class, char.class, int.class, long.class, float.class,
+      double.class}) {
+      BITS.put(primitiveType, 1 << BITS.size());
+    }
+    register(boolean.class, Boolean.class);
+    register(byte.class, Byte.class, short.class, int.class, long.class, float.class, double.class);
+    register(short.class, Short.class, int.class, long.class, float.class, double.class);
+    register(char.class, Character.class, int.class, long.class, float.class, double.class);
+    register(int.class, Integer.class, long.class, float.class, double.class);
+    register(long.class, Long.class, float.class, double.class);
+    register(float.class, Float.class, double.class);
+    register(double.class, Double.class);
+  }
+
+  /**
+   * Private constructor to make it impossible to instantiate this class.
+   */
+  private Conversions() {
+    assert false : "You mustn't instantiate Conversions";
+  }
+
+  /**
+   * Checks if values of the given argument types can be passed for parameters of the given parameter types.
+   *
+   * @param argumentTypes the types of the arguments (null for null arguments)
+   * @param parameterTypes the types of the parameters
+   * @return true if each argument type can be converted to the corresponding parameter type, otherwise false
+   */
+  static boolean isConvertible(final Class<?>[] argumentTypes, final Class<?>[] parameterTypes) {
+    return isConvertible(argumentTypes, parameterTypes, true);
+  }
+
+  /**
+   * Checks if values of the given argument types can be passed for parameters of the given parameter types, with or without boxing and
+   * unboxing conversions (i.e. in the first or second phase of JLS 15.12.2).
+   *
+   * @param argumentTypes the types of the arguments (null for null arguments)
+   * @param parameterTypes the types of the parameters
+   * @param boxing true if boxing and unboxing conversions are allowed, false if only identity and widening conversions are allowed
+   * @return true if each argument type can be converted to the corresponding parameter type, otherwise false
+   */
+  static boolean isConvertible(final Class<?>[] argumentTypes, final Class<?>[] parameterTypes, final boolean boxing) {
+    if (argumentTypes.length != parameterTypes.length) return false;
+
+    for (int i = 0; i < argumentTypes.length; i++ ) {
+      if ( !isConvertible(argumentTypes[i], parameterTypes[i], boxing)) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Checks if values of the given argument type can be passed for a parameter of the given parameter type.
+   *
+   * @param argumentType the type of the argument (null for a null argument)
+   * @param parameterType the type of the parameter
+   * @return true if the argument type can be converted to the parameter type, otherwise false
+   */
+  static boolean isConvertible(final Class<?> argumentType, final Class<?> parameterType) {
+    return isConvertible(argumentType, parameterType, true);
+  }
+
+  /**
+   * Checks if values of the given argument type can be passed for a parameter of the given parameter type, with or without boxing and
+   * unboxing conversions.
+   *
+   * @param argumentType the type of the argument (null for a null argument)
+   * @param parameterType the type of the parameter
+   * @param boxing true if boxing and unboxing conversions are allowed, false if only identity and widening conversions are allowed
+   * @return true if the argument type can be converted to the parameter type, otherwise false
+   */
+  static boolean isConvertible(final Class<?> argumentType, final Class<?> parameterType, final boolean boxing) {
+    if (argumentType == parameterType) return true;
+    if (argumentType == null) return !parameterType.isPrimitive();
+    if ( !boxing && (argumentType.isPrimitive() != parameterType.isPrimitive())) return false;
+
+    if (parameterType.isPrimitive()) {
+      Integer widenings = WIDENINGS.get(argumentType);
+      return (widenings != null) && ((widenings & BITS.get(parameterType)) != 0);
+    }
+    if (argumentType.isPrimitive()) return parameterType.isAssignableFrom(WRAPPERS.get(argumentType));
+    return parameterType.isAssignableFrom(argumentType);
+  }
+
+  /**
+   * Registers a primitive type, its wrapper type and the primitive types it can be widened to.
+   *
+   * @param primitiveType the primitive type
+   * @param wrapperType the wrapper type of the primitive type
+   * @param widerTypes the primitive types the primitive type can be widened to
+   */
+  private static void register(final Class<?> primitiveType, final Class<?> wrapperType, final Class<?>... widerTypes) {
+    int widenings = BITS.get(primitiveType);
+    for (Class<?> widerType : widerTypes) {
+      widenings |= BITS.get(widerType);
+    }
+    WRAPPERS.put(primitiveType, wrapperType);
+    WIDENINGS.put(primitiveType, widenings);
+    WIDENINGS.put(wrapperType, widenings);
+  }
+}
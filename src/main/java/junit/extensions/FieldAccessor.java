@@ -0,0 +1,663 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.lang.reflect.Array;
+
+/**
+ * Provides access to a field (public, private, protected, default) that has been resolved once by {@link PA#field(Class, String)}. Field
+ * accessors are immutable and thread-safe, so they can be kept in static final fields and used in tight loops without any further lookup.
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>
+ * private static final FieldAccessor&lt;MyClass, String&gt; NAME = PA.field(MyClass.class, &quot;name&quot;);
+ * ...
+ * NAME.set(myObj, &quot;myNewName&quot;);
+ * String name = NAME.get(myObj);
+ * </pre>
+ *
+ * @param <T> the type of the instances the field is accessed on
+ * @param <V> the type of the value of the field
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+public final class FieldAccessor<T, V> {
+  private final Class<T> type;
+  private final FieldHandle field;
+
+  /**
+   * Creates an accessor for the given field.
+   *
+   * @param type the class the field has been resolved in
+   * @param field the handle of the field
+   */
+  FieldAccessor(final Class<T> type, final FieldHandle field) {
+    this.type = type;
+    this.field = field;
+  }
+
+  /**
+   * Gets the name of the field.
+   *
+   * @return the name of the field
+   */
+  public String getName() {
+    return field.getField().getName();
+  }
+
+  /**
+   * Gets the type of the field.
+   *
+   * @return the type of the field
+   */
+  public Class<?> getType() {
+    return field.getType();
+  }
+
+  /**
+   * Gets the value of the field of the given instance.
+   *
+   * @param instance the instance to get the value from
+   * @return the value of the field
+   * @throws IllegalArgumentException if the value can't be got. This could be the case if the given instance is null or not an instance of
+   *         the class declaring the field.
+   */
+  @SuppressWarnings("unchecked")
+  public V get(final T instance) {
+    try {
+      return (V) field.get(instance);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get value of " + getName() + " from " + instance, e);
+    }
+  }
+
+  /**
+   * Sets the value of the field of the given instance.
+   *
+   * @param instance the instance to set the value at
+   * @param value the new value of the field
+   * @throws IllegalArgumentException if the value can't be set. This could be the case if the given instance is null or not an instance of
+   *         the class declaring the field; if the value can't be converted to the type of the field; or if the field is static and final.
+   */
+  public void set(final T instance, final V value) {
+    try {
+      field.set(instance, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set value " + value + " at " + getName() + " in " + instance, e);
+    }
+  }
+
+  /**
+   * Gets the value of the static field.
+   *
+   * @return the value of the field
+   * @throws IllegalArgumentException if the value can't be got, since the field is not static
+   */
+  @SuppressWarnings("unchecked")
+  public V getStatic() {
+    try {
+      return (V) field.get(type);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get value of " + getName() + " from " + type, e);
+    }
+  }
+
+  /**
+   * Sets the value of the static field.
+   *
+   * @param value the new value of the field
+   * @throws IllegalArgumentException if the value can't be set. This could be the case if the field is not static; if the value can't be
+   *         converted to the type of the field; or if the field is final.
+   */
+  public void setStatic(final V value) {
+    try {
+      field.set(type, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set value " + value + " at " + getName() + " in " + type, e);
+    }
+  }
+
+  /**
+   * Gets the value of the field of the given instance as boolean without boxing it.
+   *
+   * @param instance the instance to get the value from (ignored for static fields)
+   * @return the value of the field
+   * @throws IllegalArgumentException if the value can't be got. This could be the case if the given instance is null or not an instance of
+   *         the class declaring the field; or if the type of the field is no boolean.
+   */
+  public boolean getBoolean(final T instance) {
+    try {
+      return field.getBoolean(instance);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get boolean value of " + getName() + " from " + instance, e);
+    }
+  }
+
+  /**
+   * Sets the value of the field of the given instance to the given boolean without boxing it.
+   *
+   * @param instance the instance to set the value at (ignored for static fields)
+   * @param value the new value of the field
+   * @throws IllegalArgumentException if the value can't be set. This could be the case if the given instance is null or not an instance of
+   *         the class declaring the field; if the type of the field is no boolean; or if the field is static and final.
+   */
+  public void setBoolean(final T instance, final boolean value) {
+    try {
+      field.setBoolean(instance, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set boolean value " + value + " at " + getName() + " in " + instance, e);
+    }
+  }
+
+  /**
+   * Gets the element at the given index of the array field of the given instance as boolean without boxing it.
+   *
+   * @param instance the instance to get the array from (ignored for static fields)
+   * @param index the index of the element
+   * @return the value of the element
+   * @throws IllegalArgumentException if the element can't be got. This could be the case if the field is no array or null; if the index
+   *         is out of bounds; or if the component type of the array is no boolean.
+   */
+  public boolean getBoolean(final T instance, final int index) {
+    try {
+      return Array.getBoolean(field.get(instance), index);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get boolean element " + index + " of " + getName() + " from " + instance, e);
+    }
+  }
+
+  /**
+   * Sets the element at the given index of the array field of the given instance to the given boolean without boxing it.
+   *
+   * @param instance the instance to get the array from (ignored for static fields)
+   * @param index the index of the element
+   * @param value the new value of the element
+   * @throws IllegalArgumentException if the element can't be set. This could be the case if the field is no array or null; if the index
+   *         is out of bounds; or if the component type of the array is no boolean.
+   */
+  public void setBoolean(final T instance, final int index, final boolean value) {
+    try {
+      Array.setBoolean(field.get(instance), index, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set boolean element " + index + " to " + value + " at " + getName() + " in " + instance, e);
+    }
+  }
+
+  /**
+   * Gets the value of the field of the given instance as byte without boxing it.
+   *
+   * @param instance the instance to get the value from (ignored for static fields)
+   * @return the value of the field
+   * @throws IllegalArgumentException if the value can't be got. This could be the case if the given instance is null or not an instance of
+   *         the class declaring the field; or if the type of the field can't be widened to byte.
+   */
+  public byte getByte(final T instance) {
+    try {
+      return field.getByte(instance);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get byte value of " + getName() + " from " + instance, e);
+    }
+  }
+
+  /**
+   * Sets the value of the field of the given instance to the given byte without boxing it.
+   *
+   * @param instance the instance to set the value at (ignored for static fields)
+   * @param value the new value of the field
+   * @throws IllegalArgumentException if the value can't be set. This could be the case if the given instance is null or not an instance of
+   *         the class declaring the field; if the type of the field can't be widened from byte; or if the field is static and final.
+   */
+  public void setByte(final T instance, final byte value) {
+    try {
+      field.setByte(instance, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set byte value " + value + " at " + getName() + " in " + instance, e);
+    }
+  }
+
+  /**
+   * Gets the element at the given index of the array field of the given instance as byte without boxing it.
+   *
+   * @param instance the instance to get the array from (ignored for static fields)
+   * @param index the index of the element
+   * @return the value of the element
+   * @throws IllegalArgumentException if the element can't be got. This could be the case if the field is no array or null; if the index
+   *         is out of bounds; or if the component type of the array can't be widened to byte.
+   */
+  public byte getByte(final T instance, final int index) {
+    try {
+      return Array.getByte(field.get(instance), index);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get byte element " + index + " of " + getName() + " from " + instance, e);
+    }
+  }
+
+  /**
+   * Sets the element at the given index of the array field of the given instance to the given byte without boxing it.
+   *
+   * @param instance the instance to get the array from (ignored for static fields)
+   * @param index the index of the element
+   * @param value the new value of the element
+   * @throws IllegalArgumentException if the element can't be set. This could be the case if the field is no array or null; if the index
+   *         is out of bounds; or if the component type of the array can't be widened from byte.
+   */
+  public void setByte(final T instance, final int index, final byte value) {
+    try {
+      Array.setByte(field.get(instance), index, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set byte element " + index + " to " + value + " at " + getName() + " in " + instance, e);
+    }
+  }
+
+  /**
+   * Gets the value of the field of the given instance as char without boxing it.
+   *
+   * @param instance the instance to get the value from (ignored for static fields)
+   * @return the value of the field
+   * @throws IllegalArgumentException if the value can't be got. This could be the case if the given instance is null or not an instance of
+   *         the class declaring the field; or if the type of the field can't be widened to char.
+   */
+  public char getChar(final T instance) {
+    try {
+      return field.getChar(instance);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get char value of " + getName() + " from " + instance, e);
+    }
+  }
+
+  /**
+   * Sets the value of the field of the given instance to the given char without boxing it.
+   *
+   * @param instance the instance to set the value at (ignored for static fields)
+   * @param value the new value of the field
+   * @throws IllegalArgumentException if the value can't be set. This could be the case if the given instance is null or not an instance of
+   *         the class declaring the field; if the type of the field can't be widened from char; or if the field is static and final.
+   */
+  public void setChar(final T instance, final char value) {
+    try {
+      field.setChar(instance, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set char value " + value + " at " + getName() + " in " + instance, e);
+    }
+  }
+
+  /**
+   * Gets the element at the given index of the array field of the given instance as char without boxing it.
+   *
+   * @param instance the instance to get the array from (ignored for static fields)
+   * @param index the index of the element
+   * @return the value of the element
+   * @throws IllegalArgumentException if the element can't be got. This could be the case if the field is no array or null; if the index
+   *         is out of bounds; or if the component type of the array can't be widened to char.
+   */
+  public char getChar(final T instance, final int index) {
+    try {
+      return Array.getChar(field.get(instance), index);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get char element " + index + " of " + getName() + " from " + instance, e);
+    }
+  }
+
+  /**
+   * Sets the element at the given index of the array field of the given instance to the given char without boxing it.
+   *
+   * @param instance the instance to get the array from (ignored for static fields)
+   * @param index the index of the element
+   * @param value the new value of the element
+   * @throws IllegalArgumentException if the element can't be set. This could be the case if the field is no array or null; if the index
+   *         is out of bounds; or if the component type of the array can't be widened from char.
+   */
+  public void setChar(final T instance, final int index, final char value) {
+    try {
+      Array.setChar(field.get(instance), index, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set char element " + index + " to " + value + " at " + getName() + " in " + instance, e);
+    }
+  }
+
+  /**
+   * Gets the value of the field of the given instance as short without boxing it.
+   *
+   * @param instance the instance to get the value from (ignored for static fields)
+   * @return the value of the field
+   * @throws IllegalArgumentException if the value can't be got. This could be the case if the given instance is null or not an instance of
+   *         the class declaring the field; or if the type of the field can't be widened to short.
+   */
+  public short getShort(final T instance) {
+    try {
+      return field.getShort(instance);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get short value of " + getName() + " from " + instance, e);
+    }
+  }
+
+  /**
+   * Sets the value of the field of the given instance to the given short without boxing it.
+   *
+   * @param instance the instance to set the value at (ignored for static fields)
+   * @param value the new value of the field
+   * @throws IllegalArgumentException if the value can't be set. This could be the case if the given instance is null or not an instance of
+   *         the class declaring the field; if the type of the field can't be widened from short; or if the field is static and final.
+   */
+  public void setShort(final T instance, final short value) {
+    try {
+      field.setShort(instance, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set short value " + value + " at " + getName() + " in " + instance, e);
+    }
+  }
+
+  /**
+   * Gets the element at the given index of the array field of the given instance as short without boxing it.
+   *
+   * @param instance the instance to get the array from (ignored for static fields)
+   * @param index the index of the element
+   * @return the value of the element
+   * @throws IllegalArgumentException if the element can't be got. This could be the case if the field is no array or null; if the index
+   *         is out of bounds; or if the component type of the array can't be widened to short.
+   */
+  public short getShort(final T instance, final int index) {
+    try {
+      return Array.getShort(field.get(instance), index);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get short element " + index + " of " + getName() + " from " + instance, e);
+    }
+  }
+
+  /**
+   * Sets the element at the given index of the array field of the given instance to the given short without boxing it.
+   *
+   * @param instance the instance to get the array from (ignored for static fields)
+   * @param index the index of the element
+   * @param value the new value of the element
+   * @throws IllegalArgumentException if the element can't be set. This could be the case if the field is no array or null; if the index
+   *         is out of bounds; or if the component type of the array can't be widened from short.
+   */
+  public void setShort(final T instance, final int index, final short value) {
+    try {
+      Array.setShort(field.get(instance), index, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set short element " + index + " to " + value + " at " + getName() + " in " + instance, e);
+    }
+  }
+
+  /**
+   * Gets the value of the field of the given instance as int without boxing it.
+   *
+   * @param instance the instance to get the value from (ignored for static fields)
+   * @return the value of the field
+   * @throws IllegalArgumentException if the value can't be got. This could be the case if the given instance is null or not an instance of
+   *         the class declaring the field; or if the type of the field can't be widened to int.
+   */
+  public int getInt(final T instance) {
+    try {
+      return field.getInt(instance);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get int value of " + getName() + " from " + instance, e);
+    }
+  }
+
+  /**
+   * Sets the value of the field of the given instance to the given int without boxing it.
+   *
+   * @param instance the instance to set the value at (ignored for static fields)
+   * @param value the new value of the field
+   * @throws IllegalArgumentException if the value can't be set. This could be the case if the given instance is null or not an instance of
+   *         the class declaring the field; if the type of the field can't be widened from int; or if the field is static and final.
+   */
+  public void setInt(final T instance, final int value) {
+    try {
+      field.setInt(instance, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set int value " + value + " at " + getName() + " in " + instance, e);
+    }
+  }
+
+  /**
+   * Gets the element at the given index of the array field of the given instance as int without boxing it.
+   *
+   * @param instance the instance to get the array from (ignored for static fields)
+   * @param index the index of the element
+   * @return the value of the element
+   * @throws IllegalArgumentException if the element can't be got. This could be the case if the field is no array or null; if the index
+   *         is out of bounds; or if the component type of the array can't be widened to int.
+   */
+  public int getInt(final T instance, final int index) {
+    try {
+      return Array.getInt(field.get(instance), index);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get int element " + index + " of " + getName() + " from " + instance, e);
+    }
+  }
+
+  /**
+   * Sets the element at the given index of the array field of the given instance to the given int without boxing it.
+   *
+   * @param instance the instance to get the array from (ignored for static fields)
+   * @param index the index of the element
+   * @param value the new value of the element
+   * @throws IllegalArgumentException if the element can't be set. This could be the case if the field is no array or null; if the index
+   *         is out of bounds; or if the component type of the array can't be widened from int.
+   */
+  public void setInt(final T instance, final int index, final int value) {
+    try {
+      Array.setInt(field.get(instance), index, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set int element " + index + " to " + value + " at " + getName() + " in " + instance, e);
+    }
+  }
+
+  /**
+   * Gets the value of the field of the given instance as long without boxing it.
+   *
+   * @param instance the instance to get the value from (ignored for static fields)
+   * @return the value of the field
+   * @throws IllegalArgumentException if the value can't be got. This could be the case if the given instance is null or not an instance of
+   *         the class declaring the field; or if the type of the field can't be widened to long.
+   */
+  public long getLong(final T instance) {
+    try {
+      return field.getLong(instance);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get long value of " + getName() + " from " + instance, e);
+    }
+  }
+
+  /**
+   * Sets the value of the field of the given instance to the given long without boxing it.
+   *
+   * @param instance the instance to set the value at (ignored for static fields)
+   * @param value the new value of the field
+   * @throws IllegalArgumentException if the value can't be set. This could be the case if the given instance is null or not an instance of
+   *         the class declaring the field; if the type of the field can't be widened from long; or if the field is static and final.
+   */
+  public void setLong(final T instance, final long value) {
+    try {
+      field.setLong(instance, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set long value " + value + " at " + getName() + " in " + instance, e);
+    }
+  }
+
+  /**
+   * Gets the element at the given index of the array field of the given instance as long without boxing it.
+   *
+   * @param instance the instance to get the array from (ignored for static fields)
+   * @param index the index of the element
+   * @return the value of the element
+   * @throws IllegalArgumentException if the element can't be got. This could be the case if the field is no array or null; if the index
+   *         is out of bounds; or if the component type of the array can't be widened to long.
+   */
+  public long getLong(final T instance, final int index) {
+    try {
+      return Array.getLong(field.get(instance), index);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get long element " + index + " of " + getName() + " from " + instance, e);
+    }
+  }
+
+  /**
+   * Sets the element at the given index of the array field of the given instance to the given long without boxing it.
+   *
+   * @param instance the instance to get the array from (ignored for static fields)
+   * @param index the index of the element
+   * @param value the new value of the element
+   * @throws IllegalArgumentException if the element can't be set. This could be the case if the field is no array or null; if the index
+   *         is out of bounds; or if the component type of the array can't be widened from long.
+   */
+  public void setLong(final T instance, final int index, final long value) {
+    try {
+      Array.setLong(field.get(instance), index, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set long element " + index + " to " + value + " at " + getName() + " in " + instance, e);
+    }
+  }
+
+  /**
+   * Gets the value of the field of the given instance as float without boxing it.
+   *
+   * @param instance the instance to get the value from (ignored for static fields)
+   * @return the value of the field
+   * @throws IllegalArgumentException if the value can't be got. This could be the case if the given instance is null or not an instance of
+   *         the class declaring the field; or if the type of the field can't be widened to float.
+   */
+  public float getFloat(final T instance) {
+    try {
+      return field.getFloat(instance);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get float value of " + getName() + " from " + instance, e);
+    }
+  }
+
+  /**
+   * Sets the value of the field of the given instance to the given float without boxing it.
+   *
+   * @param instance the instance to set the value at (ignored for static fields)
+   * @param value the new value of the field
+   * @throws IllegalArgumentException if the value can't be set. This could be the case if the given instance is null or not an instance of
+   *         the class declaring the field; if the type of the field can't be widened from float; or if the field is static and final.
+   */
+  public void setFloat(final T instance, final float value) {
+    try {
+      field.setFloat(instance, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set float value " + value + " at " + getName() + " in " + instance, e);
+    }
+  }
+
+  /**
+   * Gets the element at the given index of the array field of the given instance as float without boxing it.
+   *
+   * @param instance the instance to get the array from (ignored for static fields)
+   * @param index the index of the element
+   * @return the value of the element
+   * @throws IllegalArgumentException if the element can't be got. This could be the case if the field is no array or null; if the index
+   *         is out of bounds; or if the component type of the array can't be widened to float.
+   */
+  public float getFloat(final T instance, final int index) {
+    try {
+      return Array.getFloat(field.get(instance), index);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get float element " + index + " of " + getName() + " from " + instance, e);
+    }
+  }
+
+  /**
+   * Sets the element at the given index of the array field of the given instance to the given float without boxing it.
+   *
+   * @param instance the instance to get the array from (ignored for static fields)
+   * @param index the index of the element
+   * @param value the new value of the element
+   * @throws IllegalArgumentException if the element can't be set. This could be the case if the field is no array or null; if the index
+   *         is out of bounds; or if the component type of the array can't be widened from float.
+   */
+  public void setFloat(final T instance, final int index, final float value) {
+    try {
+      Array.setFloat(field.get(instance), index, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set float element " + index + " to " + value + " at " + getName() + " in " + instance, e);
+    }
+  }
+
+  /**
+   * Gets the value of the field of the given instance as double without boxing it.
+   *
+   * @param instance the instance to get the value from (ignored for static fields)
+   * @return the value of the field
+   * @throws IllegalArgumentException if the value can't be got. This could be the case if the given instance is null or not an instance of
+   *         the class declaring the field; or if the type of the field can't be widened to double.
+   */
+  public double getDouble(final T instance) {
+    try {
+      return field.getDouble(instance);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get double value of " + getName() + " from " + instance, e);
+    }
+  }
+
+  /**
+   * Sets the value of the field of the given instance to the given double without boxing it.
+   *
+   * @param instance the instance to set the value at (ignored for static fields)
+   * @param value the new value of the field
+   * @throws IllegalArgumentException if the value can't be set. This could be the case if the given instance is null or not an instance of
+   *         the class declaring the field; if the type of the field can't be widened from double; or if the field is static and final.
+   */
+  public void setDouble(final T instance, final double value) {
+    try {
+      field.setDouble(instance, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set double value " + value + " at " + getName() + " in " + instance, e);
+    }
+  }
+
+  /**
+   * Gets the element at the given index of the array field of the given instance as double without boxing it.
+   *
+   * @param instance the instance to get the array from (ignored for static fields)
+   * @param index the index of the element
+   * @return the value of the element
+   * @throws IllegalArgumentException if the element can't be got. This could be the case if the field is no array or null; if the index
+   *         is out of bounds; or if the component type of the array can't be widened to double.
+   */
+  public double getDouble(final T instance, final int index) {
+    try {
+      return Array.getDouble(field.get(instance), index);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get double element " + index + " of " + getName() + " from " + instance, e);
+    }
+  }
+
+  /**
+   * Sets the element at the given index of the array field of the given instance to the given double without boxing it.
+   *
+   * @param instance the instance to get the array from (ignored for static fields)
+   * @param index the index of the element
+   * @param value the new value of the element
+   * @throws IllegalArgumentException if the element can't be set. This could be the case if the field is no array or null; if the index
+   *         is out of bounds; or if the component type of the array can't be widened from double.
+   */
+  public void setDouble(final T instance, final int index, final double value) {
+    try {
+      Array.setDouble(field.get(instance), index, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set double element " + index + " to " + value + " at " + getName() + " in " + instance, e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "FieldAccessor[" + type.getName() + "." + getName() + "]";
+  }
+}
@@ -0,0 +1,527 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.invoke.VarHandle.AccessMode;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Reads and writes an (accessible) field through a {@link VarHandle} unreflected with {@link MethodHandles#privateLookupIn}. The var handle
+ * is adapted once to a getter of shape {@code (Object instanceOrClass)Object} and a setter of shape
+ * {@code (Object instanceOrClass, Object value)void}, using volatile access for volatile fields. Handles of static fields ignore the given
+ * instance or class. Primitive fields additionally get a getter and a setter typed with the primitive type of the field, so they can be
+ * read and written without boxing.
+ * <p>
+ * Accesses with an instance or value the field does not accept, writes of final fields, as well as fields no private lookup can be
+ * obtained for, fall back to reflection. Thus all errors are reported exactly like {@link Field#get(Object)} and
+ * {@link Field#set(Object, Object)} report them.
+ * </p>
+ * <p>
+ * The handles are kept in (final) instance fields of the cached field handle, which the JIT does not treat as constants, so accesses are
+ * not constant-folded even for static fields. Folding would require a generated class per field holding its handle in a static final
+ * field.
+ * </p>
+ *
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+final class FieldHandle {
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private final Field field;
+  private final Class<?> type;
+  private final Class<?> receiverType;
+  private final MethodHandle getter;
+  private final MethodHandle setter;
+  private final MethodHandle primitiveGetter;
+  private final MethodHandle primitiveSetter;
+
+  /**
+   * Creates a field handle for the given field.
+   *
+   * @param field the (accessible) field
+   * @param receiverType the type the instance to access the field on must have (null for static fields)
+   * @param getter the getter of the field (null if the field can only be read by reflection)
+   * @param setter the setter of the field (null if the field can only be written by reflection)
+   * @param primitiveGetter the primitive typed getter of the field (null if the field is no primitive or can only be read by reflection)
+   * @param primitiveSetter the primitive typed setter of the field (null if the field is no primitive or can only be written by reflection)
+   */
+  private FieldHandle(final Field field, final Class<?> receiverType, final MethodHandle getter, final MethodHandle setter,
+      final MethodHandle primitiveGetter, final MethodHandle primitiveSetter) {
+    this.field = field;
+    this.type = field.getType();
+    this.receiverType = receiverType;
+    this.getter = getter;
+    this.setter = setter;
+    this.primitiveGetter = primitiveGetter;
+    this.primitiveSetter = primitiveSetter;
+  }
+
+  /**
+   * Creates a field handle for the given field.
+   *
+   * @param field the (accessible) field
+   * @return the field handle of the field
+   */
+  static FieldHandle of(final Field field) {
+    int modifiers = field.getModifiers();
+    boolean isStatic = Modifier.isStatic(modifiers);
+    boolean isVolatile = Modifier.isVolatile(modifiers);
+    MethodHandle getter = null;
+    MethodHandle setter = null;
+    MethodHandle primitiveGetter = null;
+    MethodHandle primitiveSetter = null;
+    try {
+      VarHandle varHandle = MethodHandles.privateLookupIn(field.getDeclaringClass(), LOOKUP).unreflectVarHandle(field);
+      MethodHandle get = varHandle.toMethodHandle(isVolatile ? AccessMode.GET_VOLATILE : AccessMode.GET);
+      MethodHandle set = Modifier.isFinal(modifiers) ? null
+          : varHandle.toMethodHandle(isVolatile ? AccessMode.SET_VOLATILE : AccessMode.SET);
+
+      getter = adapt(get, isStatic, true);
+      setter = (set == null) ? null : adapt(set, isStatic, true);
+      if (field.getType().isPrimitive()) {
+        primitiveGetter = adapt(get, isStatic, false);
+        primitiveSetter = (set == null) ? null : adapt(set, isStatic, false);
+      }
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      getter = null;
+      setter = null;
+      primitiveGetter = null;
+      primitiveSetter = null;
+    }
+    return new FieldHandle(field, isStatic ? null : field.getDeclaringClass(), getter, setter, primitiveGetter, primitiveSetter);
+  }
+
+  /**
+   * Adapts the given access mode handle of a var handle to take the instance or class as first argument.
+   *
+   * @param handle the access mode handle
+   * @param isStatic true if the handle accesses a static field (and thus takes no instance)
+   * @param generic true if the handle should take and return objects only, false if it should keep the primitive type of the field
+   * @return the adapted handle
+   */
+  private static MethodHandle adapt(final MethodHandle handle, final boolean isStatic, final boolean generic) {
+    MethodType type = handle.type();
+    if (generic) {
+      type = type.generic();
+      if (handle.type().returnType() == void.class) type = type.changeReturnType(void.class);
+    } else if ( !isStatic) {
+      type = type.changeParameterType(0, Object.class);
+    }
+
+    MethodHandle adaptedHandle = handle.asType(type);
+    if (isStatic) adaptedHandle = MethodHandles.dropArguments(adaptedHandle, 0, Object.class);
+    return adaptedHandle;
+  }
+
+  /**
+   * Gets the field of this handle.
+   *
+   * @return the (accessible) field
+   */
+  Field getField() {
+    return field;
+  }
+
+  /**
+   * Gets the type of the field of this handle.
+   *
+   * @return the type of the field
+   */
+  Class<?> getType() {
+    return type;
+  }
+
+  /**
+   * Gets the value of the field of this handle.
+   *
+   * @param instanceOrClass the instance to get the value from (ignored for static fields)
+   * @return the value of the field
+   * @throws IllegalAccessException if the field was read by reflection and could not be accessed
+   */
+  Object get(final Object instanceOrClass) throws IllegalAccessException {
+    if ((getter == null) || !isReceiver(instanceOrClass)) return field.get(instanceOrClass);
+    try {
+      return (Object) getter.invokeExact(instanceOrClass);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  /**
+   * Sets the value of the field of this handle.
+   *
+   * @param instanceOrClass the instance to set the value at (ignored for static fields)
+   * @param value the new value of the field
+   * @throws IllegalAccessException if the field was written by reflection and could not be accessed
+   */
+  void set(final Object instanceOrClass, final Object value) throws IllegalAccessException {
+    if ((setter == null) || !isReceiver(instanceOrClass) || !MemberHandle.isConvertible(value, type)) {
+      field.set(instanceOrClass, value);
+      return;
+    }
+    try {
+      setter.invokeExact(instanceOrClass, value);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  /**
+   * Gets the value of the field of this handle as boolean without boxing it.
+   *
+   * @param instanceOrClass the instance to get the value from (ignored for static fields)
+   * @return the value of the field
+   * @throws IllegalAccessException if the field was read by reflection and could not be accessed
+   * @see Field#getBoolean(Object)
+   */
+  boolean getBoolean(final Object instanceOrClass) throws IllegalAccessException {
+    if ( !canGet(boolean.class, instanceOrClass)) return field.getBoolean(instanceOrClass);
+    try {
+      return (boolean) primitiveGetter.invokeExact(instanceOrClass);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  /**
+   * Sets the value of the field of this handle to the given boolean without boxing it.
+   *
+   * @param instanceOrClass the instance to set the value at (ignored for static fields)
+   * @param value the new value of the field
+   * @throws IllegalAccessException if the field was written by reflection and could not be accessed
+   * @see Field#setBoolean(Object, boolean)
+   */
+  void setBoolean(final Object instanceOrClass, final boolean value) throws IllegalAccessException {
+    if ( !canSet(boolean.class, instanceOrClass)) {
+      field.setBoolean(instanceOrClass, value);
+      return;
+    }
+    try {
+      primitiveSetter.invokeExact(instanceOrClass, value);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  /**
+   * Gets the value of the field of this handle as byte without boxing it.
+   *
+   * @param instanceOrClass the instance to get the value from (ignored for static fields)
+   * @return the value of the field
+   * @throws IllegalAccessException if the field was read by reflection and could not be accessed
+   * @see Field#getByte(Object)
+   */
+  byte getByte(final Object instanceOrClass) throws IllegalAccessException {
+    if ( !canGet(byte.class, instanceOrClass)) return field.getByte(instanceOrClass);
+    try {
+      return (byte) primitiveGetter.invokeExact(instanceOrClass);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  /**
+   * Sets the value of the field of this handle to the given byte without boxing it.
+   *
+   * @param instanceOrClass the instance to set the value at (ignored for static fields)
+   * @param value the new value of the field
+   * @throws IllegalAccessException if the field was written by reflection and could not be accessed
+   * @see Field#setByte(Object, byte)
+   */
+  void setByte(final Object instanceOrClass, final byte value) throws IllegalAccessException {
+    if ( !canSet(byte.class, instanceOrClass)) {
+      field.setByte(instanceOrClass, value);
+      return;
+    }
+    try {
+      primitiveSetter.invokeExact(instanceOrClass, value);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  /**
+   * Gets the value of the field of this handle as char without boxing it.
+   *
+   * @param instanceOrClass the instance to get the value from (ignored for static fields)
+   * @return the value of the field
+   * @throws IllegalAccessException if the field was read by reflection and could not be accessed
+   * @see Field#getChar(Object)
+   */
+  char getChar(final Object instanceOrClass) throws IllegalAccessException {
+    if ( !canGet(char.class, instanceOrClass)) return field.getChar(instanceOrClass);
+    try {
+      return (char) primitiveGetter.invokeExact(instanceOrClass);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  /**
+   * Sets the value of the field of this handle to the given char without boxing it.
+   *
+   * @param instanceOrClass the instance to set the value at (ignored for static fields)
+   * @param value the new value of the field
+   * @throws IllegalAccessException if the field was written by reflection and could not be accessed
+   * @see Field#setChar(Object, char)
+   */
+  void setChar(final Object instanceOrClass, final char value) throws IllegalAccessException {
+    if ( !canSet(char.class, instanceOrClass)) {
+      field.setChar(instanceOrClass, value);
+      return;
+    }
+    try {
+      primitiveSetter.invokeExact(instanceOrClass, value);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  /**
+   * Gets the value of the field of this handle as short without boxing it.
+   *
+   * @param instanceOrClass the instance to get the value from (ignored for static fields)
+   * @return the value of the field
+   * @throws IllegalAccessException if the field was read by reflection and could not be accessed
+   * @see Field#getShort(Object)
+   */
+  short getShort(final Object instanceOrClass) throws IllegalAccessException {
+    if ( !canGet(short.class, instanceOrClass)) return field.getShort(instanceOrClass);
+    try {
+      return (short) primitiveGetter.invokeExact(instanceOrClass);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  /**
+   * Sets the value of the field of this handle to the given short without boxing it.
+   *
+   * @param instanceOrClass the instance to set the value at (ignored for static fields)
+   * @param value the new value of the field
+   * @throws IllegalAccessException if the field was written by reflection and could not be accessed
+   * @see Field#setShort(Object, short)
+   */
+  void setShort(final Object instanceOrClass, final short value) throws IllegalAccessException {
+    if ( !canSet(short.class, instanceOrClass)) {
+      field.setShort(instanceOrClass, value);
+      return;
+    }
+    try {
+      primitiveSetter.invokeExact(instanceOrClass, value);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  /**
+   * Gets the value of the field of this handle as int without boxing it.
+   *
+   * @param instanceOrClass the instance to get the value from (ignored for static fields)
+   * @return the value of the field
+   * @throws IllegalAccessException if the field was read by reflection and could not be accessed
+   * @see Field#getInt(Object)
+   */
+  int getInt(final Object instanceOrClass) throws IllegalAccessException {
+    if ( !canGet(int.class, instanceOrClass)) return field.getInt(instanceOrClass);
+    try {
+      return (int) primitiveGetter.invokeExact(instanceOrClass);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  /**
+   * Sets the value of the field of this handle to the given int without boxing it.
+   *
+   * @param instanceOrClass the instance to set the value at (ignored for static fields)
+   * @param value the new value of the field
+   * @throws IllegalAccessException if the field was written by reflection and could not be accessed
+   * @see Field#setInt(Object, int)
+   */
+  void setInt(final Object instanceOrClass, final int value) throws IllegalAccessException {
+    if ( !canSet(int.class, instanceOrClass)) {
+      field.setInt(instanceOrClass, value);
+      return;
+    }
+    try {
+      primitiveSetter.invokeExact(instanceOrClass, value);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  /**
+   * Gets the value of the field of this handle as long without boxing it.
+   *
+   * @param instanceOrClass the instance to get the value from (ignored for static fields)
+   * @return the value of the field
+   * @throws IllegalAccessException if the field was read by reflection and could not be accessed
+   * @see Field#getLong(Object)
+   */
+  long getLong(final Object instanceOrClass) throws IllegalAccessException {
+    if ( !canGet(long.class, instanceOrClass)) return field.getLong(instanceOrClass);
+    try {
+      return (long) primitiveGetter.invokeExact(instanceOrClass);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  /**
+   * Sets the value of the field of this handle to the given long without boxing it.
+   *
+   * @param instanceOrClass the instance to set the value at (ignored for static fields)
+   * @param value the new value of the field
+   * @throws IllegalAccessException if the field was written by reflection and could not be accessed
+   * @see Field#setLong(Object, long)
+   */
+  void setLong(final Object instanceOrClass, final long value) throws IllegalAccessException {
+    if ( !canSet(long.class, instanceOrClass)) {
+      field.setLong(instanceOrClass, value);
+      return;
+    }
+    try {
+      primitiveSetter.invokeExact(instanceOrClass, value);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  /**
+   * Gets the value of the field of this handle as float without boxing it.
+   *
+   * @param instanceOrClass the instance to get the value from (ignored for static fields)
+   * @return the value of the field
+   * @throws IllegalAccessException if the field was read by reflection and could not be accessed
+   * @see Field#getFloat(Object)
+   */
+  float getFloat(final Object instanceOrClass) throws IllegalAccessException {
+    if ( !canGet(float.class, instanceOrClass)) return field.getFloat(instanceOrClass);
+    try {
+      return (float) primitiveGetter.invokeExact(instanceOrClass);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  /**
+   * Sets the value of the field of this handle to the given float without boxing it.
+   *
+   * @param instanceOrClass the instance to set the value at (ignored for static fields)
+   * @param value the new value of the field
+   * @throws IllegalAccessException if the field was written by reflection and could not be accessed
+   * @see Field#setFloat(Object, float)
+   */
+  void setFloat(final Object instanceOrClass, final float value) throws IllegalAccessException {
+    if ( !canSet(float.class, instanceOrClass)) {
+      field.setFloat(instanceOrClass, value);
+      return;
+    }
+    try {
+      primitiveSetter.invokeExact(instanceOrClass, value);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  /**
+   * Gets the value of the field of this handle as double without boxing it.
+   *
+   * @param instanceOrClass the instance to get the value from (ignored for static fields)
+   * @return the value of the field
+   * @throws IllegalAccessException if the field was read by reflection and could not be accessed
+   * @see Field#getDouble(Object)
+   */
+  double getDouble(final Object instanceOrClass) throws IllegalAccessException {
+    if ( !canGet(double.class, instanceOrClass)) return field.getDouble(instanceOrClass);
+    try {
+      return (double) primitiveGetter.invokeExact(instanceOrClass);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  /**
+   * Sets the value of the field of this handle to the given double without boxing it.
+   *
+   * @param instanceOrClass the instance to set the value at (ignored for static fields)
+   * @param value the new value of the field
+   * @throws IllegalAccessException if the field was written by reflection and could not be accessed
+   * @see Field#setDouble(Object, double)
+   */
+  void setDouble(final Object instanceOrClass, final double value) throws IllegalAccessException {
+    if ( !canSet(double.class, instanceOrClass)) {
+      field.setDouble(instanceOrClass, value);
+      return;
+    }
+    try {
+      primitiveSetter.invokeExact(instanceOrClass, value);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  /**
+   * Checks if the field can be read as the given primitive type from the given instance or class by its primitive typed getter. Fields of
+   * other types (that might need a widening conversion) are read by reflection.
+   *
+   * @param primitiveType the primitive type to read the field as
+   * @param instanceOrClass the instance or class to read the field from
+   * @return true if the primitive typed getter can be used, false if reflection has to be used
+   */
+  private boolean canGet(final Class<?> primitiveType, final Object instanceOrClass) {
+    return (type == primitiveType) && (primitiveGetter != null) && isReceiver(instanceOrClass);
+  }
+
+  /**
+   * Checks if the field can be written as the given primitive type at the given instance or class by its primitive typed setter. Fields
+   * of other types (that might need a widening conversion) are written by reflection.
+   *
+   * @param primitiveType the primitive type to write the field as
+   * @param instanceOrClass the instance or class to write the field at
+   * @return true if the primitive typed setter can be used, false if reflection has to be used
+   */
+  private boolean canSet(final Class<?> primitiveType, final Object instanceOrClass) {
+    return (type == primitiveType) && (primitiveSetter != null) && isReceiver(instanceOrClass);
+  }
+
+  /**
+   * Checks if the field can be accessed on the given instance or class by its handles.
+   *
+   * @param instanceOrClass the instance or class to access the field on
+   * @return true if the handles accept the given instance or class, false if reflection has to be used
+   */
+  private boolean isReceiver(final Object instanceOrClass) {
+    return (receiverType == null) || receiverType.isInstance(instanceOrClass);
+  }
+
+  /**
+   * Gets the given throwable thrown by a handle to be rethrown. Runtime exceptions and errors are rethrown as they are, handles of fields
+   * don't throw other throwables.
+   *
+   * @param throwable the throwable thrown by a handle
+   * @return the runtime exception to throw
+   */
+  private static RuntimeException rethrow(final Throwable throwable) {
+    if (throwable instanceof Error) throw (Error) throwable;
+    if (throwable instanceof RuntimeException) return (RuntimeException) throwable;
+    return new UndeclaredThrowableException(throwable);
+  }
+}
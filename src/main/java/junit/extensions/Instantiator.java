@@ -0,0 +1,142 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.util.Arrays;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Instantiates a class through a constructor (public, private, protected, default) that has been resolved once by
+ * {@link PA#instantiator(Class, Class...)}. Instantiators are immutable and thread-safe, so they can be kept in static final fields and
+ * used to create lots of objects without looking up the constructor again.
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>
+ * private static final Function&lt;String, MyClass&gt; MY_CLASS = PA.instantiator(MyClass.class, String.class).asFunction();
+ * ...
+ * MyClass myObj = MY_CLASS.apply(&quot;myName&quot;);
+ * </pre>
+ *
+ * @param <T> the type of the instances created
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+public final class Instantiator<T> {
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  private final Class<T> type;
+  private final int parameterCount;
+  private final MemberHandle constructor;
+
+  /**
+   * Creates an instantiator for the given constructor.
+   *
+   * @param type the class to instantiate
+   * @param parameterCount the number of parameters of the constructor
+   * @param constructor the handle of the constructor
+   */
+  Instantiator(final Class<T> type, final int parameterCount, final MemberHandle constructor) {
+    this.type = type;
+    this.parameterCount = parameterCount;
+    this.constructor = constructor;
+  }
+
+  /**
+   * Instantiates an object with the given arguments.
+   *
+   * @param arguments the arguments to pass to the constructor
+   * @return the new object
+   * @throws IllegalArgumentException if the class can't be instantiated. This could be the case if the number of actual and formal
+   *         parameters differ; if an argument couldn't be converted to match the expected type; if the underlying constructor throws an
+   *         exception; or if the class represents an abstract class.
+   * @see PA#instantiate(Class, Class[], Object...)
+   */
+  public T newInstance(final Object... arguments) {
+    return create(PA.correctVarargs(arguments));
+  }
+
+  /**
+   * Gets this instantiator as a supplier. Only instantiators of constructors without parameters can be used as suppliers.
+   *
+   * @return a supplier of new objects
+   * @throws IllegalArgumentException if the constructor has parameters
+   */
+  public Supplier<T> asSupplier() {
+    checkParameterCount(0);
+    return () -> create(NO_ARGUMENTS);
+  }
+
+  /**
+   * Gets this instantiator as a function of the single argument of the constructor. Only instantiators of constructors with one parameter
+   * can be used as functions.
+   *
+   * @param <A> the type of the argument
+   * @return a function creating new objects
+   * @throws IllegalArgumentException if the constructor does not have exactly one parameter
+   */
+  public <A> Function<A, T> asFunction() {
+    checkParameterCount(1);
+    return argument -> create(new Object[] {argument});
+  }
+
+  /**
+   * Gets this instantiator as a function of the two arguments of the constructor. Only instantiators of constructors with two parameters
+   * can be used as bi-functions.
+   *
+   * @param <A> the type of the first argument
+   * @param <B> the type of the second argument
+   * @return a function creating new objects
+   * @throws IllegalArgumentException if the constructor does not have exactly two parameters
+   */
+  public <A, B> BiFunction<A, B, T> asBiFunction() {
+    checkParameterCount(2);
+    return (argument1, argument2) -> create(new Object[] {argument1, argument2});
+  }
+
+  /**
+   * Instantiates an object with the given (already corrected) arguments.
+   *
+   * @param arguments the arguments to pass to the constructor
+   * @return the new object
+   * @throws IllegalArgumentException if the class can't be instantiated
+   */
+  @SuppressWarnings("unchecked")
+  private T create(final Object[] arguments) {
+    try {
+      return (T) constructor.newInstance(arguments);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't instantiate class " + type + " with arguments " + Arrays.toString(arguments), e);
+    }
+  }
+
+  /**
+   * Checks that the constructor has the given number of parameters.
+   *
+   * @param expectedParameterCount the expected number of parameters
+   * @throws IllegalArgumentException if the constructor has another number of parameters
+   */
+  private void checkParameterCount(final int expectedParameterCount) {
+    if (parameterCount != expectedParameterCount) {
+      throw new IllegalArgumentException(
+        "The constructor of " + type + " has " + parameterCount + " instead of " + expectedParameterCount + " parameters");
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "Instantiator[" + constructor.getMember() + "]";
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A map bounded to {@link #getMaximumSize()} entries that evicts its least recently used entries when full. Not thread-safe.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+final class LruMap<K, V> extends LinkedHashMap<K, V> {
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The default maximum number of entries of each LRU map.
+   */
+  static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+  private static volatile int maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+  private final transient CacheCounters counters;
+
+  /**
+   * Creates an empty map counting its evictions with the given counters.
+   *
+   * @param counters the counters of the cache this map is part of
+   */
+  LruMap(final CacheCounters counters) {
+    super(16, 0.75f, true);
+    this.counters = counters;
+  }
+
+  /**
+   * Gets the maximum number of entries of each LRU map.
+   *
+   * @return the maximum number of entries
+   */
+  static int getMaximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * Sets the maximum number of entries of each LRU map. Maps that are larger than the new maximum size shrink with their next insertion.
+   *
+   * @param newMaximumSize the maximum number of entries
+   */
+  static void setMaximumSize(final int newMaximumSize) {
+    maximumSize = newMaximumSize;
+  }
+
+  @Override
+  protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+    int evictions = 0;
+    for (Iterator<K> keys = keySet().iterator(); size() > maximumSize; evictions++ ) {
+      keys.next();
+      keys.remove();
+    }
+    if (evictions > 0) counters.evicted(evictions);
+    return false;
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe cache of metadata (fields, methods, constructors, method signatures) resolved for a class. The cached metadata is attached
+ * to the class it was resolved for (via {@link ClassValue}), so it is released together with that class and never pins its class loader.
+ * <p>
+ * Caches whose keys are arbitrary strings (e.g. method signatures) can be bounded. Bounded caches hold at most
+ * {@link LruMap#getMaximumSize()} entries per class and evict the least recently used entries first.
+ * </p>
+ * <p>
+ * To compute its size, the cache weakly references the metadata of each class. References released together with their class are
+ * purged whenever metadata is attached to another class, so the cache never grows with the number of classes already unloaded.
+ * </p>
+ *
+ * @param <K> the type of the key identifying the metadata within a class
+ * @param <V> the type of the cached metadata
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+final class MemberCache<K, V> {
+  /**
+   * Resolves the metadata that was not found in the cache.
+   *
+   * @param <K> the type of the key identifying the metadata within a class
+   * @param <V> the type of the metadata
+   * @param <E> the type of exception thrown if the metadata can't be resolved
+   */
+  @FunctionalInterface
+  interface Loader<K, V, E extends Exception> {
+    /**
+     * Resolves the metadata for the given type and key.
+     *
+     * @param type the class to resolve the metadata for
+     * @param key the key identifying the metadata
+     * @return the resolved metadata
+     * @throws E if the metadata can't be resolved
+     */
+    V load(Class<?> type, K key) throws E;
+  }
+
+  private final boolean bounded;
+  private final CacheCounters counters;
+  private final Set<Reference<? extends Map<K, V>>> segments = ConcurrentHashMap.newKeySet();
+  private final ReferenceQueue<Map<K, V>> releasedSegments = new ReferenceQueue<>();
+  private final ClassValue<Map<K, V>> members = new ClassValue<Map<K, V>>() {
+    @Override
+    protected Map<K, V> computeValue(Class<?> type) {
+      purgeReleasedSegments();
+      Map<K, V> segment = bounded ? Collections.synchronizedMap(new LruMap<>(counters)) : new ConcurrentHashMap<>();
+      segments.add(new WeakReference<>(segment, releasedSegments));
+      return segment;
+    }
+  };
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param name the name of the cache (as shown in its statistics)
+   * @param bounded true if the number of entries per class should be bounded, false otherwise
+   */
+  MemberCache(final String name, final boolean bounded) {
+    this.bounded = bounded;
+    this.counters = new CacheCounters(name);
+  }
+
+  /**
+   * Gets the metadata cached for the given type and key. Resolves and caches the metadata with the given loader if it was not cached yet.
+   *
+   * @param type the class the metadata was resolved for
+   * @param key the key identifying the metadata
+   * @param loader the loader to resolve the metadata if it is not cached yet
+   * @param <E> the type of exception thrown if the metadata can't be resolved
+   * @return the cached metadata
+   * @throws E if the metadata can't be resolved
+   */
+  <E extends Exception> V get(final Class<?> type, final K key, final Loader<K, V, E> loader) throws E {
+    Map<K, V> segment = members.get(type);
+
+    V member = segment.get(key);
+    if (member != null) {
+      counters.hit();
+      return member;
+    }
+
+    counters.miss();
+    long start = System.nanoTime();
+    member = loader.load(type, key);
+    counters.loaded(System.nanoTime() - start);
+
+    V cachedMember = segment.putIfAbsent(key, member);
+    return (cachedMember == null) ? member : cachedMember;
+  }
+
+  /**
+   * Removes the metadata cached for the given type and key (if any).
+   *
+   * @param type the class the metadata was resolved for
+   * @param key the key identifying the metadata
+   */
+  void remove(final Class<?> type, final K key) {
+    members.get(type).remove(key);
+  }
+
+  /**
+   * Takes a snapshot of the statistics of this cache.
+   *
+   * @return the current statistics of this cache
+   */
+  CacheStatistics statistics() {
+    purgeReleasedSegments();
+    long size = 0;
+    for (Reference<? extends Map<K, V>> reference : segments) {
+      Map<K, V> segment = reference.get();
+      if (segment != null) size += segment.size();
+    }
+    return counters.snapshot(size);
+  }
+
+  /**
+   * Gets the number of classes the cache currently references metadata of (including classes already unloaded, but not yet purged).
+   *
+   * @return the number of referenced segments
+   */
+  int segmentCount() {
+    return segments.size();
+  }
+
+  /**
+   * Forgets the metadata of classes that were released (e.g. together with their class loader).
+   */
+  private void purgeReleasedSegments() {
+    for (Reference<? extends Map<K, V>> reference = releasedSegments.poll(); reference != null; reference = releasedSegments.poll()) {
+      segments.remove(reference);
+    }
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Invokes an (accessible) method or constructor through a method handle unreflected with {@link MethodHandles#privateLookupIn}. The handle
+ * is adapted once to the spread-invoker shape {@code (Object instanceOrClass, Object[] arguments)Object}, so invoking it neither needs
+ * reflection nor wraps exceptions and can be inlined by the JIT. Methods additionally get an exact handle of shape
+ * {@code (Object instanceOrClass, <parameter types>)<return type>} keeping the primitive parameter and return types, so they can be invoked
+ * without boxing.
+ * <p>
+ * Invocations with arguments the member does not accept, as well as members no private lookup can be obtained for (e.g. members of
+ * classes in modules that are not open to PA), fall back to reflection. Thus all errors are reported exactly like
+ * {@link Method#invoke(Object, Object...)} and {@link Constructor#newInstance(Object...)} report them.
+ * </p>
+ *
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+final class MemberHandle {
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private final Executable member;
+  private final Class<?>[] parameterTypes;
+  private final Class<?> receiverType;
+  private final MethodHandle handle;
+  private final MethodHandle exactHandle;
+
+  /**
+   * Creates a member handle for the given member.
+   *
+   * @param member the (accessible) method or constructor
+   * @param receiverType the type the instance to invoke the member on must have (null for static methods and constructors)
+   * @param handle the method handle of the member in spread-invoker shape (null if the member can only be invoked by reflection)
+   * @param exactHandle the method handle of the member keeping its parameter and return types (null for constructors and if the member can
+   *        only be invoked by reflection)
+   */
+  private MemberHandle(final Executable member, final Class<?> receiverType, final MethodHandle handle, final MethodHandle exactHandle) {
+    this.member = member;
+    this.parameterTypes = member.getParameterTypes();
+    this.receiverType = receiverType;
+    this.handle = handle;
+    this.exactHandle = exactHandle;
+  }
+
+  /**
+   * Creates a member handle for the given method.
+   *
+   * @param method the (accessible) method
+   * @return the member handle of the method
+   */
+  static MemberHandle of(final Method method) {
+    boolean isStatic = Modifier.isStatic(method.getModifiers());
+    MethodHandle handle;
+    MethodHandle exactHandle;
+    try {
+      MethodHandle directHandle = MethodHandles.privateLookupIn(method.getDeclaringClass(), LOOKUP).unreflect(method).asFixedArity();
+      handle = directHandle.asType(directHandle.type().generic()).asSpreader(Object[].class, method.getParameterCount());
+      if (isStatic) {
+        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        exactHandle = MethodHandles.dropArguments(directHandle, 0, Object.class);
+      } else {
+        exactHandle = directHandle.asType(directHandle.type().changeParameterType(0, Object.class));
+      }
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      handle = null;
+      exactHandle = null;
+    }
+    return new MemberHandle(method, isStatic ? null : method.getDeclaringClass(), handle, exactHandle);
+  }
+
+  /**
+   * Creates a member handle for the given constructor.
+   *
+   * @param constructor the (accessible) constructor
+   * @return the member handle of the constructor
+   */
+  static MemberHandle of(final Constructor<?> constructor) {
+    MethodHandle handle = null;
+    if ( !Modifier.isAbstract(constructor.getDeclaringClass().getModifiers())) {
+      try {
+        handle = MethodHandles.privateLookupIn(constructor.getDeclaringClass(), LOOKUP).unreflectConstructor(constructor).asFixedArity();
+        handle = handle.asType(handle.type().generic()).asSpreader(Object[].class, constructor.getParameterCount());
+        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        handle = null;
+      }
+    }
+    return new MemberHandle(constructor, null, handle, null);
+  }
+
+  /**
+   * Gets the method or constructor of this handle.
+   *
+   * @return the (accessible) method or constructor
+   */
+  Executable getMember() {
+    return member;
+  }
+
+  /**
+   * Gets the exact method handle of the method of this handle. Its first parameter is the instance to invoke the method on (ignored for
+   * static methods) followed by the parameters of the method. Its return type is the return type of the method.
+   *
+   * @return the exact method handle or null if the method can only be invoked by reflection
+   */
+  MethodHandle getExactHandle() {
+    return exactHandle;
+  }
+
+  /**
+   * Checks if the member of this handle can be invoked on the given instance or class by its method handles.
+   *
+   * @param instanceOrClass the instance or class to invoke the member on
+   * @return true if the method handles accept the given instance or class, false if reflection has to be used
+   */
+  boolean isReceiver(final Object instanceOrClass) {
+    return (receiverType == null) || receiverType.isInstance(instanceOrClass);
+  }
+
+  /**
+   * Invokes the method of this handle on the given instance or class with the given arguments.
+   *
+   * @param instanceOrClass the instance to invoke the method on (ignored for static methods)
+   * @param arguments the arguments to pass to the method
+   * @return the return value of the method or null if void
+   * @throws InvocationTargetException if the method was invoked by reflection and threw an exception
+   * @throws Throwable any exception the method threw when it was invoked by its method handle or the exception reflection threw
+   */
+  Object invoke(final Object instanceOrClass, final Object[] arguments) throws Throwable {
+    if (accepts(instanceOrClass, arguments)) return (Object) handle.invokeExact(instanceOrClass, arguments);
+    return ((Method) member).invoke(instanceOrClass, arguments);
+  }
+
+  /**
+   * Invokes the constructor of this handle with the given arguments.
+   *
+   * @param arguments the arguments to pass to the constructor
+   * @return the new instance
+   * @throws InvocationTargetException if the constructor threw an exception
+   * @throws ReflectiveOperationException if the constructor could not be invoked
+   */
+  Object newInstance(final Object[] arguments) throws ReflectiveOperationException {
+    if ( !accepts(null, arguments)) return ((Constructor<?>) member).newInstance(arguments);
+    try {
+      return (Object) handle.invokeExact((Object) null, arguments);
+    } catch (Throwable e) {
+      throw new InvocationTargetException(e);
+    }
+  }
+
+  /**
+   * Checks if the method handle can be invoked with the given instance and arguments without failing before it reaches the member.
+   *
+   * @param instanceOrClass the instance to invoke the member on
+   * @param arguments the arguments to pass to the member
+   * @return true if the method handle accepts the given instance and arguments, false if reflection has to be used
+   */
+  private boolean accepts(final Object instanceOrClass, final Object[] arguments) {
+    if ((handle == null) || (arguments == null) || (arguments.length != parameterTypes.length)) return false;
+    if ( !isReceiver(instanceOrClass)) return false;
+
+    for (int i = 0; i < arguments.length; i++ ) {
+      if ( !isConvertible(arguments[i], parameterTypes[i])) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Checks if the given argument can be converted to the given parameter (or field) type by a method invocation conversion.
+   *
+   * @param argument the argument
+   * @param parameterType the type of the parameter
+   * @return true if the argument can be passed for the parameter, otherwise false
+   */
+  static boolean isConvertible(final Object argument, final Class<?> parameterType) {
+    return Conversions.isConvertible((argument == null) ? null : argument.getClass(), parameterType);
+  }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Indexes the linearized fields or methods of a {@link ClassMirror} by name, type, modifiers and annotations. Each index maps a key to the
+ * set of positions of the matching members, so queries combine precomputed bit sets instead of scanning the members. The annotation
+ * index is filled lazily per annotation type, since the annotation types queried for are not known in advance. Only annotation types
+ * visible from the indexed class are kept, since all others would pin their class loader for the life of the indexed class.
+ *
+ * @param <M> the type of the members
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+final class MemberIndex<M extends Member & AnnotatedElement> {
+  /**
+   * The number of modifier bits defined by {@link java.lang.reflect.Modifier}.
+   */
+  private static final int MODIFIER_BITS = 12;
+
+  private final Class<?> type;
+  private final M[] members;
+  private final String[] names;
+  private final Map<String, BitSet> byName = new HashMap<>();
+  private final Map<Class<?>, BitSet> byType = new HashMap<>();
+  private final BitSet[] byModifier = new BitSet[MODIFIER_BITS];
+  private final Map<Class<? extends Annotation>, BitSet> byAnnotation = new ConcurrentHashMap<>();
+
+  /**
+   * Creates the index of the given members.
+   *
+   * @param type the class the members belong to
+   * @param members the members in lookup order. The given array must not be changed afterwards.
+   * @param typeOf gets the type of a member (e.g. the type of a field or the return type of a method)
+   * @param modifierMask the modifiers the members can have (e.g. {@link java.lang.reflect.Modifier#fieldModifiers()}). Other bits of the
+   *        modifiers of the members (e.g. the ones marking bridge and varargs methods) are not indexed.
+   */
+  MemberIndex(final Class<?> type, final M[] members, final Function<M, Class<?>> typeOf, final int modifierMask) {
+    this.type = type;
+    this.members = members;
+    for (int bit = 0; bit < MODIFIER_BITS; bit++ ) {
+      byModifier[bit] = new BitSet(members.length);
+    }
+
+    for (int i = 0; i < members.length; i++ ) {
+      M member = members[i];
+      byName.computeIfAbsent(member.getName(), name -> new BitSet(members.length)).set(i);
+      byType.computeIfAbsent(typeOf.apply(member), memberType -> new BitSet(members.length)).set(i);
+      for (int bit = 0; bit < MODIFIER_BITS; bit++ ) {
+        if ((member.getModifiers() & modifierMask & (1 << bit)) != 0) byModifier[bit].set(i);
+      }
+    }
+
+    names = byName.keySet().toArray(new String[0]);
+    Arrays.sort(names);
+  }
+
+  /**
+   * Gets the member at the given position.
+   *
+   * @param index the position of the member in lookup order
+   * @return the member
+   */
+  M get(final int index) {
+    return members[index];
+  }
+
+  /**
+   * Gets the positions of all members.
+   *
+   * @return a new set of the positions of all members
+   */
+  BitSet all() {
+    BitSet all = new BitSet(members.length);
+    all.set(0, members.length);
+    return all;
+  }
+
+  /**
+   * Gets the positions of the members with the given name.
+   *
+   * @param name the name of the members
+   * @return the positions of the matching members (must not be changed)
+   */
+  BitSet named(final String name) {
+    return byName.getOrDefault(name, new BitSet());
+  }
+
+  /**
+   * Gets the positions of the members whose name starts with the given prefix. The matching names are found by a binary search in the
+   * sorted names.
+   *
+   * @param prefix the prefix of the names of the members
+   * @return a new set of the positions of the matching members
+   */
+  BitSet prefixed(final String prefix) {
+    BitSet matching = new BitSet(members.length);
+    int index = Arrays.binarySearch(names, prefix);
+    for (int i = (index < 0) ? -index - 1 : index; (i < names.length) && names[i].startsWith(prefix); i++ ) {
+      matching.or(byName.get(names[i]));
+    }
+    return matching;
+  }
+
+  /**
+   * Gets the positions of the members whose name matches the given glob pattern. In the pattern, '*' matches any number of characters and
+   * '?' matches exactly one character. Patterns without wildcards and prefix patterns (like "get*") use the name index directly, all other
+   * patterns are matched against the distinct names only.
+   *
+   * @param glob the pattern the names of the members have to match
+   * @return a new set of the positions of the matching members
+   */
+  BitSet matching(final String glob) {
+    int firstWildcard = indexOfWildcard(glob);
+    if (firstWildcard == -1) return (BitSet) named(glob).clone();
+    if ((firstWildcard == glob.length() - 1) && (glob.charAt(firstWildcard) == '*')) return prefixed(glob.substring(0, firstWildcard));
+
+    Pattern pattern = toPattern(glob);
+    BitSet matching = new BitSet(members.length);
+    for (String name : names) {
+      if (pattern.matcher(name).matches()) matching.or(byName.get(name));
+    }
+    return matching;
+  }
+
+  /**
+   * Gets the positions of the members of exactly the given type.
+   *
+   * @param memberType the type of the members
+   * @return the positions of the matching members (must not be changed)
+   */
+  BitSet ofType(final Class<?> memberType) {
+    return byType.getOrDefault(memberType, new BitSet());
+  }
+
+  /**
+   * Gets the positions of the members having all the given modifiers.
+   *
+   * @param modifiers the modifiers as defined by {@link java.lang.reflect.Modifier} (e.g. <code>Modifier.STATIC | Modifier.FINAL</code>)
+   * @return a new set of the positions of the matching members
+   */
+  BitSet withModifiers(final int modifiers) {
+    BitSet matching = all();
+    for (int bit = 0; bit < MODIFIER_BITS; bit++ ) {
+      if ((modifiers & (1 << bit)) != 0) matching.and(byModifier[bit]);
+    }
+    return matching;
+  }
+
+  /**
+   * Gets the positions of the members having none of the given modifiers.
+   *
+   * @param modifiers the modifiers as defined by {@link java.lang.reflect.Modifier} (e.g. <code>Modifier.STATIC</code>)
+   * @return a new set of the positions of the matching members
+   */
+  BitSet withoutModifiers(final int modifiers) {
+    BitSet matching = all();
+    for (int bit = 0; bit < MODIFIER_BITS; bit++ ) {
+      if ((modifiers & (1 << bit)) != 0) matching.andNot(byModifier[bit]);
+    }
+    return matching;
+  }
+
+  /**
+   * Gets the positions of the members annotated with the given annotation type. The positions are computed on first use per annotation
+   * type and kept if the annotation type is visible from the indexed class.
+   *
+   * @param annotationType the type of the annotation
+   * @return the positions of the matching members (must not be changed)
+   */
+  BitSet annotatedWith(final Class<? extends Annotation> annotationType) {
+    if ( !PA.isVisibleFrom(type, annotationType)) return findAnnotated(annotationType);
+
+    return byAnnotation.computeIfAbsent(annotationType, this::findAnnotated);
+  }
+
+  /**
+   * Finds the positions of the members annotated with the given annotation type.
+   *
+   * @param annotationType the type of the annotation
+   * @return a new set of the positions of the matching members
+   */
+  private BitSet findAnnotated(final Class<? extends Annotation> annotationType) {
+    BitSet matching = new BitSet(members.length);
+    for (int i = 0; i < members.length; i++ ) {
+      if (members[i].isAnnotationPresent(annotationType)) matching.set(i);
+    }
+    return matching;
+  }
+
+  /**
+   * Gets the position of the first wildcard in the given glob pattern.
+   *
+   * @param glob the glob pattern
+   * @return the position of the first '*' or '?' or -1 if there is none
+   */
+  private static int indexOfWildcard(final String glob) {
+    for (int i = 0; i < glob.length(); i++ ) {
+      if ((glob.charAt(i) == '*') || (glob.charAt(i) == '?')) return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Converts the given glob pattern to a regular expression.
+   *
+   * @param glob the glob pattern
+   * @return the regular expression
+   */
+  private static Pattern toPattern(final String glob) {
+    StringBuilder regex = new StringBuilder();
+    StringBuilder literal = new StringBuilder();
+    for (char character : glob.toCharArray()) {
+      if ((character != '*') && (character != '?')) {
+        literal.append(character);
+        continue;
+      }
+      if (literal.length() > 0) regex.append(Pattern.quote(literal.toString()));
+      literal.setLength(0);
+      regex.append((character == '*') ? ".*" : ".");
+    }
+    if (literal.length() > 0) regex.append(Pattern.quote(literal.toString()));
+    return Pattern.compile(regex.toString());
+  }
+}
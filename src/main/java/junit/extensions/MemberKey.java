@@ -0,0 +1,75 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.util.Arrays;
+
+/**
+ * Identifies a method (or constructor) within a class by its name and its parameter types.
+ *
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+final class MemberKey {
+  private final String name;
+  private final Class<?>[] parameterTypes;
+  private final int hashCode;
+
+  /**
+   * Creates a key for the member with the given name and parameter types. The given array must not be changed afterwards.
+   *
+   * @param name the name of the member
+   * @param parameterTypes the parameter types of the member
+   */
+  MemberKey(final String name, final Class<?>[] parameterTypes) {
+    this.name = name;
+    this.parameterTypes = parameterTypes;
+    this.hashCode = 31 * name.hashCode() + Arrays.hashCode(parameterTypes);
+  }
+
+  /**
+   * Gets the name of the member.
+   *
+   * @return the name of the member
+   */
+  String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the parameter types of the member. The returned array must not be changed.
+   *
+   * @return the parameter types of the member
+   */
+  Class<?>[] getParameterTypes() {
+    return parameterTypes;
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (this == other) return true;
+    if ( !(other instanceof MemberKey)) return false;
+
+    MemberKey otherKey = (MemberKey) other;
+    return (hashCode == otherKey.hashCode) && name.equals(otherKey.name) && Arrays.equals(parameterTypes, otherKey.parameterTypes);
+  }
+
+  @Override
+  public String toString() {
+    return name + Arrays.toString(parameterTypes);
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+
+/**
+ * The name of a field or the signature (including the return type, e.g. "java.lang.String getName()") of a method together with the class
+ * or interface declaring it, as listed by {@link PA#getFieldNameList(Object)} and {@link PA#getMethodSignatureList(Object)}. Method
+ * signatures are built and interned on first access.
+ * <p>
+ * Member names are immutable and thus thread-safe.
+ * </p>
+ *
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+public final class MemberName {
+  private final Member member;
+  private String name;
+
+  /**
+   * Creates the name of the given field or method.
+   *
+   * @param member the field or method
+   */
+  MemberName(final Member member) {
+    this.member = member;
+    this.name = (member instanceof Method) ? null : member.getName();
+  }
+
+  /**
+   * Gets the class or interface declaring the field or method.
+   *
+   * @return the declaring class
+   */
+  public Class<?> getDeclaringClass() {
+    return member.getDeclaringClass();
+  }
+
+  /**
+   * Gets the name of the field resp. the signature of the method.
+   *
+   * @return the name of the field or the signature of the method
+   */
+  public String getName() {
+    String memberName = name;
+    if (memberName == null) {
+      memberName = ClassMirror.getSignature((Method) member).intern();
+      name = memberName;
+    }
+    return memberName;
+  }
+
+  /**
+   * Gets the name of the declaring class followed by '#' and the name of the field resp. the signature of the method.
+   *
+   * @return the qualified name of the member
+   */
+  @Override
+  public String toString() {
+    return getDeclaringClass().getName() + "#" + getName();
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    return (other instanceof MemberName) && member.equals(((MemberName) other).member);
+  }
+
+  @Override
+  public int hashCode() {
+    return member.hashCode();
+  }
+}
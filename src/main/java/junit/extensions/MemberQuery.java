@@ -0,0 +1,209 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * A query on the fields or methods (public, private, protected, default) of a class, all its super classes and interfaces. Queries are
+ * created by {@link PA#fields(Object)} and {@link PA#methods(Object)}.
+ * <p>
+ * Each filter returns a new, narrowed query. Filters are not evaluated member by member, but by combining indexes of the members that
+ * are built once per class, so narrowing a query costs the same however deep the class hierarchy is. The members are only looked up
+ * when the {@link #stream()} is consumed; they are returned in lookup order, i.e. the members declared by the class first. The returned
+ * members are fresh copies, which are not accessible (even if PA accessed them before) and can be changed without affecting PA; use
+ * {@link PA#field(Class, String)} or {@link PA#method(Class, String)} to access them.
+ * </p>
+ * <p>
+ * Queries are immutable and thus thread-safe.
+ * </p>
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>
+ * PA.fields(myObj).matching(&quot;my*&quot;).ofType(String.class).withoutModifiers(Modifier.STATIC).stream().map(Field::getName)...
+ * </pre>
+ *
+ * @param <M> the type of the members (fields or methods)
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+public final class MemberQuery<M extends Member & AnnotatedElement> {
+  private final MemberIndex<M> index;
+  private final BitSet selection;
+
+  /**
+   * Creates a query selecting the given members.
+   *
+   * @param index the index of the members of the class hierarchy
+   * @param selection the positions of the selected members. The given set must not be changed afterwards.
+   */
+  private MemberQuery(final MemberIndex<M> index, final BitSet selection) {
+    this.index = index;
+    this.selection = selection;
+  }
+
+  /**
+   * Creates a query selecting all the given members.
+   *
+   * @param index the index of the members of the class hierarchy
+   * @param <M> the type of the members
+   * @return the query selecting all members
+   */
+  static <M extends Member & AnnotatedElement> MemberQuery<M> of(final MemberIndex<M> index) {
+    return new MemberQuery<>(index, index.all());
+  }
+
+  /**
+   * Narrows this query to the members with exactly the given name.
+   *
+   * @param name the name of the members
+   * @return the narrowed query
+   */
+  public MemberQuery<M> named(final String name) {
+    return narrow(index.named(name));
+  }
+
+  /**
+   * Narrows this query to the members whose name starts with the given prefix.
+   *
+   * @param prefix the prefix of the names of the members
+   * @return the narrowed query
+   */
+  public MemberQuery<M> prefixed(final String prefix) {
+    return narrow(index.prefixed(prefix));
+  }
+
+  /**
+   * Narrows this query to the members whose name matches the given glob pattern, where '*' matches any number of characters and '?'
+   * matches exactly one character (e.g. "get*" or "set?ame").
+   *
+   * @param glob the pattern the names of the members have to match
+   * @return the narrowed query
+   */
+  public MemberQuery<M> matching(final String glob) {
+    return narrow(index.matching(glob));
+  }
+
+  /**
+   * Narrows this query to the fields of exactly the given type resp. to the methods with exactly the given return type.
+   *
+   * @param type the type of the fields or the return type of the methods
+   * @return the narrowed query
+   */
+  public MemberQuery<M> ofType(final Class<?> type) {
+    return narrow(index.ofType(type));
+  }
+
+  /**
+   * Narrows this query to the members having all the given modifiers.
+   *
+   * @param modifiers the modifiers as defined by {@link java.lang.reflect.Modifier} (e.g. <code>Modifier.STATIC | Modifier.FINAL</code>)
+   * @return the narrowed query
+   */
+  public MemberQuery<M> withModifiers(final int modifiers) {
+    return narrow(index.withModifiers(modifiers));
+  }
+
+  /**
+   * Narrows this query to the members having none of the given modifiers.
+   *
+   * @param modifiers the modifiers as defined by {@link java.lang.reflect.Modifier} (e.g. <code>Modifier.TRANSIENT</code>)
+   * @return the narrowed query
+   */
+  public MemberQuery<M> withoutModifiers(final int modifiers) {
+    return narrow(index.withoutModifiers(modifiers));
+  }
+
+  /**
+   * Narrows this query to the members annotated with the given annotation type. Only annotations retained at runtime can be found.
+   *
+   * @param annotationType the type of the annotation
+   * @return the narrowed query
+   */
+  public MemberQuery<M> annotatedWith(final Class<? extends Annotation> annotationType) {
+    return narrow(index.annotatedWith(annotationType));
+  }
+
+  /**
+   * Gets the number of members selected by this query.
+   *
+   * @return the number of selected members
+   */
+  public int count() {
+    return selection.cardinality();
+  }
+
+  /**
+   * Gets a lazy stream of (copies of) the members selected by this query in lookup order. The members of each declaring class are copied
+   * at once, when the first of them is consumed, so streaming costs one reflective lookup per declaring class.
+   *
+   * @return the stream of the selected members
+   */
+  public Stream<M> stream() {
+    Map<Class<?>, Map<Member, Member>> copies = new ConcurrentHashMap<>();
+    return selection.stream().mapToObj(index::get).map(member -> copy(member, copies));
+  }
+
+  /**
+   * Copies the given field or method, so the members cached by PA are never handed out.
+   *
+   * @param member the field or method to copy
+   * @param copies the copies of the declared members by their declaring class, filled per declaring class on first use
+   * @param <M> the type of the member
+   * @return a new, not accessible copy of the member
+   */
+  @SuppressWarnings("unchecked")
+  private static <M extends Member & AnnotatedElement> M copy(final M member, final Map<Class<?>, Map<Member, Member>> copies) {
+    Map<Member, Member> declaredCopies = copies.computeIfAbsent(member.getDeclaringClass(),
+      type -> copyDeclaredMembers((member instanceof Field) ? type.getDeclaredFields() : type.getDeclaredMethods()));
+    Member copy = declaredCopies.get(member);
+    if (copy == null) throw new IllegalStateException("Can't copy " + member + " that was just here");
+    return (M) copy;
+  }
+
+  /**
+   * Maps the given fresh copies of declared members to themselves, so the copy of a cached member can be looked up by the cached member,
+   * since members are equal if they are declared by the same class with the same name and types.
+   *
+   * @param declaredMembers the fresh copies of the declared fields or methods of a class
+   * @return the copies by themselves
+   */
+  private static Map<Member, Member> copyDeclaredMembers(final Member[] declaredMembers) {
+    Map<Member, Member> declaredCopies = new HashMap<>();
+    for (Member declaredMember : declaredMembers) {
+      declaredCopies.put(declaredMember, declaredMember);
+    }
+    return declaredCopies;
+  }
+
+  /**
+   * Narrows this query to the selected members that are also part of the given members.
+   *
+   * @param positions the positions of the members to narrow to
+   * @return the narrowed query
+   */
+  private MemberQuery<M> narrow(final BitSet positions) {
+    BitSet narrowed = (BitSet) selection.clone();
+    narrowed.and(positions);
+    return new MemberQuery<>(index, narrowed);
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.util.Arrays;
+
+/**
+ * Invokes a method (public, private, protected, default) with a given signature on instances of arbitrary classes, caching the method
+ * resolved for each receiver class like an inline cache of the JVM. Call sites are created by {@link PA#callSite(String)}.
+ * <p>
+ * A call site starts monomorphic: the method resolved for the first receiver class is invoked after a single class identity check. Calls
+ * on instances of further classes make it polymorphic, caching the methods of up to {@value #MAXIMUM_POLYMORPHISM} further receiver
+ * classes. Once more receiver classes are seen, the call site becomes megamorphic and resolves the method per call through the caches
+ * of {@link PA#invokeMethod(Object, String, Object...)}.
+ * </p>
+ * <p>
+ * Call sites are thread-safe. Since they keep the receiver classes they have seen, they should not outlive these classes.
+ * </p>
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>
+ * private static final MethodCallSite SET_NAME = PA.callSite(&quot;setName(java.lang.String)&quot;);
+ * ...
+ * for (Object myObj : objectsOfManySubclasses) {
+ *   SET_NAME.invoke(myObj, &quot;myNewName&quot;);
+ * }
+ * </pre>
+ *
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+public final class MethodCallSite {
+  /**
+   * The maximum number of receiver classes cached besides the first one before the call site becomes megamorphic.
+   */
+  static final int MAXIMUM_POLYMORPHISM = 8;
+
+  private static final MethodInvoker<?>[] NO_INVOKERS = new MethodInvoker<?>[0];
+
+  private final String methodSignature;
+
+  /**
+   * The invoker resolved for the first receiver class.
+   */
+  private volatile MethodInvoker<?> monomorphic;
+
+  /**
+   * The invokers resolved for further receiver classes. The array is never changed, but replaced as a whole.
+   */
+  private volatile MethodInvoker<?>[] polymorphic = NO_INVOKERS;
+
+  private volatile boolean megamorphic;
+
+  /**
+   * Creates a call site for the method with the given signature.
+   *
+   * @param methodSignature the name of the method and the parameters
+   */
+  MethodCallSite(final String methodSignature) {
+    this.methodSignature = methodSignature;
+  }
+
+  /**
+   * Gets the signature of the method invoked by this call site.
+   *
+   * @return the signature of the method
+   */
+  public String getMethodSignature() {
+    return methodSignature;
+  }
+
+  /**
+   * Invokes the method on the given instance or class with the given arguments. Arguments can be object types or representations for
+   * primitives.
+   *
+   * @param instanceOrClass the instance or class to invoke the method on
+   * @param arguments the arguments to pass to the method
+   * @return the return value of the method or null if void
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the class of the given instance has no method with the signature of this call site; or if an argument couldn't be
+   *         converted to match the expected type
+   * @see PA#invokeMethod(Object, String, Object...)
+   */
+  @SuppressWarnings("unchecked")
+  public Object invoke(final Object instanceOrClass, final Object... arguments) {
+    Class<?> type = (instanceOrClass instanceof Class) ? (Class<?>) instanceOrClass : instanceOrClass.getClass();
+
+    MethodInvoker<?> invoker = monomorphic;
+    if ((invoker == null) || (invoker.getType() != type)) invoker = lookup(type);
+    if (invoker == null) return PA.invokeMethod(instanceOrClass, methodSignature, arguments);
+
+    return ((MethodInvoker<Object>) invoker).invoke(instanceOrClass, arguments);
+  }
+
+  /**
+   * Looks up the invoker for the given receiver class among the polymorphic invokers. Resolves and caches it if it is not cached yet and
+   * this call site is not megamorphic. Concurrent calls may resolve the same invoker twice or lose one of two invokers cached at the same
+   * time, which just costs another resolution later.
+   *
+   * @param type the class of the receiver
+   * @return the invoker for the given receiver class or null if this call site is megamorphic
+   */
+  private MethodInvoker<?> lookup(final Class<?> type) {
+    if (megamorphic) return null;
+
+    MethodInvoker<?>[] invokers = polymorphic;
+    for (MethodInvoker<?> invoker : invokers) {
+      if (invoker.getType() == type) return invoker;
+    }
+
+    MethodInvoker<?> invoker = PA.method(type, methodSignature);
+    if (monomorphic == null) {
+      monomorphic = invoker;
+    } else if (invokers.length < MAXIMUM_POLYMORPHISM) {
+      MethodInvoker<?>[] newInvokers = Arrays.copyOf(invokers, invokers.length + 1);
+      newInvokers[invokers.length] = invoker;
+      polymorphic = newInvokers;
+    } else {
+      megamorphic = true;
+      polymorphic = NO_INVOKERS;
+    }
+    return invoker;
+  }
+
+  @Override
+  public String toString() {
+    return "MethodCallSite[" + methodSignature + "]";
+  }
+}
@@ -0,0 +1,520 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+
+/**
+ * Invokes a method (public, private, protected, default) that has been resolved once by {@link PA#method(Class, String)}. Method invokers
+ * are immutable and thread-safe, so they can be kept in static final fields and used in tight loops without parsing the signature or
+ * looking up the method again.
+ * <p>
+ * Besides the generic {@link #invoke(Object, Object...)} there are typed shapes like {@link #invokeInt(Object)} or
+ * {@link #invokeVoid(Object, int)} for methods returning a primitive or taking a single primitive. If the method has exactly this shape,
+ * they invoke it by an exact method handle without boxing and thus without allocating anything.
+ * </p>
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>
+ * private static final MethodInvoker&lt;MyClass&gt; SET_NAME = PA.method(MyClass.class, &quot;setName(java.lang.String)&quot;);
+ * ...
+ * SET_NAME.invoke(myObj, &quot;myNewName&quot;);
+ * </pre>
+ *
+ * @param <T> the type of the instances the method is invoked on
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+public final class MethodInvoker<T> {
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+  private static final MethodType RETURNS_BOOLEAN = MethodType.methodType(boolean.class, Object.class);
+  private static final MethodType RETURNS_BYTE = MethodType.methodType(byte.class, Object.class);
+  private static final MethodType RETURNS_CHAR = MethodType.methodType(char.class, Object.class);
+  private static final MethodType RETURNS_SHORT = MethodType.methodType(short.class, Object.class);
+  private static final MethodType RETURNS_INT = MethodType.methodType(int.class, Object.class);
+  private static final MethodType RETURNS_LONG = MethodType.methodType(long.class, Object.class);
+  private static final MethodType RETURNS_FLOAT = MethodType.methodType(float.class, Object.class);
+  private static final MethodType RETURNS_DOUBLE = MethodType.methodType(double.class, Object.class);
+  private static final MethodType RETURNS_VOID = MethodType.methodType(void.class, Object.class);
+  private static final MethodType TAKES_BOOLEAN = MethodType.methodType(void.class, Object.class, boolean.class);
+  private static final MethodType TAKES_BYTE = MethodType.methodType(void.class, Object.class, byte.class);
+  private static final MethodType TAKES_CHAR = MethodType.methodType(void.class, Object.class, char.class);
+  private static final MethodType TAKES_SHORT = MethodType.methodType(void.class, Object.class, short.class);
+  private static final MethodType TAKES_INT = MethodType.methodType(void.class, Object.class, int.class);
+  private static final MethodType TAKES_LONG = MethodType.methodType(void.class, Object.class, long.class);
+  private static final MethodType TAKES_FLOAT = MethodType.methodType(void.class, Object.class, float.class);
+  private static final MethodType TAKES_DOUBLE = MethodType.methodType(void.class, Object.class, double.class);
+
+  private final Class<T> type;
+  private final String methodSignature;
+  private final MethodSignature signature;
+  private final MemberHandle method;
+  private final MethodHandle exactHandle;
+  private final MethodType exactType;
+
+  /**
+   * Creates an invoker for the given method.
+   *
+   * @param type the class the method has been resolved in
+   * @param methodSignature the signature the method has been resolved with
+   * @param signature the parsed signature of the method
+   * @param method the handle of the method
+   */
+  MethodInvoker(final Class<T> type, final String methodSignature, final MethodSignature signature, final MemberHandle method) {
+    this.type = type;
+    this.methodSignature = methodSignature;
+    this.signature = signature;
+    this.method = method;
+    this.exactHandle = method.getExactHandle();
+    this.exactType = (exactHandle == null) ? null : exactHandle.type();
+  }
+
+  /**
+   * Gets the class the method has been resolved in.
+   *
+   * @return the class the method has been resolved in
+   */
+  Class<T> getType() {
+    return type;
+  }
+
+  /**
+   * Gets the signature the method has been resolved with.
+   *
+   * @return the signature of the method
+   */
+  public String getMethodSignature() {
+    return methodSignature;
+  }
+
+  /**
+   * Invokes the method on the given instance with the given arguments. Arguments can be object types or representations for primitives.
+   *
+   * @param instance the instance to invoke the method on
+   * @param arguments the arguments to pass to the method
+   * @return the return value of the method or null if void
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the given instance is not an instance of the class declaring the method; or if an argument couldn't be converted
+   *         to match the expected type
+   * @see PA#invokeMethod(Object, String, Object...)
+   */
+  public Object invoke(final T instance, final Object... arguments) {
+    return PA.invoke(method, signature, instance, methodSignature, arguments);
+  }
+
+  /**
+   * Invokes the static method with the given arguments. Arguments can be object types or representations for primitives.
+   *
+   * @param arguments the arguments to pass to the method
+   * @return the return value of the method or null if void
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the method is not static; or if an argument couldn't be converted to match the expected type
+   * @see PA#invokeMethod(Object, String, Object...)
+   */
+  public Object invokeStatic(final Object... arguments) {
+    return PA.invoke(method, signature, type, methodSignature, arguments);
+  }
+
+  /**
+   * Invokes the method without arguments on the given instance and returns its boolean result without boxing it.
+   *
+   * @param instance the instance to invoke the method on (ignored for static methods)
+   * @return the return value of the method
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the method takes arguments; or if its return type is no boolean
+   */
+  public boolean invokeBoolean(final T instance) {
+    if ( !canInvokeExactly(RETURNS_BOOLEAN, instance)) {
+      Object result = checkResult(invoke(instance), boolean.class);
+      return (Boolean) result;
+    }
+    try {
+      return (boolean) exactHandle.invokeExact((Object) instance);
+    } catch (Throwable e) {
+      throw PA.invocationFailed(e, instance, methodSignature, NO_ARGUMENTS);
+    }
+  }
+
+  /**
+   * Invokes the method without arguments on the given instance and returns its byte result without boxing it.
+   *
+   * @param instance the instance to invoke the method on (ignored for static methods)
+   * @return the return value of the method
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the method takes arguments; or if its return type can't be widened to byte
+   */
+  public byte invokeByte(final T instance) {
+    if ( !canInvokeExactly(RETURNS_BYTE, instance)) {
+      Object result = checkResult(invoke(instance), byte.class);
+      return ((Number) result).byteValue();
+    }
+    try {
+      return (byte) exactHandle.invokeExact((Object) instance);
+    } catch (Throwable e) {
+      throw PA.invocationFailed(e, instance, methodSignature, NO_ARGUMENTS);
+    }
+  }
+
+  /**
+   * Invokes the method without arguments on the given instance and returns its char result without boxing it.
+   *
+   * @param instance the instance to invoke the method on (ignored for static methods)
+   * @return the return value of the method
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the method takes arguments; or if its return type can't be widened to char
+   */
+  public char invokeChar(final T instance) {
+    if ( !canInvokeExactly(RETURNS_CHAR, instance)) {
+      Object result = checkResult(invoke(instance), char.class);
+      return (Character) result;
+    }
+    try {
+      return (char) exactHandle.invokeExact((Object) instance);
+    } catch (Throwable e) {
+      throw PA.invocationFailed(e, instance, methodSignature, NO_ARGUMENTS);
+    }
+  }
+
+  /**
+   * Invokes the method without arguments on the given instance and returns its short result without boxing it.
+   *
+   * @param instance the instance to invoke the method on (ignored for static methods)
+   * @return the return value of the method
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the method takes arguments; or if its return type can't be widened to short
+   */
+  public short invokeShort(final T instance) {
+    if ( !canInvokeExactly(RETURNS_SHORT, instance)) {
+      Object result = checkResult(invoke(instance), short.class);
+      return ((Number) result).shortValue();
+    }
+    try {
+      return (short) exactHandle.invokeExact((Object) instance);
+    } catch (Throwable e) {
+      throw PA.invocationFailed(e, instance, methodSignature, NO_ARGUMENTS);
+    }
+  }
+
+  /**
+   * Invokes the method without arguments on the given instance and returns its int result without boxing it.
+   *
+   * @param instance the instance to invoke the method on (ignored for static methods)
+   * @return the return value of the method
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the method takes arguments; or if its return type can't be widened to int
+   */
+  public int invokeInt(final T instance) {
+    if ( !canInvokeExactly(RETURNS_INT, instance)) {
+      Object result = checkResult(invoke(instance), int.class);
+      return (result instanceof Character) ? (Character) result : ((Number) result).intValue();
+    }
+    try {
+      return (int) exactHandle.invokeExact((Object) instance);
+    } catch (Throwable e) {
+      throw PA.invocationFailed(e, instance, methodSignature, NO_ARGUMENTS);
+    }
+  }
+
+  /**
+   * Invokes the method without arguments on the given instance and returns its long result without boxing it.
+   *
+   * @param instance the instance to invoke the method on (ignored for static methods)
+   * @return the return value of the method
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the method takes arguments; or if its return type can't be widened to long
+   */
+  public long invokeLong(final T instance) {
+    if ( !canInvokeExactly(RETURNS_LONG, instance)) {
+      Object result = checkResult(invoke(instance), long.class);
+      return (result instanceof Character) ? (Character) result : ((Number) result).longValue();
+    }
+    try {
+      return (long) exactHandle.invokeExact((Object) instance);
+    } catch (Throwable e) {
+      throw PA.invocationFailed(e, instance, methodSignature, NO_ARGUMENTS);
+    }
+  }
+
+  /**
+   * Invokes the method without arguments on the given instance and returns its float result without boxing it.
+   *
+   * @param instance the instance to invoke the method on (ignored for static methods)
+   * @return the return value of the method
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the method takes arguments; or if its return type can't be widened to float
+   */
+  public float invokeFloat(final T instance) {
+    if ( !canInvokeExactly(RETURNS_FLOAT, instance)) {
+      Object result = checkResult(invoke(instance), float.class);
+      return (result instanceof Character) ? (Character) result : ((Number) result).floatValue();
+    }
+    try {
+      return (float) exactHandle.invokeExact((Object) instance);
+    } catch (Throwable e) {
+      throw PA.invocationFailed(e, instance, methodSignature, NO_ARGUMENTS);
+    }
+  }
+
+  /**
+   * Invokes the method without arguments on the given instance and returns its double result without boxing it.
+   *
+   * @param instance the instance to invoke the method on (ignored for static methods)
+   * @return the return value of the method
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the method takes arguments; or if its return type can't be widened to double
+   */
+  public double invokeDouble(final T instance) {
+    if ( !canInvokeExactly(RETURNS_DOUBLE, instance)) {
+      Object result = checkResult(invoke(instance), double.class);
+      return (result instanceof Character) ? (Character) result : ((Number) result).doubleValue();
+    }
+    try {
+      return (double) exactHandle.invokeExact((Object) instance);
+    } catch (Throwable e) {
+      throw PA.invocationFailed(e, instance, methodSignature, NO_ARGUMENTS);
+    }
+  }
+
+  /**
+   * Invokes the method without arguments on the given instance and ignores its result (if any).
+   *
+   * @param instance the instance to invoke the method on (ignored for static methods)
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the method takes arguments
+   */
+  public void invokeVoid(final T instance) {
+    if ( !canInvokeExactly(RETURNS_VOID, instance)) {
+      invoke(instance);
+      return;
+    }
+    try {
+      exactHandle.invokeExact((Object) instance);
+    } catch (Throwable e) {
+      throw PA.invocationFailed(e, instance, methodSignature, NO_ARGUMENTS);
+    }
+  }
+
+  /**
+   * Invokes the method with the given boolean argument on the given instance without boxing the argument and ignores its result (if any).
+   *
+   * @param instance the instance to invoke the method on (ignored for static methods)
+   * @param argument the argument to pass to the method
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the method does not take exactly one argument; or if the type of its parameter is no boolean
+   */
+  public void invokeVoid(final T instance, final boolean argument) {
+    if ( !canInvokeExactly(TAKES_BOOLEAN, instance)) {
+      invoke(instance, argument);
+      return;
+    }
+    try {
+      exactHandle.invokeExact((Object) instance, argument);
+    } catch (Throwable e) {
+      throw PA.invocationFailed(e, instance, methodSignature, new Object[] {argument});
+    }
+  }
+
+  /**
+   * Invokes the method with the given byte argument on the given instance without boxing the argument and ignores its result (if any).
+   *
+   * @param instance the instance to invoke the method on (ignored for static methods)
+   * @param argument the argument to pass to the method
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the method does not take exactly one argument; or if the type of its parameter can't be widened from byte
+   */
+  public void invokeVoid(final T instance, final byte argument) {
+    if ( !canInvokeExactly(TAKES_BYTE, instance)) {
+      invoke(instance, argument);
+      return;
+    }
+    try {
+      exactHandle.invokeExact((Object) instance, argument);
+    } catch (Throwable e) {
+      throw PA.invocationFailed(e, instance, methodSignature, new Object[] {argument});
+    }
+  }
+
+  /**
+   * Invokes the method with the given char argument on the given instance without boxing the argument and ignores its result (if any).
+   *
+   * @param instance the instance to invoke the method on (ignored for static methods)
+   * @param argument the argument to pass to the method
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the method does not take exactly one argument; or if the type of its parameter can't be widened from char
+   */
+  public void invokeVoid(final T instance, final char argument) {
+    if ( !canInvokeExactly(TAKES_CHAR, instance)) {
+      invoke(instance, argument);
+      return;
+    }
+    try {
+      exactHandle.invokeExact((Object) instance, argument);
+    } catch (Throwable e) {
+      throw PA.invocationFailed(e, instance, methodSignature, new Object[] {argument});
+    }
+  }
+
+  /**
+   * Invokes the method with the given short argument on the given instance without boxing the argument and ignores its result (if any).
+   *
+   * @param instance the instance to invoke the method on (ignored for static methods)
+   * @param argument the argument to pass to the method
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the method does not take exactly one argument; or if the type of its parameter can't be widened from short
+   */
+  public void invokeVoid(final T instance, final short argument) {
+    if ( !canInvokeExactly(TAKES_SHORT, instance)) {
+      invoke(instance, argument);
+      return;
+    }
+    try {
+      exactHandle.invokeExact((Object) instance, argument);
+    } catch (Throwable e) {
+      throw PA.invocationFailed(e, instance, methodSignature, new Object[] {argument});
+    }
+  }
+
+  /**
+   * Invokes the method with the given int argument on the given instance without boxing the argument and ignores its result (if any).
+   *
+   * @param instance the instance to invoke the method on (ignored for static methods)
+   * @param argument the argument to pass to the method
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the method does not take exactly one argument; or if the type of its parameter can't be widened from int
+   */
+  public void invokeVoid(final T instance, final int argument) {
+    if ( !canInvokeExactly(TAKES_INT, instance)) {
+      invoke(instance, argument);
+      return;
+    }
+    try {
+      exactHandle.invokeExact((Object) instance, argument);
+    } catch (Throwable e) {
+      throw PA.invocationFailed(e, instance, methodSignature, new Object[] {argument});
+    }
+  }
+
+  /**
+   * Invokes the method with the given long argument on the given instance without boxing the argument and ignores its result (if any).
+   *
+   * @param instance the instance to invoke the method on (ignored for static methods)
+   * @param argument the argument to pass to the method
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the method does not take exactly one argument; or if the type of its parameter can't be widened from long
+   */
+  public void invokeVoid(final T instance, final long argument) {
+    if ( !canInvokeExactly(TAKES_LONG, instance)) {
+      invoke(instance, argument);
+      return;
+    }
+    try {
+      exactHandle.invokeExact((Object) instance, argument);
+    } catch (Throwable e) {
+      throw PA.invocationFailed(e, instance, methodSignature, new Object[] {argument});
+    }
+  }
+
+  /**
+   * Invokes the method with the given float argument on the given instance without boxing the argument and ignores its result (if any).
+   *
+   * @param instance the instance to invoke the method on (ignored for static methods)
+   * @param argument the argument to pass to the method
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the method does not take exactly one argument; or if the type of its parameter can't be widened from float
+   */
+  public void invokeVoid(final T instance, final float argument) {
+    if ( !canInvokeExactly(TAKES_FLOAT, instance)) {
+      invoke(instance, argument);
+      return;
+    }
+    try {
+      exactHandle.invokeExact((Object) instance, argument);
+    } catch (Throwable e) {
+      throw PA.invocationFailed(e, instance, methodSignature, new Object[] {argument});
+    }
+  }
+
+  /**
+   * Invokes the method with the given double argument on the given instance without boxing the argument and ignores its result (if any).
+   *
+   * @param instance the instance to invoke the method on (ignored for static methods)
+   * @param argument the argument to pass to the method
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error. This could be
+   *         the case if the method does not take exactly one argument; or if the type of its parameter can't be widened from double
+   */
+  public void invokeVoid(final T instance, final double argument) {
+    if ( !canInvokeExactly(TAKES_DOUBLE, instance)) {
+      invoke(instance, argument);
+      return;
+    }
+    try {
+      exactHandle.invokeExact((Object) instance, argument);
+    } catch (Throwable e) {
+      throw PA.invocationFailed(e, instance, methodSignature, new Object[] {argument});
+    }
+  }
+
+  /**
+   * Checks if the method can be invoked on the given instance by its exact method handle with the given type.
+   *
+   * @param type the type of the method handle needed
+   * @param instance the instance to invoke the method on
+   * @return true if the exact method handle has the given type and accepts the given instance, false if the generic invocation has to be
+   *         used
+   */
+  private boolean canInvokeExactly(final MethodType type, final Object instance) {
+    return type.equals(exactType) && method.isReceiver(instance);
+  }
+
+  /**
+   * Checks that the given result of the method can be converted to the given primitive type by a widening conversion.
+   *
+   * @param result the result of the method
+   * @param primitiveType the primitive type the result should be converted to
+   * @return the given result
+   * @throws IllegalArgumentException if the result can't be converted to the given primitive type
+   */
+  private Object checkResult(final Object result, final Class<?> primitiveType) {
+    if ( !MemberHandle.isConvertible(result, primitiveType)) {
+      throw new IllegalArgumentException(
+        "Method " + methodSignature + " returned " + result + ", which can't be converted to " + primitiveType);
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "MethodInvoker[" + type.getName() + "." + methodSignature + "]";
+  }
+}
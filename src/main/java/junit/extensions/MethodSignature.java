@@ -0,0 +1,124 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * An immutable, already parsed method signature (e.g. "myMethod(java.lang.String, int)"), consisting of the name of the method and its
+ * resolved parameter types.
+ *
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+final class MethodSignature {
+  private final String name;
+  private final Class<?>[] parameterTypes;
+  private final boolean hasArrayParameters;
+  private final MemberKey key;
+  private final WeakReference<ClassLoader> contextClassLoader;
+  private final int typeResolverGeneration;
+
+  /**
+   * Creates a method signature. The given array must not be changed afterwards.
+   *
+   * @param name the name of the method
+   * @param parameterTypes the resolved parameter types of the method
+   * @param contextClassLoader the context class loader needed to resolve the parameter types or null if they were all resolved by the
+   *        class loader of the class the method is invoked on
+   * @param typeResolverGeneration the generation of the type names cache (i.e. of the type resolver) the parameter types were resolved
+   *        with
+   */
+  MethodSignature(final String name, final Class<?>[] parameterTypes, final ClassLoader contextClassLoader,
+      final int typeResolverGeneration) {
+    this.name = name;
+    this.parameterTypes = parameterTypes;
+    this.hasArrayParameters = hasArrayParameters(parameterTypes);
+    this.key = new MemberKey(name, parameterTypes);
+    this.contextClassLoader = (contextClassLoader == null) ? null : new WeakReference<>(contextClassLoader);
+    this.typeResolverGeneration = typeResolverGeneration;
+  }
+
+  /**
+   * Gets the name of the method.
+   *
+   * @return the name of the method
+   */
+  String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the resolved parameter types of the method. The returned array must not be changed.
+   *
+   * @return the parameter types of the method
+   */
+  Class<?>[] getParameterTypes() {
+    return parameterTypes;
+  }
+
+  /**
+   * Checks if the method has at least one array parameter, i.e. if arguments passed to it might need to be corrected.
+   *
+   * @return true if the method has array parameters, otherwise false
+   */
+  boolean hasArrayParameters() {
+    return hasArrayParameters;
+  }
+
+  /**
+   * Gets the key identifying the method within a class.
+   *
+   * @return the key of the method
+   */
+  MemberKey getKey() {
+    return key;
+  }
+
+  /**
+   * Gets the generation of the type names cache (i.e. of the type resolver) the parameter types of this signature were resolved with.
+   *
+   * @return the generation of the type names cache
+   */
+  int getTypeResolverGeneration() {
+    return typeResolverGeneration;
+  }
+
+  /**
+   * Checks if the parameter types of this signature are valid for the given context class loader, i.e. if they were resolved without any
+   * context class loader or with the given one.
+   *
+   * @param otherContextClassLoader the context class loader to check
+   * @return true if the parameter types are valid for the given context class loader, otherwise false
+   */
+  boolean isValidFor(final ClassLoader otherContextClassLoader) {
+    return (contextClassLoader == null) || (contextClassLoader.get() == otherContextClassLoader);
+  }
+
+  @Override
+  public String toString() {
+    return key.toString();
+  }
+
+  /**
+   * Checks if any of the given parameter types is an array.
+   *
+   * @param parameterTypes the parameter types to check
+   * @return true if at least one parameter type is an array, otherwise false
+   */
+  private static boolean hasArrayParameters(final Class<?>[] parameterTypes) {
+    for (Class<?> parameterType : parameterTypes) {
+      if (parameterType.isArray()) return true;
+    }
+    return false;
+  }
+}
@@ -12,19 +12,30 @@
  */
 package junit.extensions;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.security.InvalidParameterException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.stream.Collectors;
 
 /**
  * This class is used to access a method or field of an object no matter what the access modifier of the method or field. The syntax for
@@ -61,6 +72,49 @@ import java.util.StringTokenizer;
  * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
  */
 public class PA<T> {
+  /**
+   * Caches the handles of the fields already resolved by {@link #getField(Object, String)} per class and field name.
+   */
+  private static final MemberCache<String, FieldHandle> FIELDS = new MemberCache<>("fields", false);
+
+  /**
+   * Caches the handles of the methods already resolved by {@link #getMethod(Class, MethodSignature)} per class, method name and
+   * parameter types.
+   */
+  private static final MemberCache<MemberKey, MemberHandle> METHODS = new MemberCache<>("methods", false);
+
+  /**
+   * Caches the handles of the constructors already resolved by {@link #getConstructor(Class, Class[])} per class and parameter types.
+   */
+  private static final MemberCache<MemberKey, MemberHandle> CONSTRUCTORS = new MemberCache<>("constructors", false);
+
+  /**
+   * Caches the already parsed method signatures per class and signature string. Since signature strings are arbitrary, the number of
+   * signatures cached per class is bounded.
+   */
+  private static final MemberCache<String, MethodSignature> SIGNATURES = new MemberCache<>("signatures", true);
+
+  /**
+   * Caches the signatures of the most specific methods already chosen by {@link #dispatch(Class, String, Class[])} per class, method name
+   * and argument classes. Since the argument classes are arbitrary, the number of dispatches cached per class is bounded.
+   */
+  private static final MemberCache<MemberKey, MethodSignature> DISPATCHES = new MemberCache<>("dispatches", true);
+
+  /**
+   * The name constructors are cached with.
+   */
+  private static final String CONSTRUCTOR_NAME = "<init>";
+
+  /**
+   * Counts the hits, misses, evictions and load time of the type name cache (of all type resolvers).
+   */
+  private static final CacheCounters TYPE_NAME_COUNTERS = new CacheCounters("typeNames");
+
+  /**
+   * Caches the types the current type resolver resolved per class loader and type name.
+   */
+  private static volatile TypeNameCache typeNameCache = new TypeNameCache(new StandardTypeResolver(), TYPE_NAME_COUNTERS);
+
   private final T instanceOrClass;
 
   /**
@@ -80,7 +134,7 @@ public class PA<T> {
    *
    * @param instanceOrClass the object or class to get a string representation of
    * @return a string representation of the given object
-   * @deprecated use org.apache.commons.lang3.builder.ToStringBuilder instead
+   * @deprecated use {@link #dump(Object, Appendable)} or org.apache.commons.lang3.builder.ToStringBuilder instead
    */
   @Deprecated
   public static String toString(final Object instanceOrClass) {
@@ -102,26 +156,120 @@ public class PA<T> {
     return stringBuilder.toString();
   }
 
+  /**
+   * Writes the state of the given object graph to the given appendable, limited to {@value StateDumper#DEFAULT_MAXIMUM_DEPTH} levels of
+   * nested objects and {@value StateDumper#DEFAULT_MAXIMUM_LENGTH} characters.
+   *
+   * @param instanceOrClass the object or class to dump (static fields are dumped for classes)
+   * @param out the appendable to write to
+   * @param <A> the type of the appendable
+   * @return the given appendable
+   * @throws java.io.UncheckedIOException if the appendable throws an IOException
+   * @see #dump(Object, Appendable, int, int)
+   */
+  public static <A extends Appendable> A dump(final Object instanceOrClass, final A out) {
+    return dump(instanceOrClass, out, StateDumper.DEFAULT_MAXIMUM_DEPTH, StateDumper.DEFAULT_MAXIMUM_LENGTH);
+  }
+
+  /**
+   * Writes the state of the given object graph to the given appendable. Objects are written as {@code <classname> {<attributes and
+   * values>}} with all instance fields of the object's class and its super classes (or all static fields when a class is dumped), nested
+   * objects are written the same way. Each object is written only once, further (e.g. cyclic) references to it are written as
+   * {@code <classname>@<identity hash code>}. The fields to write are planned once per class, so large object graphs can be dumped
+   * without walking the class hierarchies again per field.
+   *
+   * @param instanceOrClass the object or class to dump (static fields are dumped for classes)
+   * @param out the appendable to write to
+   * @param maximumDepth the maximum depth of nested objects, arrays, collections and maps to write, deeper ones are written without their
+   *        content (e.g. {@code <classname> {...}} or {@code [...]})
+   * @param maximumLength the maximum number of characters to write, longer dumps are truncated and end with "..."
+   * @param <A> the type of the appendable
+   * @return the given appendable
+   * @throws IllegalArgumentException if out is null or any of the maximums is negative
+   * @throws java.io.UncheckedIOException if the appendable throws an IOException
+   */
+  public static <A extends Appendable> A dump(final Object instanceOrClass, final A out, final int maximumDepth, final int maximumLength) {
+    if (out == null) throw new IllegalArgumentException("Can't dump to null appendable");
+    if ((maximumDepth < 0) || (maximumLength < 0)) throw new IllegalArgumentException("Can't dump with negative maximum depth or length");
+
+    StateDumper.dump(instanceOrClass, out, maximumDepth, maximumLength);
+    return out;
+  }
+
+  /**
+   * Exports the state of the given object graph to the given output stream. The stream is flushed, but not closed.
+   *
+   * @param instanceOrClass the object or class to export (static fields are exported for classes)
+   * @param out the output stream to write to
+   * @param format the format to write
+   * @throws IllegalArgumentException if out or format is null
+   * @throws java.io.UncheckedIOException if the output stream throws an IOException
+   * @see #writeState(Object, WritableByteChannel, StateFormat)
+   */
+  public static void writeState(final Object instanceOrClass, final OutputStream out, final StateFormat format) {
+    if (out == null) throw new IllegalArgumentException("Can't write state to null output stream");
+
+    writeState(instanceOrClass, Channels.newChannel(out), format);
+    try {
+      out.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Exports the state of the given object graph to the given channel. The state of each object is written once with the values of all
+   * its fields (see {@link StateFormat}), all references to it are written as back-references. The fields to write are planned once per
+   * class and the values are encoded directly into a small buffer, so even graphs of millions of objects are exported without building
+   * intermediate strings or maps. The channel is not closed.
+   *
+   * @param instanceOrClass the object or class to export (static fields are exported for classes)
+   * @param channel the channel to write to
+   * @param format the format to write
+   * @throws IllegalArgumentException if channel or format is null
+   * @throws java.io.UncheckedIOException if the channel throws an IOException
+   */
+  public static void writeState(final Object instanceOrClass, final WritableByteChannel channel, final StateFormat format) {
+    if (channel == null) throw new IllegalArgumentException("Can't write state to null channel");
+    if (format == null) throw new IllegalArgumentException("Can't write state in null format");
+
+    StateWriter.write(instanceOrClass, channel, format);
+  }
+
   /**
    * Gets the name of all fields (public, private, protected, default) of the given instance or class. This includes as well all fields
-   * (public, private, protected, default) of all its super classes.
+   * (public, private, protected, default) of all its super classes, but not the constants of its interfaces. Shadowed fields are listed
+   * only once. The names are returned as a new, modifiable set in lookup order, i.e. the fields declared by the class first.
    *
    * @param instanceOrClass the instance or class to get the fields of
-   * @return the collection of field names of the given instance or classA
+   * @return the collection of field names of the given instance or class
+   * @see #getFieldNameList(Object)
    */
   public static Collection<String> getFieldNames(final Object instanceOrClass) {
-    if (instanceOrClass == null) return new HashSet<>();
+    Collection<String> fieldNames = new LinkedHashSet<>();
+    if (instanceOrClass == null) return fieldNames;
 
-    Class<?> clazz = getClass(instanceOrClass);
-    Field[] fields = clazz.getDeclaredFields();
-
-    Collection<String> fieldNames = getFieldNames(clazz.getSuperclass());
-    for (Field field : fields) {
-      fieldNames.add(field.getName());
+    for (MemberName fieldName : ClassMirror.of(getClass(instanceOrClass)).getFieldNames()) {
+      if ( !fieldName.getDeclaringClass().isInterface()) fieldNames.add(fieldName.getName());
     }
     return fieldNames;
   }
 
+  /**
+   * Gets the names of all fields (public, private, protected, default) of the given instance or class, all its super classes and
+   * interfaces together with the classes declaring them. Unlike {@link #getFieldNames(Object)}, fields shadowed by fields with the same
+   * name are listed as well. The list is computed only once per class and returned as an immutable list in lookup order, i.e. the fields
+   * declared by the class first.
+   *
+   * @param instanceOrClass the instance or class to get the fields of
+   * @return the immutable list of field names of the given instance or class
+   */
+  public static List<MemberName> getFieldNameList(final Object instanceOrClass) {
+    if (instanceOrClass == null) return Collections.emptyList();
+
+    return ClassMirror.of(getClass(instanceOrClass)).getFieldNames();
+  }
+
   /**
    * Gets the class of the given parameter. If the parameter is a class, it is returned, if it is an object, its class is returned
    *
@@ -151,72 +299,200 @@ public class PA<T> {
   }
 
   /**
-   * Return the named field from the given instance or class. Returns a static field if instanceOrClass is a class.
+   * Return the handle of the named field from the given instance or class. Returns a static field if instanceOrClass is a class.
    *
    * @param instanceOrClass the instance or class to get the field from
    * @param fieldName the name of the field to get
-   * @return the field
+   * @return the handle of the field
    * @throws NoSuchFieldException if no such field can be found
    * @throws InvalidParameterException if instanceOrClass was null
    */
-  private static Field getField(final Object instanceOrClass, final String fieldName)
+  private static FieldHandle getField(final Object instanceOrClass, final String fieldName)
       throws NoSuchFieldException,
       InvalidParameterException {
     if (instanceOrClass == null) throw new InvalidParameterException("Can't get field on null object/class");
+    if (fieldName == null) throw new NoSuchFieldException(fieldName);
 
     Class<?> type = getClass(instanceOrClass);
 
-    for (Field field : type.getDeclaredFields()) {
-      if (field.getName().equals(fieldName)) {
-        field.setAccessible(true);
-        return field;
+    return FIELDS.get(type, fieldName, (t, name) -> FieldHandle.of(findField(t, name)));
+  }
+
+  /**
+   * Return the handle of the named field from the given instance or class, checking that the field can be read resp. written as the given
+   * primitive type (by a widening primitive conversion if necessary, but without unboxing). Returns a static field if instanceOrClass is a
+   * class.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the field to get
+   * @param primitiveType the primitive type the field should be read or written as
+   * @param write true if the field should be written, false if it should be read
+   * @return the handle of the field
+   * @throws NoSuchFieldException if no such field can be found
+   * @throws InvalidParameterException if instanceOrClass was null
+   * @throws IllegalArgumentException if the field can't be read resp. written as the given primitive type
+   */
+  private static FieldHandle getTypedField(final Object instanceOrClass, final String fieldName, final Class<?> primitiveType,
+      final boolean write) throws NoSuchFieldException, InvalidParameterException {
+    FieldHandle fieldHandle = getField(instanceOrClass, fieldName);
+    checkType(fieldName, fieldHandle.getType(), primitiveType, write);
+    return fieldHandle;
+  }
+
+  /**
+   * Return the handle of the named array field from the given instance or class, checking that the elements of the array can be read
+   * resp. written as the given primitive type (by a widening primitive conversion if necessary, but without unboxing). Fields whose type is
+   * no array type but could still hold an array (e.g. fields of type Object) are not checked. Returns a static field if instanceOrClass is
+   * a class.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the array field to get
+   * @param primitiveType the primitive type the elements should be read or written as
+   * @param write true if the elements should be written, false if they should be read
+   * @return the handle of the array field
+   * @throws NoSuchFieldException if no such field can be found
+   * @throws InvalidParameterException if instanceOrClass was null
+   * @throws IllegalArgumentException if the field can't hold an array or its elements can't be read resp. written as the given primitive
+   *         type
+   */
+  private static FieldHandle getTypedArrayField(final Object instanceOrClass, final String fieldName, final Class<?> primitiveType,
+      final boolean write) throws NoSuchFieldException, InvalidParameterException {
+    FieldHandle fieldHandle = getField(instanceOrClass, fieldName);
+    Class<?> type = fieldHandle.getType();
+    if (type.isArray()) {
+      checkType(fieldName + "[]", type.getComponentType(), primitiveType, write);
+    } else if ( !type.isAssignableFrom(Object[].class)) {
+      throw new IllegalArgumentException("Field " + fieldName + " of type " + type.getName() + " is no array");
+    }
+    return fieldHandle;
+  }
+
+  /**
+   * Checks that a field or array element of the given type can be read resp. written as the given primitive type.
+   *
+   * @param name the name of the field or array element
+   * @param type the type of the field or array element
+   * @param primitiveType the primitive type the field or array element should be read or written as
+   * @param write true if the field or array element should be written, false if it should be read
+   * @throws IllegalArgumentException if the field or array element can't be read resp. written as the given primitive type
+   */
+  private static void checkType(final String name, final Class<?> type, final Class<?> primitiveType, final boolean write) {
+    boolean convertible = write ? Conversions.isConvertible(primitiveType, type, false)
+        : Conversions.isConvertible(type, primitiveType, false);
+    if ( !convertible) {
+      throw new IllegalArgumentException(
+        name + " of type " + type.getName() + " can't be " + (write ? "written" : "read") + " as " + primitiveType.getName());
+    }
+  }
+
+  /**
+   * Finds the named field in the given class or its super classes and makes it accessible.
+   *
+   * @param type the class to search the field in
+   * @param fieldName the name of the field to find
+   * @return the (accessible) field
+   * @throws NoSuchFieldException if no such field can be found
+   */
+  private static Field findField(final Class<?> type, final String fieldName) throws NoSuchFieldException {
+    Field field = ClassMirror.of(type).getField(fieldName);
+    if (field == null) throw new NoSuchFieldException(fieldName);
+
+    field.setAccessible(true);
+    return field;
+  }
+
+  /**
+   * Return the handles of the named fields from the given instance or class.
+   *
+   * @param instanceOrClass the instance or class to get the fields from
+   * @param fieldNames the names of the fields to get
+   * @return the handles of the fields in the order of the given names
+   * @throws NoSuchFieldException if any of the fields can't be found. Its message lists all missing fields.
+   * @throws InvalidParameterException if instanceOrClass was null
+   */
+  private static FieldHandle[] getFields(final Object instanceOrClass, final String[] fieldNames)
+      throws NoSuchFieldException,
+      InvalidParameterException {
+    if (instanceOrClass == null) throw new InvalidParameterException("Can't get fields on null object/class");
+
+    Class<?> type = getClass(instanceOrClass);
+    FieldHandle[] fields = new FieldHandle[fieldNames.length];
+    List<String> missingFieldNames = new ArrayList<>();
+    for (int i = 0; i < fieldNames.length; i++ ) {
+      try {
+        if (fieldNames[i] == null) throw new NoSuchFieldException(fieldNames[i]);
+        fields[i] = FIELDS.get(type, fieldNames[i], (t, name) -> FieldHandle.of(findField(t, name)));
+      } catch (NoSuchFieldException e) {
+        missingFieldNames.add(fieldNames[i]);
       }
     }
-    if (type.getSuperclass() == null) throw new NoSuchFieldException(fieldName);
-    return getField(type.getSuperclass(), fieldName);
+    if ( !missingFieldNames.isEmpty()) throw new NoSuchFieldException(missingFieldNames.toString());
+    return fields;
   }
 
   /**
    * Gets the signatures (including return types) of all methods (public, private, protected, default) of the given instance or class. This
-   * includes as well all methods (public, private, protected, default) of all its super classes. This does not include constructors.
+   * includes as well all methods (public, private, protected, default) of all its super classes and interfaces (including private and
+   * default methods of interfaces). This does not include constructors. Overridden methods are listed only once. The signatures are
+   * returned as a new, modifiable set in lookup order, i.e. the methods declared by the class first.
    *
    * @param instanceOrClass the instance or class to get the method signatures of
    * @return the collection of method signatures of the given instance or class
+   * @see #getMethodSignatureList(Object)
    */
   public static Collection<String> getMethodSignatures(final Object instanceOrClass) {
-    if (instanceOrClass == null) return new HashSet<>();
-
-    Class<?> clazz = getClass(instanceOrClass);
-    Method[] methods = clazz.getDeclaredMethods();
-    Collection<String> methodSignatures = getMethodSignatures(clazz.getSuperclass());
+    Collection<String> methodSignatures = new LinkedHashSet<>();
+    if (instanceOrClass == null) return methodSignatures;
 
-    for (Method method : methods) {
-      methodSignatures
-        .add(method.getReturnType().getName() + " " + method.getName() + "(" + getParameterTypesAsString(method.getParameterTypes()) + ")");
+    for (MemberName methodSignature : ClassMirror.of(getClass(instanceOrClass)).getMethodSignatures()) {
+      methodSignatures.add(methodSignature.getName());
     }
-
     return methodSignatures;
   }
 
   /**
-   * Gets the parameter types as a string.
+   * Gets the signatures (including return types) of all methods (public, private, protected, default) of the given instance or class, all
+   * its super classes and interfaces together with the classes declaring them. Unlike {@link #getMethodSignatures(Object)}, overridden
+   * methods are listed as well. The list is computed only once per class and returned as an immutable list in lookup order, i.e. the
+   * methods declared by the class first. Each signature is built on its first access.
+   *
+   * @param instanceOrClass the instance or class to get the method signatures of
+   * @return the immutable list of method signatures of the given instance or class
+   */
+  public static List<MemberName> getMethodSignatureList(final Object instanceOrClass) {
+    if (instanceOrClass == null) return Collections.emptyList();
+
+    return ClassMirror.of(getClass(instanceOrClass)).getMethodSignatures();
+  }
+
+  /**
+   * Queries the fields (public, private, protected, default) of the given instance or class, all its super classes and interfaces. The
+   * query can be narrowed by name, name pattern, type, modifiers and annotations without scanning the fields, e.g.
+   * <code>PA.fields(myObj).ofType(String.class).withoutModifiers(Modifier.STATIC).stream()</code>.
    *
-   * @param classTypes the types to get as names.
-   * @return the parameter types as a string
-   * @see java.lang.Class#argumentTypesToString(Class[])
+   * @param instanceOrClass the instance or class to query the fields of
+   * @return the query selecting all fields of the given instance or class
+   * @throws IllegalArgumentException if instanceOrClass is null
    */
-  private static String getParameterTypesAsString(final Class<?>[] classTypes) {
-    assert classTypes != null : "getParameterTypes() should have been called before this method and should have provided not-null "
-        + "classTypes";
-    if (classTypes.length == 0) return "";
+  public static MemberQuery<Field> fields(final Object instanceOrClass) {
+    if (instanceOrClass == null) throw new IllegalArgumentException("Can't query fields of null object/class");
 
-    StringBuilder parameterTypes = new StringBuilder();
-    for (Class<?> clazz : classTypes) {
-      assert clazz != null : "getParameterTypes() should have been called before this method and should have provided not-null classTypes";
-      parameterTypes.append(clazz.getName()).append(", ");
-    }
+    return MemberQuery.of(ClassMirror.of(getClass(instanceOrClass)).getFieldIndex());
+  }
 
-    return parameterTypes.substring(0, parameterTypes.length() - 2);
+  /**
+   * Queries the methods (public, private, protected, default) of the given instance or class, all its super classes and interfaces. This
+   * does not include constructors. The query can be narrowed by name, name pattern, return type, modifiers and annotations without
+   * scanning the methods, e.g. <code>PA.methods(myObj).matching("get*").withModifiers(Modifier.PRIVATE).stream()</code>.
+   *
+   * @param instanceOrClass the instance or class to query the methods of
+   * @return the query selecting all methods of the given instance or class
+   * @throws IllegalArgumentException if instanceOrClass is null
+   */
+  public static MemberQuery<Method> methods(final Object instanceOrClass) {
+    if (instanceOrClass == null) throw new IllegalArgumentException("Can't query methods of null object/class");
+
+    return MemberQuery.of(ClassMirror.of(getClass(instanceOrClass)).getMethodIndex());
   }
 
   /**
@@ -229,7 +505,7 @@ public class PA<T> {
    */
   public static Object getValue(final Object instanceOrClass, final String fieldName) {
     try {
-      Field field = getField(instanceOrClass, fieldName);
+      FieldHandle field = getField(instanceOrClass, fieldName);
       try {
         return field.get(instanceOrClass);
       } catch (IllegalAccessException e) {
@@ -241,6 +517,48 @@ public class PA<T> {
     }
   }
 
+  /**
+   * Gets the values of the named fields. If instanceOrClass is a class then the values of static fields are returned. All fields are
+   * resolved at once, so missing fields are reported together.
+   *
+   * @param instanceOrClass the instance or class to get the fields from
+   * @param fieldNames the names of the fields
+   * @return the values of the fields by their names (in the order of the given names)
+   * @throws IllegalArgumentException if any of the fields does not exist
+   * @see #getValue(Object, String)
+   */
+  public static Map<String, Object> getValues(final Object instanceOrClass, final String... fieldNames) {
+    try {
+      FieldHandle[] fields = getFields(instanceOrClass, fieldNames);
+      Map<String, Object> values = new LinkedHashMap<>();
+      for (int i = 0; i < fields.length; i++ ) {
+        values.put(fieldNames[i], fields[i].get(instanceOrClass));
+      }
+      return values;
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get values of " + Arrays.toString(fieldNames) + " from " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Gets an accessor for the named field of the given class. If not found in the given class checks as well its super classes. The field
+   * is resolved only once, so the returned accessor can be used to get and set the field's value without any further lookup.
+   *
+   * @param type the class to get the field from
+   * @param fieldName the name of the field
+   * @param <T> the type of the class
+   * @param <V> the type of the value of the field
+   * @return the accessor for the field
+   * @throws IllegalArgumentException if the field does not exist
+   */
+  public static <T, V> FieldAccessor<T, V> field(final Class<T> type, final String fieldName) {
+    try {
+      return new FieldAccessor<>(type, getField(type, fieldName));
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't find field " + fieldName + " in " + type, e);
+    }
+  }
+
   /**
    * Instantiates an object of the given class with the given arguments and the given argument types. If you want to instantiate a member
    * class, you must provide the object it is a member of as first argument.
@@ -260,28 +578,170 @@ public class PA<T> {
   @SuppressWarnings("unchecked")
   public static <T> T instantiate(final Class<? extends T> fromClass, final Class<?>[] argumentTypes, final Object... arguments) {
     try {
-      return (T) getConstructor(fromClass, argumentTypes).newInstance(correctVarargs(arguments));
+      return (T) getConstructor(fromClass, argumentTypes.clone()).newInstance(correctVarargs(arguments));
     } catch (Exception e) {
       throw new IllegalArgumentException("Can't instantiate class " + fromClass + " with arguments " + Arrays.toString(arguments), e);
     }
   }
 
   /**
-   * Gets the constructor for a given class with the given parameters.
+   * Gets an instantiator for the constructor of the given class with the given argument types. The constructor is resolved only once, so
+   * the returned instantiator can be used to create lots of objects without any further lookup. If you want to instantiate a member class,
+   * you must provide the type of the object it is a member of as first argument type.
+   *
+   * @param fromClass the class to instantiate objects from
+   * @param argumentTypes the fully qualified types of the arguments of the constructor
+   * @param <T> the type of the to be instantiated objects
+   * @return the instantiator for the constructor
+   * @throws IllegalArgumentException if no constructor with the given argument types could be found
+   */
+  public static <T> Instantiator<T> instantiator(final Class<T> fromClass, final Class<?>... argumentTypes) {
+    try {
+      return new Instantiator<>(fromClass, argumentTypes.length, getConstructor(fromClass, argumentTypes.clone()));
+    } catch (NoSuchMethodException e) {
+      throw new IllegalArgumentException(
+        "Can't find constructor of " + fromClass + " with argument types " + Arrays.toString(argumentTypes), e);
+    }
+  }
+
+  /**
+   * Gets the handle of the constructor for a given class with the given parameters.
    *
    * @param type the class to instantiate
    * @param parameterTypes the types of the parameters
-   * @return the constructor
+   * @return the handle of the constructor
    * @throws NoSuchMethodException if the method could not be found
    */
-  private static <T> Constructor<?> getConstructor(final Class<T> type, final Class<?>[] parameterTypes) throws NoSuchMethodException {
-    for (Constructor<?> constructor : type.getDeclaredConstructors()) {
-      if (autoboxingEquals(constructor.getParameterTypes(), parameterTypes)) {
-        constructor.setAccessible(true);
-        return constructor;
+  private static <T> MemberHandle getConstructor(final Class<T> type, final Class<?>[] parameterTypes) throws NoSuchMethodException {
+    if ( !isVisibleFrom(type, parameterTypes)) return MemberHandle.of(findConstructor(type, parameterTypes));
+
+    return CONSTRUCTORS.get(type, new MemberKey(CONSTRUCTOR_NAME, parameterTypes),
+      (t, key) -> MemberHandle.of(findConstructor(t, key.getParameterTypes())));
+  }
+
+  /**
+   * Finds the constructor for a given class with the given parameters and makes it accessible. Arguments of the given parameter types
+   * must be convertible to the parameters of the constructor by a method invocation conversion. If more than one constructor matches, the
+   * most specific one is taken (e.g. a constructor with an int parameter instead of one with a long parameter), see
+   * {@link #findMostSpecific(List, Class[], String)}.
+   *
+   * @param type the class to instantiate
+   * @param parameterTypes the types of the parameters
+   * @return the (accessible) constructor
+   * @throws NoSuchMethodException if the method could not be found or if no matching constructor is more specific than all others
+   */
+  private static <T> Constructor<?> findConstructor(final Class<T> type, final Class<?>[] parameterTypes) throws NoSuchMethodException {
+    String invocation = type.getName() + "." + CONSTRUCTOR_NAME + argumentTypesToString(parameterTypes);
+    Constructor<?> mostSpecific = findMostSpecific(Arrays.asList(type.getDeclaredConstructors()), parameterTypes, invocation);
+    mostSpecific.setAccessible(true);
+    return mostSpecific;
+  }
+
+  /**
+   * Finds the most specific of the given methods or constructors the arguments of the given types can be passed to, following the phases
+   * of JLS 15.12.2: A candidate whose parameter types equal the argument types is taken right away. Otherwise the candidates applicable
+   * by identity and widening conversions only are considered first, and only if there are none the ones applicable with boxing and
+   * unboxing conversions. Within a phase, the candidate whose parameter types can be converted to the ones of all others is taken. A
+   * candidate with the same parameter types as an earlier one is hidden by it (e.g. a method of a super class overridden by the class).
+   * Variable arity invocations are not considered, since the arguments are always passed as they are.
+   *
+   * @param candidates the methods or constructors in lookup order
+   * @param argumentTypes the types of the arguments (null for null arguments)
+   * @param invocation the invoked method or constructor and the types of the arguments (for the exception message)
+   * @param <E> the type of the candidates
+   * @return the most specific method or constructor
+   * @throws NoSuchMethodException if no candidate is applicable or if no applicable candidate is more specific than all others of its
+   *         phase (the invocation is ambiguous)
+   */
+  private static <E extends Executable> E findMostSpecific(final List<E> candidates, final Class<?>[] argumentTypes,
+      final String invocation)
+      throws NoSuchMethodException {
+    for (E candidate : candidates) {
+      if (Arrays.equals(candidate.getParameterTypes(), argumentTypes)) return candidate;
+    }
+
+    for (boolean boxing : new boolean[] {false, true}) {
+      List<E> maximallySpecific = new ArrayList<>();
+      for (E candidate : candidates) {
+        Class<?>[] parameterTypes = candidate.getParameterTypes();
+        if ( !Conversions.isConvertible(argumentTypes, parameterTypes, boxing)) continue;
+        if (maximallySpecific.stream().anyMatch(other -> isHiding(other.getParameterTypes(), parameterTypes, boxing))) continue;
+
+        maximallySpecific.removeIf(other -> isMoreSpecific(parameterTypes, other.getParameterTypes(), boxing));
+        maximallySpecific.add(candidate);
+      }
+
+      if (maximallySpecific.size() == 1) return maximallySpecific.get(0);
+      if (maximallySpecific.size() > 1) {
+        String matches = maximallySpecific.stream().map(Executable::toGenericString).collect(Collectors.joining(" and "));
+        throw new NoSuchMethodException("Ambiguous invocation " + invocation + " matches " + matches);
       }
     }
-    throw new NoSuchMethodException(type.getName() + ".<init>" + argumentTypesToString(parameterTypes));
+    throw new NoSuchMethodException(invocation);
+  }
+
+  /**
+   * Checks if a method or constructor with the given parameter types hides or is more specific than one with the other parameter types,
+   * i.e. if the parameter types are the same or if the one is more specific than the other.
+   *
+   * @param parameterTypes the parameter types of the method or constructor to check
+   * @param otherParameterTypes the parameter types of the other method or constructor
+   * @param boxing true if boxing and unboxing conversions are allowed in the current phase
+   * @return true if the method or constructor hides or is more specific than the other one, otherwise false
+   */
+  private static boolean isHiding(final Class<?>[] parameterTypes, final Class<?>[] otherParameterTypes, final boolean boxing) {
+    return Arrays.equals(parameterTypes, otherParameterTypes) || isMoreSpecific(parameterTypes, otherParameterTypes, boxing);
+  }
+
+  /**
+   * Checks if a method or constructor with the given parameter types is more specific than one with the other parameter types, i.e. if
+   * its parameter types can be converted to the other ones but not vice versa. Candidates whose parameter types can be converted in both
+   * directions (e.g. int and Integer with boxing) are equally specific, so an invocation matching both is ambiguous.
+   *
+   * @param parameterTypes the parameter types of the method or constructor to check
+   * @param otherParameterTypes the parameter types of the other method or constructor
+   * @param boxing true if boxing and unboxing conversions are allowed in the current phase
+   * @return true if the method or constructor is more specific than the other one, otherwise false
+   */
+  private static boolean isMoreSpecific(final Class<?>[] parameterTypes, final Class<?>[] otherParameterTypes, final boolean boxing) {
+    return Conversions.isConvertible(parameterTypes, otherParameterTypes, boxing)
+      && !Conversions.isConvertible(otherParameterTypes, parameterTypes, boxing);
+  }
+
+  /**
+   * Checks if all given types are visible from the given class, i.e. if they are loaded by the class loader of the given class or one of
+   * its parents. Only such types may be cached for the given class, since all other types would pin their class loader.
+   *
+   * @param type the class the types should be visible from
+   * @param types the types to check
+   * @return true if all types are visible from the given class, otherwise false
+   */
+  private static boolean isVisibleFrom(final Class<?> type, final Class<?>[] types) {
+    if (types == null) return false;
+
+    for (Class<?> otherType : types) {
+      if ((otherType != null) && !isVisibleFrom(type, otherType)) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Checks if the other type is visible from the given class, i.e. if it is loaded by the class loader of the given class or one of its
+   * parents.
+   *
+   * @param type the class the other type should be visible from
+   * @param otherType the type to check
+   * @return true if the other type is visible from the given class, otherwise false
+   */
+  static boolean isVisibleFrom(final Class<?> type, final Class<?> otherType) {
+    ClassLoader otherLoader = otherType.getClassLoader();
+    if (otherLoader == null) return true;
+
+    ClassLoader loader = type.getClassLoader();
+    while ((loader != null) && (loader != otherLoader)) {
+      loader = loader.getParent();
+    }
+    return loader != null;
   }
 
   private static String argumentTypesToString(Class<?>[] argTypes) {
@@ -300,45 +760,6 @@ public class PA<T> {
     return buf.toString();
   }
 
-  /**
-   * Check if the given objectTypes match the given possiblyPrimitiveTypes. Considers autoboxing.
-   */
-  private static boolean autoboxingEquals(Class<?>[] possiblyPrimitiveTypes, Class<?>[] objectTypes) {
-    int length = possiblyPrimitiveTypes.length;
-    if (objectTypes.length != length) return false;
-
-    for (int i = 0; i < length; i++ ) {
-      Class<?> possiblyPrimitiveType = possiblyPrimitiveTypes[i];
-      Class<?> objectType = objectTypes[i];
-      if ( !isAssignableFrom(possiblyPrimitiveType, objectType)) return false;
-    }
-
-    return true;
-  }
-
-  /**
-   * Checks if the given type1 is assignable from the given other type2. Consideres autoboxing - i.e. on the contrary to
-   * Class.isAssignableFrom an int is assignable from an integer
-   */
-  private static boolean isAssignableFrom(final Class<?> type1, final Class<?> type2) {
-    if (type1.equals(Integer.class) || type1.equals(int.class)) {
-      return type2.equals(Integer.class) || type2.equals(int.class);
-    } else if (type1.equals(Float.class) || type1.equals(float.class)) {
-      return type2.equals(Float.class) || type2.equals(float.class);
-    } else if (type1.equals(Double.class) || type1.equals(double.class)) {
-      return type2.equals(Double.class) || type2.equals(double.class);
-    } else if (type1.equals(Character.class) || type1.equals(char.class)) {
-      return type2.equals(Character.class) || type2.equals(char.class);
-    } else if (type1.equals(Long.class) || type1.equals(long.class)) {
-      return type2.equals(Long.class) || type2.equals(long.class);
-    } else if (type1.equals(Short.class) || type1.equals(short.class)) {
-      return type2.equals(Short.class) || type2.equals(short.class);
-    } else if (type1.equals(Boolean.class) || type1.equals(boolean.class)) {
-      return type2.equals(Boolean.class) || type2.equals(boolean.class);
-    } else if (type1.equals(Byte.class) || type1.equals(byte.class)) { return type2.equals(Byte.class) || type2.equals(byte.class); }
-    return type1.isAssignableFrom(type2);
-  }
-
   /**
    * Instantiates an object of the given class with the given arguments. If you want to instantiate a member class, you must provide the
    * object it is a member of as first argument (like Class.forName("mypackage.MyClass$MyInnerClass")).
@@ -368,7 +789,7 @@ public class PA<T> {
    * Gets the types of the parameters.
    *
    * @param parameters the parameters
-   * @return the class-types of the arguments
+   * @return the class-types of the arguments (null for null arguments)
    */
   private static Class<?>[] getParameterTypes(final Object[] parameters) {
     if (parameters == null) return new Class[0];
@@ -376,17 +797,19 @@ public class PA<T> {
     Class<?>[] typesOfParameters = new Class[parameters.length];
 
     for (int i = 0; i < parameters.length; i++ ) {
-      typesOfParameters[i] = parameters[i].getClass();
+      typesOfParameters[i] = (parameters[i] == null) ? null : parameters[i].getClass();
     }
     return typesOfParameters;
   }
 
   /**
    * Calls a method on the given object instance with the given arguments. Arguments can be object types or representations for primitives.
+   * If just the name of the method is given (e.g. "myMethod"), the most specific method with this name the arguments can be passed to is
+   * invoked. This method is chosen from the classes of the arguments only once and then cached.
    *
    * @param instanceOrClass the instance or class to invoke the method on
    * @param methodSignature the name of the method and the parameters <br>
-   *        (e.g. "myMethod(java.lang.String, com.company.project.MyObject)")
+   *        (e.g. "myMethod(java.lang.String, com.company.project.MyObject)") or just the name of the method (e.g. "myMethod")
    * @param arguments an array of objects to pass as arguments
    * @return the return value of this method or null if void
    * @throws RuntimeException any runtime exception the invoked method has thrown
@@ -395,91 +818,299 @@ public class PA<T> {
    *         <code>methodSignature</code> could be found; or if an argument couldn't be converted to match the expected type S
    */
   public static Object invokeMethod(final Object instanceOrClass, final String methodSignature, final Object... arguments) {
+    MethodSignature signature;
+    MemberHandle method;
     try {
-      if ((methodSignature.indexOf('(') == -1) || (methodSignature.indexOf('(') >= methodSignature.indexOf(')'))) {
-        throw new NoSuchMethodException(methodSignature);
-      }
-      Class<?>[] parameterTypes = getParameterTypes(methodSignature);
-
-      try {
-        final Class<?>[] parameterTypes1 = parameterTypes;
-        return getMethod(getClass(instanceOrClass), getMethodName(methodSignature), parameterTypes1)
-          .invoke(instanceOrClass, getCorrectedArguments(parameterTypes, correctVarargs(arguments)));
-      } catch (InvocationTargetException e) {
-        throw e.getCause();
+      Class<?> type = getClass(instanceOrClass);
+      if (isMethodName(methodSignature)) {
+        signature = dispatch(type, methodSignature.trim(), getParameterTypes(correctVarargs(arguments)));
+      } else {
+        checkBraces(methodSignature);
+        signature = getMethodSignature(type, methodSignature);
       }
-    } catch (IllegalAccessException e) {
-      throw new IllegalArgumentException(
-        "Can't access method " + methodSignature + " of " + instanceOrClass + " with arguments " + Arrays.toString(arguments),
-        e);
+      method = getMethod(type, signature);
     } catch (NoSuchMethodException e) {
       throw new IllegalArgumentException("Can't find method " + methodSignature + " in " + instanceOrClass, e);
-    } catch (RuntimeException e) {
-      throw e;
-    } catch (Throwable e) {
-      throw new IllegalArgumentException(
-        "Invoking method " + methodSignature + " on " + instanceOrClass + " with arguments " + Arrays.toString(arguments)
-            + " threw the non-runtime exception " + e.getClass().getName(),
-        e);
     }
+    return invoke(method, signature, instanceOrClass, methodSignature, arguments);
   }
 
   /**
-   * Gets the types of the given parameters. If the parameters don't match the given methodSignature an IllegalArgumentException is thrown.
+   * Gets an invoker for the method with the given signature of the given class. If not found in the given class checks as well its super
+   * classes and interfaces. The signature is parsed and the method is resolved only once, so the returned invoker can be used to invoke
+   * the method without any further lookup.
    *
-   * @param methodSignature the signature of the method
-   * @return the parameter types as class[]
-   * @throws NoSuchMethodException if the method could not be found
-   * @throws IllegalArgumentException if one of the given parameters doesn't math the given methodSignature
+   * @param type the class to get the method from
+   * @param methodSignature the name of the method and the parameters <br>
+   *        (e.g. "myMethod(java.lang.String, com.company.project.MyObject)")
+   * @param <T> the type of the class
+   * @return the invoker of the method
+   * @throws IllegalArgumentException if no method with the given <code>methodSignature</code> could be found
    */
-  private static Class<?>[] getParameterTypes(final String methodSignature) throws NoSuchMethodException, IllegalArgumentException {
-    String signature = getSignatureWithoutBraces(methodSignature);
-
-    StringTokenizer tokenizer = new StringTokenizer(signature, ", *");
-    Class<?>[] typesInSignature = new Class[tokenizer.countTokens()];
-
-    for (int x = 0; tokenizer.hasMoreTokens(); x++ ) {
-      String className = tokenizer.nextToken();
-      try {
-        typesInSignature[x] = getClassForName(className);
-      } catch (ClassNotFoundException e) {
-        NoSuchMethodException noSuchMethodException = new NoSuchMethodException(methodSignature);
-        noSuchMethodException.initCause(e);
-        throw noSuchMethodException;
-      }
+  public static <T> MethodInvoker<T> method(final Class<T> type, final String methodSignature) {
+    try {
+      checkBraces(methodSignature);
+      MethodSignature signature = getMethodSignature(type, methodSignature);
+      return new MethodInvoker<>(type, methodSignature, signature, getMethod(type, signature));
+    } catch (NoSuchMethodException e) {
+      throw new IllegalArgumentException("Can't find method " + methodSignature + " in " + type, e);
     }
-    return typesInSignature;
   }
 
   /**
-   * Gets the class with the given className. Can handle arrays, varargs, primitives, ...
+   * Gets a call site for the method with the given signature. The call site caches the method resolved for each class it is invoked on,
+   * so invoking the same method on instances of few classes needs a class identity check only. If not found in a class, the method is
+   * searched in its super classes.
    *
-   * @param className the name of the class to get
-   * @return the class for the given className
-   * @throws ClassNotFoundException if the class could not be found
+   * @param methodSignature the name of the method and the parameters <br>
+   *        (e.g. "myMethod(java.lang.String, com.company.project.MyObject)")
+   * @return the call site of the method
+   * @throws IllegalArgumentException if the given <code>methodSignature</code> is invalid
    */
-  private static Class<?> getClassForName(final String className) throws ClassNotFoundException {
-    if (className.contains("[")) {
-      Class<?> clazz = getClassForName(className.substring(0, className.indexOf('[')));
-      return Array.newInstance(clazz, 0).getClass();
-    }
-
-    if (className.contains("...")) {
-      Class<?> clazz = getClassForName(className.substring(0, className.indexOf("...")));
-      return Array.newInstance(clazz, 0).getClass();
-    }
-
+  public static MethodCallSite callSite(final String methodSignature) {
     try {
-      return Class.forName(className, false, Thread.currentThread().getContextClassLoader());
-    } catch (ClassNotFoundException e) {
-      return getSpecialClassForName(className);
+      checkBraces(methodSignature);
+      return new MethodCallSite(methodSignature);
+    } catch (NoSuchMethodException e) {
+      throw new IllegalArgumentException("Can't find method " + methodSignature, e);
     }
   }
 
   /**
-   * Maps string representation of primitives to their corresponding classes.
+   * Checks that the given methodSignature contains an opening brace followed by a closing brace.
+   *
+   * @param methodSignature the signature of the method
+   * @throws NoSuchMethodException if the braces are missing
    */
-  private static final Map<String, Class<?>> PRIMITIVE_MAPPER = new HashMap<>(8);
+  private static void checkBraces(final String methodSignature) throws NoSuchMethodException {
+    if ((methodSignature.indexOf('(') == -1) || (methodSignature.indexOf('(') >= methodSignature.indexOf(')'))) {
+      throw new NoSuchMethodException(methodSignature);
+    }
+  }
+
+  /**
+   * Checks if the given method signature consists of the method name only, i.e. if it has no braces at all.
+   *
+   * @param methodSignature the signature of the method
+   * @return true if the method signature is just a method name, otherwise false
+   */
+  private static boolean isMethodName(final String methodSignature) {
+    return (methodSignature.indexOf('(') == -1) && (methodSignature.indexOf(')') == -1);
+  }
+
+  /**
+   * Gets the signature of the most specific method with the given name the given argument types can be passed to. The chosen method is
+   * cached per class, method name and argument types, so overloads are resolved only once.
+   *
+   * @param type the class to get the method from
+   * @param methodName the name of the method
+   * @param argumentTypes the classes of the arguments (null for null arguments)
+   * @return the signature of the most specific method
+   * @throws NoSuchMethodException if no method with the given name accepts arguments of the given types
+   */
+  private static MethodSignature dispatch(final Class<?> type, final String methodName, final Class<?>[] argumentTypes)
+      throws NoSuchMethodException {
+    MemberKey key = new MemberKey(methodName, argumentTypes);
+    if ( !isVisibleFrom(type, argumentTypes)) return findMostSpecificMethod(type, key);
+
+    return DISPATCHES.get(type, key, PA::findMostSpecificMethod);
+  }
+
+  /**
+   * Finds the most specific method with the name of the given key the argument types of the given key can be passed to. Searches the
+   * given class and its super classes. Methods of a class hide methods of its super classes with the same parameter types.
+   *
+   * @param type the class to get the method from
+   * @param key the name of the method and the classes of the arguments
+   * @return the signature of the most specific method
+   * @throws NoSuchMethodException if no method with the given name accepts arguments of the given types or if no such method is more
+   *         specific than all others
+   */
+  private static MethodSignature findMostSpecificMethod(final Class<?> type, final MemberKey key) throws NoSuchMethodException {
+    List<Method> candidates = new ArrayList<>();
+    for (Method method : ClassMirror.of(type).getMethods(key.getName())) {
+      if ( !method.isBridge()) candidates.add(method);
+    }
+    String invocation = type.getName() + "." + key.getName() + argumentTypesToString(key.getParameterTypes());
+    Method mostSpecific = findMostSpecific(candidates, key.getParameterTypes(), invocation);
+    return new MethodSignature(mostSpecific.getName(), mostSpecific.getParameterTypes(), null, 0);
+  }
+
+  /**
+   * Invokes the given (resolved) method on the given object instance with the given arguments. Arguments already matching the parameter
+   * types of the method are passed as they are, without copying them.
+   *
+   * @param method the handle of the method to invoke
+   * @param signature the parsed signature of the method
+   * @param instanceOrClass the instance or class to invoke the method on
+   * @param methodSignature the signature of the method (for error messages)
+   * @param arguments the arguments to pass to the method
+   * @return the return value of this method or null if void
+   * @throws RuntimeException any runtime exception the invoked method has thrown
+   * @throws IllegalArgumentException if the method could not be invoked or the method threw a non-runtime exception or error
+   * @see #invokeMethod(Object, String, Object...)
+   */
+  static Object invoke(final MemberHandle method, final MethodSignature signature, final Object instanceOrClass,
+      final String methodSignature, final Object[] arguments) {
+    try {
+      try {
+        Object[] args = correctVarargs(arguments);
+        if (needsCorrection(signature, args)) args = getCorrectedArguments(signature.getParameterTypes(), args);
+        return method.invoke(instanceOrClass, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    } catch (Throwable e) {
+      throw invocationFailed(e, instanceOrClass, methodSignature, arguments);
+    }
+  }
+
+  /**
+   * Gets the exception to throw for the given throwable thrown while invoking a method.
+   *
+   * @param throwable the throwable thrown while invoking the method
+   * @param instanceOrClass the instance or class the method was invoked on
+   * @param methodSignature the signature of the method
+   * @param arguments the arguments passed to the method
+   * @return the given throwable if it is a runtime exception the method has thrown, otherwise an IllegalArgumentException
+   */
+  static RuntimeException invocationFailed(final Throwable throwable, final Object instanceOrClass, final String methodSignature,
+      final Object[] arguments) {
+    if (throwable instanceof IllegalAccessException) {
+      return new IllegalArgumentException(
+        "Can't access method " + methodSignature + " of " + instanceOrClass + " with arguments " + Arrays.toString(arguments),
+        throwable);
+    }
+    if (throwable instanceof NoSuchMethodException) {
+      return new IllegalArgumentException("Can't find method " + methodSignature + " in " + instanceOrClass, throwable);
+    }
+    if (throwable instanceof RuntimeException) return (RuntimeException) throwable;
+
+    return new IllegalArgumentException(
+      "Invoking method " + methodSignature + " on " + instanceOrClass + " with arguments " + Arrays.toString(arguments)
+          + " threw the non-runtime exception " + throwable.getClass().getName(),
+      throwable);
+  }
+
+  /**
+   * Gets the parsed form of the given methodSignature. Parsed signatures are cached per class and signature, as long as neither the
+   * context class loader nor the type resolver they were resolved with change.
+   *
+   * @param type the class the method should be invoked on
+   * @param methodSignature the signature of the method
+   * @return the parsed method signature
+   * @throws NoSuchMethodException if the signature contains types that could not be found
+   */
+  private static MethodSignature getMethodSignature(final Class<?> type, final String methodSignature) throws NoSuchMethodException {
+    MethodSignature signature = SIGNATURES.get(type, methodSignature, PA::compileMethodSignature);
+    if (signature.getTypeResolverGeneration() != typeNameCache.getGeneration()) {
+      SIGNATURES.remove(type, methodSignature);
+      signature = SIGNATURES.get(type, methodSignature, PA::compileMethodSignature);
+    }
+    if ( !signature.isValidFor(Thread.currentThread().getContextClassLoader())) return compileMethodSignature(type, methodSignature);
+
+    if ( !isVisibleFrom(type, signature.getParameterTypes())) SIGNATURES.remove(type, methodSignature);
+    return signature;
+  }
+
+  /**
+   * Parses the given methodSignature with the current type resolver. The parameter types are resolved with the class loader of the given
+   * class; the context class loader of the current thread is only used (and recorded in the signature) if that fails.
+   *
+   * @param type the class the method should be invoked on
+   * @param methodSignature the signature of the method
+   * @return the parsed method signature
+   * @throws NoSuchMethodException if the signature contains types that could not be found
+   */
+  private static MethodSignature compileMethodSignature(final Class<?> type, final String methodSignature) throws NoSuchMethodException {
+    TypeNameCache typeNames = typeNameCache;
+    String name = getMethodName(methodSignature);
+    try {
+      return new MethodSignature(name, getParameterTypes(type, methodSignature, typeNames, null), null, typeNames.getGeneration());
+    } catch (NoSuchMethodException e) {
+      ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+      if (contextClassLoader == type.getClassLoader()) throw e;
+
+      return new MethodSignature(name, getParameterTypes(type, methodSignature, typeNames, contextClassLoader), contextClassLoader,
+        typeNames.getGeneration());
+    }
+  }
+
+  /**
+   * Gets the types of the given parameters. If the parameters don't match the given methodSignature an IllegalArgumentException is thrown.
+   *
+   * @param type the class the method should be invoked on
+   * @param methodSignature the signature of the method
+   * @param typeNames the cache of the type resolver to resolve the types with
+   * @param contextClassLoader the class loader to resolve types with that the class loader of the given class can't resolve (null to
+   *        use the class loader of the given class only)
+   * @return the parameter types as class[]
+   * @throws NoSuchMethodException if the method could not be found
+   * @throws IllegalArgumentException if one of the given parameters doesn't math the given methodSignature
+   */
+  private static Class<?>[] getParameterTypes(final Class<?> type, final String methodSignature, final TypeNameCache typeNames,
+      final ClassLoader contextClassLoader)
+      throws NoSuchMethodException,
+      IllegalArgumentException {
+    String signature = getSignatureWithoutBraces(methodSignature);
+
+    StringTokenizer tokenizer = new StringTokenizer(signature, ", *");
+    Class<?>[] typesInSignature = new Class[tokenizer.countTokens()];
+
+    for (int x = 0; tokenizer.hasMoreTokens(); x++ ) {
+      String className = tokenizer.nextToken();
+      try {
+        typesInSignature[x] = getClassForName(type, className, typeNames, contextClassLoader);
+      } catch (ClassNotFoundException e) {
+        NoSuchMethodException noSuchMethodException = new NoSuchMethodException(methodSignature);
+        noSuchMethodException.initCause(e);
+        throw noSuchMethodException;
+      }
+    }
+    return typesInSignature;
+  }
+
+  /**
+   * Gets the class with the given className. Can handle arrays, varargs, primitives, ...
+   *
+   * @param type the class the method should be invoked on
+   * @param className the name of the class to get
+   * @param typeNames the cache of the type resolver to resolve the class with
+   * @param contextClassLoader the class loader to resolve the class with if the class loader of the given class can't resolve it (null to
+   *        use the class loader of the given class only)
+   * @return the class for the given className
+   * @throws ClassNotFoundException if the class could not be found
+   */
+  private static Class<?> getClassForName(final Class<?> type, final String className, final TypeNameCache typeNames,
+      final ClassLoader contextClassLoader)
+      throws ClassNotFoundException {
+    Class<?> primitiveType = PRIMITIVE_MAPPER.get(className);
+    if (primitiveType != null) return primitiveType;
+
+    if (className.contains("[")) {
+      Class<?> clazz = getClassForName(type, className.substring(0, className.indexOf('[')), typeNames, contextClassLoader);
+      return Array.newInstance(clazz, 0).getClass();
+    }
+
+    if (className.contains("...")) {
+      Class<?> clazz = getClassForName(type, className.substring(0, className.indexOf("...")), typeNames, contextClassLoader);
+      return Array.newInstance(clazz, 0).getClass();
+    }
+
+    ClassLoader classLoader = type.getClassLoader();
+    Class<?> clazz = typeNames.resolve(className, classLoader);
+    if (clazz != null) return clazz;
+
+    if ((contextClassLoader != null) && (contextClassLoader != classLoader)) clazz = typeNames.resolve(className, contextClassLoader);
+    if (clazz != null) return clazz;
+
+    throw new ClassNotFoundException(className);
+  }
+
+  /**
+   * Maps string representation of primitives to their corresponding classes.
+   */
+  private static final Map<String, Class<?>> PRIMITIVE_MAPPER = new HashMap<>(8);
 
   /**
    * Fills the map with all java primitives and their corresponding classes.
@@ -496,48 +1127,55 @@ public class PA<T> {
   }
 
   /**
-   * Gets special classes for the given className. Special classes are primitives and "standard" Java types (like String)
+   * Sets the type resolver used to resolve the type names in method signatures. The type resolver is asked for the class loader of the
+   * class a method is invoked on first and for the context class loader of the current thread afterwards. Its results are cached per class
+   * loader and type name.
    *
-   * @param className the name of the class to get
-   * @return the class for the given className
-   * @throws ClassNotFoundException if the class could not be found
+   * @param typeResolver the type resolver to use or null to use the standard type resolver, which resolves fully qualified class names as
+   *        well as classes of the packages java.lang and java.util given without their package name
+   * @see TypeResolver
    */
-  private static Class<?> getSpecialClassForName(final String className) throws ClassNotFoundException {
-    if (PRIMITIVE_MAPPER.containsKey(className)) return PRIMITIVE_MAPPER.get(className);
-
-    if (missesPackageName(className)) return getStandardClassForName(className);
-
-    throw new ClassNotFoundException(className);
+  public static void setTypeResolver(final TypeResolver typeResolver) {
+    typeNameCache = new TypeNameCache((typeResolver == null) ? new StandardTypeResolver() : typeResolver, TYPE_NAME_COUNTERS);
   }
 
   /**
-   * Tests if the given className possibly misses its package name.
+   * Gets the type resolver used to resolve the type names in method signatures.
    *
-   * @param className the className
-   * @return true if the className might miss its package name, otherwise false
+   * @return the type resolver currently in use
+   * @see #setTypeResolver(TypeResolver)
    */
-  private static boolean missesPackageName(String className) {
-    if (className.contains(".")) return false;
-    return className.startsWith(className.substring(0, 1).toUpperCase());
+  public static TypeResolver getTypeResolver() {
+    return typeNameCache.getTypeResolver();
   }
 
   /**
-   * Gets a 'standard' java class for the given className.
+   * Gets the statistics of the caches PA uses to resolve fields, methods, constructors, method signatures, overloads and type names only
+   * once. The caches are named "fields", "methods", "constructors", "signatures", "dispatches" and "typeNames".
    *
-   * @param className the className
-   * @return the class for the given className (if any)
-   * @throws ClassNotFoundException of no 'standard' java class was found for the given className
+   * @return a snapshot of the statistics of all caches by their name
    */
-  private static Class<?> getStandardClassForName(String className) throws ClassNotFoundException {
-    try {
-      return Class.forName("java.lang." + className, false, Thread.currentThread().getContextClassLoader());
-    } catch (ClassNotFoundException e) {
-      try {
-        return Class.forName("java.util." + className, false, Thread.currentThread().getContextClassLoader());
-      } catch (ClassNotFoundException e1) {
-        throw new ClassNotFoundException(className);
-      }
+  public static Map<String, CacheStatistics> getCacheStatistics() {
+    Map<String, CacheStatistics> cacheStatistics = new LinkedHashMap<>();
+    for (CacheStatistics statistics : Arrays
+      .asList(FIELDS.statistics(), METHODS.statistics(), CONSTRUCTORS.statistics(), SIGNATURES.statistics(), DISPATCHES.statistics(),
+        typeNameCache.statistics())) {
+      cacheStatistics.put(statistics.getName(), statistics);
     }
+    return Collections.unmodifiableMap(cacheStatistics);
+  }
+
+  /**
+   * Sets the maximum number of method signatures and overloads cached per class and of type names cached per class loader. If a cache is
+   * full, its least recently used entries are evicted. Fields, methods and constructors are cached without bounds, since their number is limited by the
+   * classes they are declared in.
+   *
+   * @param maximumSize the maximum number of entries (default is 256)
+   * @throws IllegalArgumentException if maximumSize is not positive
+   */
+  public static void setCacheSize(final int maximumSize) {
+    if (maximumSize < 1) throw new IllegalArgumentException("Can't set cache size to " + maximumSize + ", cache size must be positive");
+    LruMap.setMaximumSize(maximumSize);
   }
 
   /**
@@ -556,28 +1194,34 @@ public class PA<T> {
   }
 
   /**
-   * Return the named method with a method signature matching classTypes from the given class.
+   * Return the handle of the method with the given (parsed) signature from the given class.
    *
    * @param type the class to get the method from
-   * @param methodName the name of the method to get
-   * @param parameterTypes the parameter-types of the method to get
-   * @return the method
+   * @param signature the signature of the method to get
+   * @return the handle of the method
    * @throws NoSuchMethodException if the method could not be found
    */
-  private static Method getMethod(final Class<?> type, final String methodName, final Class<?>[] parameterTypes)
-      throws NoSuchMethodException {
+  private static MemberHandle getMethod(final Class<?> type, final MethodSignature signature) throws NoSuchMethodException {
+    return METHODS.get(type, signature.getKey(), (t, key) -> MemberHandle.of(findMethod(t, key)));
+  }
 
-    for (Method method : type.getDeclaredMethods()) {
-      if (method.getName().equals(methodName) && Arrays.equals(method.getParameterTypes(), parameterTypes)) {
-        method.setAccessible(true);
-        return method;
-      }
+  /**
+   * Finds the named method with a method signature matching classTypes in the given class, its super classes or interfaces (including
+   * private and default methods of interfaces) and makes it accessible.
+   *
+   * @param type the class to search the method in
+   * @param key the name and the parameter-types of the method to find
+   * @return the (accessible) method
+   * @throws NoSuchMethodException if the method could not be found
+   */
+  private static Method findMethod(final Class<?> type, final MemberKey key) throws NoSuchMethodException {
+    Method method = ClassMirror.of(type).getMethod(key);
+    if (method == null) {
+      throw new NoSuchMethodException(type.getName() + "." + key.getName() + argumentTypesToString(key.getParameterTypes()));
     }
 
-    if (type.getSuperclass() == null) {
-      throw new NoSuchMethodException(type.getName() + "." + methodName + argumentTypesToString(parameterTypes));
-    }
-    return getMethod(type.getSuperclass(), methodName, parameterTypes);
+    method.setAccessible(true);
+    return method;
   }
 
   /**
@@ -595,6 +1239,25 @@ public class PA<T> {
     }
   }
 
+  /**
+   * Checks if the given arguments have to be corrected by {@link #getCorrectedArguments(Class[], Object[])} to match the given signature.
+   * Arguments that match the parameters in number and, for array parameters, in their exact class would stay unchanged anyway.
+   *
+   * @param signature the parsed signature the given arguments should match
+   * @param arguments the arguments to check
+   * @return true if the arguments have to be corrected, false if they can be passed as they are
+   */
+  private static boolean needsCorrection(final MethodSignature signature, final Object[] arguments) {
+    Class<?>[] parameterTypes = signature.getParameterTypes();
+    if (arguments.length != parameterTypes.length) return true;
+    if ( !signature.hasArrayParameters()) return false;
+
+    for (int i = 0; i < arguments.length; i++ ) {
+      if (parameterTypes[i].isArray() && (arguments[i] != null) && (arguments[i].getClass() != parameterTypes[i])) return true;
+    }
+    return false;
+  }
+
   /**
    * Gets the given arguments corrected to match the given methodSignature. Correction is necessary for array arguments not to be mistaken
    * by varargs.
@@ -634,21 +1297,7 @@ public class PA<T> {
 
     if (parameterType.equals(argument.getClass())) return argument; // no need to cast
 
-    // (typed) array argument for (object) array parameterType, elements need to be casted
-    Object correctedArrayArgument = Array.newInstance(parameterType.getComponentType(), Array.getLength(argument));
-    for (int index = 0; index < Array.getLength(argument); index++ ) {
-      if (parameterType.getComponentType().isPrimitive()) { // rely on autoboxing
-        Array.set(correctedArrayArgument, index, Array.get(argument, index));
-      } else { // cast to expected type
-        try {
-          Array.set(correctedArrayArgument, index, parameterType.getComponentType().cast(Array.get(argument, index)));
-        } catch (ClassCastException e) {
-          throw new IllegalArgumentException(
-            "Argument " + argument + " of type " + argument.getClass() + " does not match expected argument type " + parameterType + ".");
-        }
-      }
-    }
-    return correctedArrayArgument;
+    return ArrayConverter.convert(argument, parameterType); // (typed) array argument for other array parameterType
   }
 
   /**
@@ -658,7 +1307,7 @@ public class PA<T> {
    * @param arguments the possibly converted arguments of a vararg method
    * @return arguments possibly converted
    */
-  private static Object[] correctVarargs(final Object... arguments) {
+  static Object[] correctVarargs(final Object... arguments) {
     if ((arguments == null) || changedByVararg(arguments)) return new Object[] {arguments};
     return arguments;
   }
@@ -708,13 +1357,7 @@ public class PA<T> {
    */
   public static <T> PA<T> setValue(final T instanceOrClass, final String fieldName, final Object value) {
     try {
-      Field field = getField(instanceOrClass, fieldName);
-      if (Modifier.isFinal(field.getModifiers())) {
-        setValue(field, "modifiers", field.getModifiers() ^ Modifier.FINAL);
-        field.set(instanceOrClass, value);
-        setValue(field, "modifiers", field.getModifiers() | Modifier.FINAL);
-      }
-      field.set(instanceOrClass, value);
+      setFieldValue(getField(instanceOrClass, fieldName), instanceOrClass, value);
     } catch (Exception e) {
       throw new IllegalArgumentException("Can't set value " + value + " at " + fieldName + " in " + instanceOrClass, e);
     }
@@ -722,22 +1365,705 @@ public class PA<T> {
   }
 
   /**
-   * Gets the value of the named field and returns it as an object.
+   * Sets the values of the named fields. If a field name denotes a static field, provide a class, otherwise provide an instance. All fields
+   * are resolved and all values are checked against the types of their fields before any value is set, so missing fields and values of
+   * wrong types are reported together and leave the instance or class unchanged. Only if setting a field fails nevertheless (e.g. a
+   * static final field), the fields set before it keep their new values.
+   *
+   * @param instanceOrClass the instance or class to set the fields
+   * @param values the new values of the fields by their names
+   * @param <T> the type of the object to set the values
+   * @return a PA on the given instance or class to further access it
+   * @throws IllegalArgumentException if values is null, if any of the fields does not exist, if any of the values can't be converted to
+   *         the type of its field or if a value could not be set
+   * @see #setValue(Object, String, Object)
+   */
+  public static <T> PA<T> setValues(final T instanceOrClass, final Map<String, ?> values) {
+    if (values == null) throw new IllegalArgumentException("Can't set values of null map in " + instanceOrClass);
+
+    String[] fieldNames = values.keySet().toArray(new String[0]);
+    Object[] newValues = new Object[fieldNames.length];
+    for (int i = 0; i < fieldNames.length; i++ ) {
+      newValues[i] = values.get(fieldNames[i]);
+    }
+
+    FieldHandle[] fields;
+    try {
+      fields = getFields(instanceOrClass, fieldNames);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set values of " + Arrays.toString(fieldNames) + " in " + instanceOrClass, e);
+    }
+
+    List<String> invalidValues = new ArrayList<>();
+    for (int i = 0; i < fields.length; i++ ) {
+      if ( !isSettable(fields[i], instanceOrClass, newValues[i])) invalidValues.add(fieldNames[i] + "=" + newValues[i]);
+    }
+    if ( !invalidValues.isEmpty()) {
+      throw new IllegalArgumentException("Can't set values " + invalidValues + " in " + instanceOrClass + " (wrong types)");
+    }
+
+    for (int i = 0; i < fields.length; i++ ) {
+      try {
+        setFieldValue(fields[i], instanceOrClass, newValues[i]);
+      } catch (Exception e) {
+        throw new IllegalArgumentException("Can't set value " + newValues[i] + " at " + fieldNames[i] + " in " + instanceOrClass, e);
+      }
+    }
+    return new PA<>(instanceOrClass);
+  }
+
+  /**
+   * Checks if the given value can be set at the given field of the given instance or class, i.e. if it can be converted to the type of the
+   * field and the field is static or declared by the class of the given instance.
+   *
+   * @param fieldHandle the handle of the field
+   * @param instanceOrClass the instance or class to set the field
+   * @param value the new value of the field
+   * @return true if the value can be set, otherwise false
+   */
+  private static boolean isSettable(final FieldHandle fieldHandle, final Object instanceOrClass, final Object value) {
+    Field field = fieldHandle.getField();
+    if ( !Modifier.isStatic(field.getModifiers()) && !field.getDeclaringClass().isInstance(instanceOrClass)) return false;
+
+    return MemberHandle.isConvertible(value, field.getType());
+  }
+
+  /**
+   * Sets the value of the given field. If the field is final, this method tries to set it nevertheless (by temporarily removing the
+   * modifier).
+   *
+   * @param fieldHandle the handle of the field
+   * @param instanceOrClass the instance or class to set the field
+   * @param value the new value of the field
+   * @throws Exception if the value could not be set
+   */
+  private static void setFieldValue(final FieldHandle fieldHandle, final Object instanceOrClass, final Object value) throws Exception {
+    Field field = fieldHandle.getField();
+    if (Modifier.isFinal(field.getModifiers())) {
+      setValue(field, "modifiers", field.getModifiers() ^ Modifier.FINAL);
+      field.set(instanceOrClass, value);
+      setValue(field, "modifiers", field.getModifiers() | Modifier.FINAL);
+    }
+    fieldHandle.set(instanceOrClass, value);
+  }
+
+  /**
+   * Gets the value of the named field as boolean without boxing it. If instanceOrClass is a class then a static field is returned.
    *
+   * @param instanceOrClass the instance or class to get the field from
    * @param fieldName the name of the field
-   * @return an object representing the value of the field
-   * @throws IllegalArgumentException if the field does not exist
-   * @see PA#getValue(Object, String)
+   * @return the value of the field
+   * @throws IllegalArgumentException if the field does not exist or its type is no boolean
+   * @see #getValue(Object, String)
    */
-  public Object getValue(final String fieldName) {
-    return PA.getValue(instanceOrClass, fieldName);
+  public static boolean getBoolean(final Object instanceOrClass, final String fieldName) {
+    try {
+      return getTypedField(instanceOrClass, fieldName, boolean.class, false).getBoolean(instanceOrClass);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get boolean value of " + fieldName + " from " + instanceOrClass, e);
+    }
   }
 
   /**
-   * Calls a method with the given arguments. Arguments can be object types or representations for primitives.
+   * Sets the value of the named field to the given boolean without boxing it. If fieldName denotes a static field, provide a class,
+   * otherwise provide an instance.
    *
-   * @param methodSignature the name of the method and the parameters <br>
-   *        (e.g. "myMethod(java.lang.String, com.company.project.MyObject)")
+   * @param instanceOrClass the instance or class to set the field
+   * @param fieldName the name of the field
+   * @param value the new value of the field
+   * @throws IllegalArgumentException if the value could not be set. This could be the case if no field with the given
+   *         <code>fieldName</code> can be found; if its type is no boolean; or if the field is static and final
+   * @see #setValue(Object, String, Object)
+   */
+  public static void setBoolean(final Object instanceOrClass, final String fieldName, final boolean value) {
+    try {
+      getTypedField(instanceOrClass, fieldName, boolean.class, true).setBoolean(instanceOrClass, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set boolean value " + value + " at " + fieldName + " in " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Gets the element at the given index of the named array field as boolean without boxing it. If instanceOrClass is a class then a static
+   * field is used.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the array field
+   * @param index the index of the element
+   * @return the value of the element
+   * @throws IllegalArgumentException if the field does not exist; if it is no array or null; if the index is out of bounds; or if the
+   *         component type of the array is no boolean
+   */
+  public static boolean getBoolean(final Object instanceOrClass, final String fieldName, final int index) {
+    try {
+      return Array.getBoolean(getTypedArrayField(instanceOrClass, fieldName, boolean.class, false).get(instanceOrClass), index);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get boolean element " + index + " of " + fieldName + " from " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Sets the element at the given index of the named array field to the given boolean without boxing it. If fieldName denotes a static
+   * field, provide a class, otherwise provide an instance.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the array field
+   * @param index the index of the element
+   * @param value the new value of the element
+   * @throws IllegalArgumentException if the field does not exist; if it is no array or null; if the index is out of bounds; or if the
+   *         component type of the array is no boolean
+   */
+  public static void setBoolean(final Object instanceOrClass, final String fieldName, final int index, final boolean value) {
+    try {
+      Array.setBoolean(getTypedArrayField(instanceOrClass, fieldName, boolean.class, true).get(instanceOrClass), index, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException(
+        "Can't set boolean element " + index + " to " + value + " at " + fieldName + " in " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Gets the value of the named field as byte without boxing it. If instanceOrClass is a class then a static field is returned.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the field
+   * @return the value of the field
+   * @throws IllegalArgumentException if the field does not exist or its type can't be widened to byte
+   * @see #getValue(Object, String)
+   */
+  public static byte getByte(final Object instanceOrClass, final String fieldName) {
+    try {
+      return getTypedField(instanceOrClass, fieldName, byte.class, false).getByte(instanceOrClass);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get byte value of " + fieldName + " from " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Sets the value of the named field to the given byte without boxing it. If fieldName denotes a static field, provide a class,
+   * otherwise provide an instance.
+   *
+   * @param instanceOrClass the instance or class to set the field
+   * @param fieldName the name of the field
+   * @param value the new value of the field
+   * @throws IllegalArgumentException if the value could not be set. This could be the case if no field with the given
+   *         <code>fieldName</code> can be found; if its type can't be widened from byte; or if the field is static and final
+   * @see #setValue(Object, String, Object)
+   */
+  public static void setByte(final Object instanceOrClass, final String fieldName, final byte value) {
+    try {
+      getTypedField(instanceOrClass, fieldName, byte.class, true).setByte(instanceOrClass, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set byte value " + value + " at " + fieldName + " in " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Gets the element at the given index of the named array field as byte without boxing it. If instanceOrClass is a class then a static
+   * field is used.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the array field
+   * @param index the index of the element
+   * @return the value of the element
+   * @throws IllegalArgumentException if the field does not exist; if it is no array or null; if the index is out of bounds; or if the
+   *         component type of the array can't be widened to byte
+   */
+  public static byte getByte(final Object instanceOrClass, final String fieldName, final int index) {
+    try {
+      return Array.getByte(getTypedArrayField(instanceOrClass, fieldName, byte.class, false).get(instanceOrClass), index);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get byte element " + index + " of " + fieldName + " from " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Sets the element at the given index of the named array field to the given byte without boxing it. If fieldName denotes a static
+   * field, provide a class, otherwise provide an instance.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the array field
+   * @param index the index of the element
+   * @param value the new value of the element
+   * @throws IllegalArgumentException if the field does not exist; if it is no array or null; if the index is out of bounds; or if the
+   *         component type of the array can't be widened from byte
+   */
+  public static void setByte(final Object instanceOrClass, final String fieldName, final int index, final byte value) {
+    try {
+      Array.setByte(getTypedArrayField(instanceOrClass, fieldName, byte.class, true).get(instanceOrClass), index, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException(
+        "Can't set byte element " + index + " to " + value + " at " + fieldName + " in " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Gets the value of the named field as char without boxing it. If instanceOrClass is a class then a static field is returned.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the field
+   * @return the value of the field
+   * @throws IllegalArgumentException if the field does not exist or its type can't be widened to char
+   * @see #getValue(Object, String)
+   */
+  public static char getChar(final Object instanceOrClass, final String fieldName) {
+    try {
+      return getTypedField(instanceOrClass, fieldName, char.class, false).getChar(instanceOrClass);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get char value of " + fieldName + " from " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Sets the value of the named field to the given char without boxing it. If fieldName denotes a static field, provide a class,
+   * otherwise provide an instance.
+   *
+   * @param instanceOrClass the instance or class to set the field
+   * @param fieldName the name of the field
+   * @param value the new value of the field
+   * @throws IllegalArgumentException if the value could not be set. This could be the case if no field with the given
+   *         <code>fieldName</code> can be found; if its type can't be widened from char; or if the field is static and final
+   * @see #setValue(Object, String, Object)
+   */
+  public static void setChar(final Object instanceOrClass, final String fieldName, final char value) {
+    try {
+      getTypedField(instanceOrClass, fieldName, char.class, true).setChar(instanceOrClass, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set char value " + value + " at " + fieldName + " in " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Gets the element at the given index of the named array field as char without boxing it. If instanceOrClass is a class then a static
+   * field is used.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the array field
+   * @param index the index of the element
+   * @return the value of the element
+   * @throws IllegalArgumentException if the field does not exist; if it is no array or null; if the index is out of bounds; or if the
+   *         component type of the array can't be widened to char
+   */
+  public static char getChar(final Object instanceOrClass, final String fieldName, final int index) {
+    try {
+      return Array.getChar(getTypedArrayField(instanceOrClass, fieldName, char.class, false).get(instanceOrClass), index);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get char element " + index + " of " + fieldName + " from " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Sets the element at the given index of the named array field to the given char without boxing it. If fieldName denotes a static
+   * field, provide a class, otherwise provide an instance.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the array field
+   * @param index the index of the element
+   * @param value the new value of the element
+   * @throws IllegalArgumentException if the field does not exist; if it is no array or null; if the index is out of bounds; or if the
+   *         component type of the array can't be widened from char
+   */
+  public static void setChar(final Object instanceOrClass, final String fieldName, final int index, final char value) {
+    try {
+      Array.setChar(getTypedArrayField(instanceOrClass, fieldName, char.class, true).get(instanceOrClass), index, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException(
+        "Can't set char element " + index + " to " + value + " at " + fieldName + " in " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Gets the value of the named field as short without boxing it. If instanceOrClass is a class then a static field is returned.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the field
+   * @return the value of the field
+   * @throws IllegalArgumentException if the field does not exist or its type can't be widened to short
+   * @see #getValue(Object, String)
+   */
+  public static short getShort(final Object instanceOrClass, final String fieldName) {
+    try {
+      return getTypedField(instanceOrClass, fieldName, short.class, false).getShort(instanceOrClass);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get short value of " + fieldName + " from " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Sets the value of the named field to the given short without boxing it. If fieldName denotes a static field, provide a class,
+   * otherwise provide an instance.
+   *
+   * @param instanceOrClass the instance or class to set the field
+   * @param fieldName the name of the field
+   * @param value the new value of the field
+   * @throws IllegalArgumentException if the value could not be set. This could be the case if no field with the given
+   *         <code>fieldName</code> can be found; if its type can't be widened from short; or if the field is static and final
+   * @see #setValue(Object, String, Object)
+   */
+  public static void setShort(final Object instanceOrClass, final String fieldName, final short value) {
+    try {
+      getTypedField(instanceOrClass, fieldName, short.class, true).setShort(instanceOrClass, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set short value " + value + " at " + fieldName + " in " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Gets the element at the given index of the named array field as short without boxing it. If instanceOrClass is a class then a static
+   * field is used.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the array field
+   * @param index the index of the element
+   * @return the value of the element
+   * @throws IllegalArgumentException if the field does not exist; if it is no array or null; if the index is out of bounds; or if the
+   *         component type of the array can't be widened to short
+   */
+  public static short getShort(final Object instanceOrClass, final String fieldName, final int index) {
+    try {
+      return Array.getShort(getTypedArrayField(instanceOrClass, fieldName, short.class, false).get(instanceOrClass), index);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get short element " + index + " of " + fieldName + " from " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Sets the element at the given index of the named array field to the given short without boxing it. If fieldName denotes a static
+   * field, provide a class, otherwise provide an instance.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the array field
+   * @param index the index of the element
+   * @param value the new value of the element
+   * @throws IllegalArgumentException if the field does not exist; if it is no array or null; if the index is out of bounds; or if the
+   *         component type of the array can't be widened from short
+   */
+  public static void setShort(final Object instanceOrClass, final String fieldName, final int index, final short value) {
+    try {
+      Array.setShort(getTypedArrayField(instanceOrClass, fieldName, short.class, true).get(instanceOrClass), index, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException(
+        "Can't set short element " + index + " to " + value + " at " + fieldName + " in " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Gets the value of the named field as int without boxing it. If instanceOrClass is a class then a static field is returned.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the field
+   * @return the value of the field
+   * @throws IllegalArgumentException if the field does not exist or its type can't be widened to int
+   * @see #getValue(Object, String)
+   */
+  public static int getInt(final Object instanceOrClass, final String fieldName) {
+    try {
+      return getTypedField(instanceOrClass, fieldName, int.class, false).getInt(instanceOrClass);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get int value of " + fieldName + " from " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Sets the value of the named field to the given int without boxing it. If fieldName denotes a static field, provide a class,
+   * otherwise provide an instance.
+   *
+   * @param instanceOrClass the instance or class to set the field
+   * @param fieldName the name of the field
+   * @param value the new value of the field
+   * @throws IllegalArgumentException if the value could not be set. This could be the case if no field with the given
+   *         <code>fieldName</code> can be found; if its type can't be widened from int; or if the field is static and final
+   * @see #setValue(Object, String, Object)
+   */
+  public static void setInt(final Object instanceOrClass, final String fieldName, final int value) {
+    try {
+      getTypedField(instanceOrClass, fieldName, int.class, true).setInt(instanceOrClass, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set int value " + value + " at " + fieldName + " in " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Gets the element at the given index of the named array field as int without boxing it. If instanceOrClass is a class then a static
+   * field is used.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the array field
+   * @param index the index of the element
+   * @return the value of the element
+   * @throws IllegalArgumentException if the field does not exist; if it is no array or null; if the index is out of bounds; or if the
+   *         component type of the array can't be widened to int
+   */
+  public static int getInt(final Object instanceOrClass, final String fieldName, final int index) {
+    try {
+      return Array.getInt(getTypedArrayField(instanceOrClass, fieldName, int.class, false).get(instanceOrClass), index);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get int element " + index + " of " + fieldName + " from " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Sets the element at the given index of the named array field to the given int without boxing it. If fieldName denotes a static
+   * field, provide a class, otherwise provide an instance.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the array field
+   * @param index the index of the element
+   * @param value the new value of the element
+   * @throws IllegalArgumentException if the field does not exist; if it is no array or null; if the index is out of bounds; or if the
+   *         component type of the array can't be widened from int
+   */
+  public static void setInt(final Object instanceOrClass, final String fieldName, final int index, final int value) {
+    try {
+      Array.setInt(getTypedArrayField(instanceOrClass, fieldName, int.class, true).get(instanceOrClass), index, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException(
+        "Can't set int element " + index + " to " + value + " at " + fieldName + " in " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Gets the value of the named field as long without boxing it. If instanceOrClass is a class then a static field is returned.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the field
+   * @return the value of the field
+   * @throws IllegalArgumentException if the field does not exist or its type can't be widened to long
+   * @see #getValue(Object, String)
+   */
+  public static long getLong(final Object instanceOrClass, final String fieldName) {
+    try {
+      return getTypedField(instanceOrClass, fieldName, long.class, false).getLong(instanceOrClass);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get long value of " + fieldName + " from " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Sets the value of the named field to the given long without boxing it. If fieldName denotes a static field, provide a class,
+   * otherwise provide an instance.
+   *
+   * @param instanceOrClass the instance or class to set the field
+   * @param fieldName the name of the field
+   * @param value the new value of the field
+   * @throws IllegalArgumentException if the value could not be set. This could be the case if no field with the given
+   *         <code>fieldName</code> can be found; if its type can't be widened from long; or if the field is static and final
+   * @see #setValue(Object, String, Object)
+   */
+  public static void setLong(final Object instanceOrClass, final String fieldName, final long value) {
+    try {
+      getTypedField(instanceOrClass, fieldName, long.class, true).setLong(instanceOrClass, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set long value " + value + " at " + fieldName + " in " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Gets the element at the given index of the named array field as long without boxing it. If instanceOrClass is a class then a static
+   * field is used.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the array field
+   * @param index the index of the element
+   * @return the value of the element
+   * @throws IllegalArgumentException if the field does not exist; if it is no array or null; if the index is out of bounds; or if the
+   *         component type of the array can't be widened to long
+   */
+  public static long getLong(final Object instanceOrClass, final String fieldName, final int index) {
+    try {
+      return Array.getLong(getTypedArrayField(instanceOrClass, fieldName, long.class, false).get(instanceOrClass), index);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get long element " + index + " of " + fieldName + " from " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Sets the element at the given index of the named array field to the given long without boxing it. If fieldName denotes a static
+   * field, provide a class, otherwise provide an instance.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the array field
+   * @param index the index of the element
+   * @param value the new value of the element
+   * @throws IllegalArgumentException if the field does not exist; if it is no array or null; if the index is out of bounds; or if the
+   *         component type of the array can't be widened from long
+   */
+  public static void setLong(final Object instanceOrClass, final String fieldName, final int index, final long value) {
+    try {
+      Array.setLong(getTypedArrayField(instanceOrClass, fieldName, long.class, true).get(instanceOrClass), index, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException(
+        "Can't set long element " + index + " to " + value + " at " + fieldName + " in " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Gets the value of the named field as float without boxing it. If instanceOrClass is a class then a static field is returned.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the field
+   * @return the value of the field
+   * @throws IllegalArgumentException if the field does not exist or its type can't be widened to float
+   * @see #getValue(Object, String)
+   */
+  public static float getFloat(final Object instanceOrClass, final String fieldName) {
+    try {
+      return getTypedField(instanceOrClass, fieldName, float.class, false).getFloat(instanceOrClass);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get float value of " + fieldName + " from " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Sets the value of the named field to the given float without boxing it. If fieldName denotes a static field, provide a class,
+   * otherwise provide an instance.
+   *
+   * @param instanceOrClass the instance or class to set the field
+   * @param fieldName the name of the field
+   * @param value the new value of the field
+   * @throws IllegalArgumentException if the value could not be set. This could be the case if no field with the given
+   *         <code>fieldName</code> can be found; if its type can't be widened from float; or if the field is static and final
+   * @see #setValue(Object, String, Object)
+   */
+  public static void setFloat(final Object instanceOrClass, final String fieldName, final float value) {
+    try {
+      getTypedField(instanceOrClass, fieldName, float.class, true).setFloat(instanceOrClass, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set float value " + value + " at " + fieldName + " in " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Gets the element at the given index of the named array field as float without boxing it. If instanceOrClass is a class then a static
+   * field is used.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the array field
+   * @param index the index of the element
+   * @return the value of the element
+   * @throws IllegalArgumentException if the field does not exist; if it is no array or null; if the index is out of bounds; or if the
+   *         component type of the array can't be widened to float
+   */
+  public static float getFloat(final Object instanceOrClass, final String fieldName, final int index) {
+    try {
+      return Array.getFloat(getTypedArrayField(instanceOrClass, fieldName, float.class, false).get(instanceOrClass), index);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get float element " + index + " of " + fieldName + " from " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Sets the element at the given index of the named array field to the given float without boxing it. If fieldName denotes a static
+   * field, provide a class, otherwise provide an instance.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the array field
+   * @param index the index of the element
+   * @param value the new value of the element
+   * @throws IllegalArgumentException if the field does not exist; if it is no array or null; if the index is out of bounds; or if the
+   *         component type of the array can't be widened from float
+   */
+  public static void setFloat(final Object instanceOrClass, final String fieldName, final int index, final float value) {
+    try {
+      Array.setFloat(getTypedArrayField(instanceOrClass, fieldName, float.class, true).get(instanceOrClass), index, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException(
+        "Can't set float element " + index + " to " + value + " at " + fieldName + " in " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Gets the value of the named field as double without boxing it. If instanceOrClass is a class then a static field is returned.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the field
+   * @return the value of the field
+   * @throws IllegalArgumentException if the field does not exist or its type can't be widened to double
+   * @see #getValue(Object, String)
+   */
+  public static double getDouble(final Object instanceOrClass, final String fieldName) {
+    try {
+      return getTypedField(instanceOrClass, fieldName, double.class, false).getDouble(instanceOrClass);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get double value of " + fieldName + " from " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Sets the value of the named field to the given double without boxing it. If fieldName denotes a static field, provide a class,
+   * otherwise provide an instance.
+   *
+   * @param instanceOrClass the instance or class to set the field
+   * @param fieldName the name of the field
+   * @param value the new value of the field
+   * @throws IllegalArgumentException if the value could not be set. This could be the case if no field with the given
+   *         <code>fieldName</code> can be found; if its type can't be widened from double; or if the field is static and final
+   * @see #setValue(Object, String, Object)
+   */
+  public static void setDouble(final Object instanceOrClass, final String fieldName, final double value) {
+    try {
+      getTypedField(instanceOrClass, fieldName, double.class, true).setDouble(instanceOrClass, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't set double value " + value + " at " + fieldName + " in " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Gets the element at the given index of the named array field as double without boxing it. If instanceOrClass is a class then a static
+   * field is used.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the array field
+   * @param index the index of the element
+   * @return the value of the element
+   * @throws IllegalArgumentException if the field does not exist; if it is no array or null; if the index is out of bounds; or if the
+   *         component type of the array can't be widened to double
+   */
+  public static double getDouble(final Object instanceOrClass, final String fieldName, final int index) {
+    try {
+      return Array.getDouble(getTypedArrayField(instanceOrClass, fieldName, double.class, false).get(instanceOrClass), index);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't get double element " + index + " of " + fieldName + " from " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Sets the element at the given index of the named array field to the given double without boxing it. If fieldName denotes a static
+   * field, provide a class, otherwise provide an instance.
+   *
+   * @param instanceOrClass the instance or class to get the field from
+   * @param fieldName the name of the array field
+   * @param index the index of the element
+   * @param value the new value of the element
+   * @throws IllegalArgumentException if the field does not exist; if it is no array or null; if the index is out of bounds; or if the
+   *         component type of the array can't be widened from double
+   */
+  public static void setDouble(final Object instanceOrClass, final String fieldName, final int index, final double value) {
+    try {
+      Array.setDouble(getTypedArrayField(instanceOrClass, fieldName, double.class, true).get(instanceOrClass), index, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException(
+        "Can't set double element " + index + " to " + value + " at " + fieldName + " in " + instanceOrClass, e);
+    }
+  }
+
+  /**
+   * Gets the value of the named field and returns it as an object.
+   *
+   * @param fieldName the name of the field
+   * @return an object representing the value of the field
+   * @throws IllegalArgumentException if the field does not exist
+   * @see PA#getValue(Object, String)
+   */
+  public Object getValue(final String fieldName) {
+    return PA.getValue(instanceOrClass, fieldName);
+  }
+
+  /**
+   * Calls a method with the given arguments. Arguments can be object types or representations for primitives.
+   *
+   * @param methodSignature the name of the method and the parameters <br>
+   *        (e.g. "myMethod(java.lang.String, com.company.project.MyObject)") or just the name of the method (e.g. "myMethod")
    * @param arguments an array of objects to pass as arguments
    * @return the return value of this method or null if void
    * @throws RuntimeException any runtime exception the invoked method has thrown
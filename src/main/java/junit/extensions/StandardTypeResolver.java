@@ -0,0 +1,64 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+/**
+ * The type resolver PA uses by default. Resolves fully qualified class names as well as "standard" Java types (like String or Collection)
+ * given without their package name.
+ *
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+final class StandardTypeResolver implements TypeResolver {
+  /**
+   * The packages searched for class names given without package name.
+   */
+  private static final String[] STANDARD_PACKAGES = {"java.lang.", "java.util."};
+
+  @Override
+  public Class<?> resolve(final String typeName, final ClassLoader classLoader) {
+    Class<?> type = forName(typeName, classLoader);
+    if ((type != null) || !missesPackageName(typeName)) return type;
+
+    for (String standardPackage : STANDARD_PACKAGES) {
+      type = forName(standardPackage + typeName, classLoader);
+      if (type != null) return type;
+    }
+    return null;
+  }
+
+  /**
+   * Gets the class with the given className from the given class loader.
+   *
+   * @param className the name of the class
+   * @param classLoader the class loader to load the class with
+   * @return the class or null if no such class can be found
+   */
+  private static Class<?> forName(final String className, final ClassLoader classLoader) {
+    try {
+      return Class.forName(className, false, classLoader);
+    } catch (ClassNotFoundException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Tests if the given className possibly misses its package name.
+   *
+   * @param className the className
+   * @return true if the className might miss its package name, otherwise false
+   */
+  private static boolean missesPackageName(final String className) {
+    if (className.isEmpty() || className.contains(".")) return false;
+    return className.charAt(0) == Character.toUpperCase(className.charAt(0));
+  }
+}
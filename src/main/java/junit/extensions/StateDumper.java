@@ -0,0 +1,357 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes the state of an object graph to an {@link Appendable}. Objects are written as {@code <classname> {<attributes and values>}},
+ * where {@code <attributes and values>} is a comma separated list of {@code <attributeName>=<attributeValue>} of all instance fields of
+ * the object's class and its super classes in lookup order (or all static fields when a class is dumped). Attribute values are written
+ * the same way, recursively.
+ * <p>
+ * The fields to write are collected once per class into a {@link StatePlan}, so dumping an object costs one read per field however
+ * deep its class hierarchy is. Primitives, wrappers, strings, enums and classes are written as they are, arrays as {@code [<elements>]}
+ * without boxing primitive elements. Collections and maps are written by their elements resp. entries, which are dumped recursively.
+ * Objects whose fields can't be made accessible (like the ones of the JDK) are written by their own {@code toString()}.
+ * </p>
+ * <p>
+ * Each object is written only once per dump; further references to it (including cyclic ones) are written as
+ * {@code <classname>@<identity hash code>}. Objects nested deeper than the maximum depth are written as {@code <classname> {...}}, arrays
+ * and collections as {@code [...]} and maps as <code>{...}</code>, so the dump never recurses deeper than the maximum depth. Once
+ * the maximum length is reached, the dump ends with {@value #TRUNCATION} and the remaining graph is not visited at all.
+ * </p>
+ *
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+final class StateDumper {
+  /**
+   * The default maximum depth of nested objects.
+   */
+  static final int DEFAULT_MAXIMUM_DEPTH = 10;
+
+  /**
+   * The default maximum number of characters of a dump.
+   */
+  static final int DEFAULT_MAXIMUM_LENGTH = 64 * 1024;
+
+  /**
+   * Ends truncated dumps.
+   */
+  static final String TRUNCATION = "...";
+
+  private final Appendable out;
+  private final int maximumDepth;
+  private final int maximumLength;
+  private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+  private int length;
+
+  /**
+   * Creates a dumper writing to the given appendable.
+   *
+   * @param out the appendable to write to
+   * @param maximumDepth the maximum depth of nested objects to write (0 writes only the attributes of the dumped object itself)
+   * @param maximumLength the maximum number of characters to write
+   */
+  private StateDumper(final Appendable out, final int maximumDepth, final int maximumLength) {
+    this.out = out;
+    this.maximumDepth = maximumDepth;
+    this.maximumLength = maximumLength;
+  }
+
+  /**
+   * Writes the state of the given object graph to the given appendable.
+   *
+   * @param instanceOrClass the object or class to dump (static fields are dumped for classes)
+   * @param out the appendable to write to
+   * @param maximumDepth the maximum depth of nested objects to write (0 writes only the attributes of the dumped object itself)
+   * @param maximumLength the maximum number of characters to write
+   * @throws UncheckedIOException if the appendable throws an IOException
+   */
+  static void dump(final Object instanceOrClass, final Appendable out, final int maximumDepth, final int maximumLength) {
+    StateDumper dumper = new StateDumper(out, maximumDepth, maximumLength);
+    try {
+      if (instanceOrClass instanceof Class) {
+        dumper.writeObject(instanceOrClass, StatePlan.ofStatics((Class<?>) instanceOrClass), 0);
+      } else {
+        dumper.writeValue(instanceOrClass, 0);
+      }
+    } catch (TruncatedException e) {
+      // the dump is complete up to the maximum length
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Writes the given attribute value.
+   *
+   * @param value the value to write
+   * @param depth the depth of the value in the object graph
+   * @throws IOException if the appendable throws an IOException
+   */
+  private void writeValue(final Object value, final int depth) throws IOException {
+    if ((value == null) || (value instanceof CharSequence) || (value instanceof Number) || (value instanceof Boolean)
+        || (value instanceof Character) || (value instanceof Enum) || (value instanceof Class)) {
+      write(String.valueOf(value));
+      return;
+    }
+
+    Class<?> type = value.getClass();
+    boolean isMap = value instanceof Map;
+    boolean isCollection = value instanceof Collection;
+    StatePlan plan = (type.isArray() || isMap || isCollection) ? null : StatePlan.ofInstances(type);
+    if ((plan != null) && !plan.isAccessible()) {
+      write(String.valueOf(value));
+      return;
+    }
+
+    if (depth > maximumDepth) {
+      writeCutOff(plan, isMap);
+      return;
+    }
+    if ( !visited.add(value)) {
+      writeReference(value);
+      return;
+    }
+
+    if (isMap) {
+      writeEntries((Map<?, ?>) value, depth);
+    } else if (isCollection) {
+      writeElements((Collection<?>) value, depth);
+    } else if (plan == null) {
+      writeArray(value, depth);
+    } else {
+      writeObject(value, plan, depth);
+    }
+  }
+
+  /**
+   * Writes an object, array, collection or map nested deeper than the maximum depth without its content: objects as
+   * {@code <classname> {...}}, arrays and collections as {@code [...]} and maps as <code>{...}</code>.
+   *
+   * @param plan the plan of the object (null for arrays, collections and maps)
+   * @param isMap true if a map is written
+   * @throws IOException if the appendable throws an IOException
+   */
+  private void writeCutOff(final StatePlan plan, final boolean isMap) throws IOException {
+    if (isMap) {
+      write("{...}");
+    } else if (plan == null) {
+      write("[...]");
+    } else {
+      write(plan.getType().getName());
+      if (plan.size() > 0) write(" {...}");
+    }
+  }
+
+  /**
+   * Writes the attributes of the given object following the given plan.
+   *
+   * @param instanceOrClass the object or class to write the attributes of
+   * @param plan the plan of the attributes to write
+   * @param depth the depth of the object in the object graph
+   * @throws IOException if the appendable throws an IOException
+   */
+  private void writeObject(final Object instanceOrClass, final StatePlan plan, final int depth) throws IOException {
+    write(plan.getType().getName());
+    if (plan.size() == 0) return;
+
+    write(" {");
+    for (int i = 0; i < plan.size(); i++ ) {
+      if (i > 0) write(", ");
+      write(plan.getName(i));
+      write('=');
+      try {
+        writeValue(plan.getField(i).get(instanceOrClass), depth + 1);
+      } catch (IllegalAccessException e) {
+        write("?");
+      }
+    }
+    write("}");
+  }
+
+  /**
+   * Writes the elements of the given array. Elements of primitive arrays are written without boxing them.
+   *
+   * @param array the array to write
+   * @param depth the depth of the array in the object graph
+   * @throws IOException if the appendable throws an IOException
+   */
+  private void writeArray(final Object array, final int depth) throws IOException {
+    write("[");
+    if (array instanceof int[]) {
+      int[] values = (int[]) array;
+      for (int i = 0; i < values.length; i++ ) {
+        if (i > 0) write(", ");
+        write(Integer.toString(values[i]));
+      }
+    } else if (array instanceof long[]) {
+      long[] values = (long[]) array;
+      for (int i = 0; i < values.length; i++ ) {
+        if (i > 0) write(", ");
+        write(Long.toString(values[i]));
+      }
+    } else if (array instanceof double[]) {
+      double[] values = (double[]) array;
+      for (int i = 0; i < values.length; i++ ) {
+        if (i > 0) write(", ");
+        write(Double.toString(values[i]));
+      }
+    } else if (array instanceof float[]) {
+      float[] values = (float[]) array;
+      for (int i = 0; i < values.length; i++ ) {
+        if (i > 0) write(", ");
+        write(Float.toString(values[i]));
+      }
+    } else if (array instanceof short[]) {
+      short[] values = (short[]) array;
+      for (int i = 0; i < values.length; i++ ) {
+        if (i > 0) write(", ");
+        write(Short.toString(values[i]));
+      }
+    } else if (array instanceof byte[]) {
+      byte[] values = (byte[]) array;
+      for (int i = 0; i < values.length; i++ ) {
+        if (i > 0) write(", ");
+        write(Byte.toString(values[i]));
+      }
+    } else if (array instanceof char[]) {
+      char[] values = (char[]) array;
+      for (int i = 0; i < values.length; i++ ) {
+        if (i > 0) write(", ");
+        write(values[i]);
+      }
+    } else if (array instanceof boolean[]) {
+      boolean[] values = (boolean[]) array;
+      for (int i = 0; i < values.length; i++ ) {
+        if (i > 0) write(", ");
+        write(Boolean.toString(values[i]));
+      }
+    } else {
+      Object[] values = (Object[]) array;
+      for (int i = 0; i < values.length; i++ ) {
+        if (i > 0) write(", ");
+        writeValue(values[i], depth + 1);
+      }
+    }
+    write("]");
+  }
+
+  /**
+   * Writes the elements of the given collection.
+   *
+   * @param collection the collection to write
+   * @param depth the depth of the collection in the object graph
+   * @throws IOException if the appendable throws an IOException
+   */
+  private void writeElements(final Collection<?> collection, final int depth) throws IOException {
+    write("[");
+    boolean first = true;
+    for (Object element : collection) {
+      if ( !first) write(", ");
+      first = false;
+      writeValue(element, depth + 1);
+    }
+    write("]");
+  }
+
+  /**
+   * Writes the entries of the given map.
+   *
+   * @param map the map to write
+   * @param depth the depth of the map in the object graph
+   * @throws IOException if the appendable throws an IOException
+   */
+  private void writeEntries(final Map<?, ?> map, final int depth) throws IOException {
+    write("{");
+    boolean first = true;
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      if ( !first) write(", ");
+      first = false;
+      writeValue(entry.getKey(), depth + 1);
+      write("=");
+      writeValue(entry.getValue(), depth + 1);
+    }
+    write("}");
+  }
+
+  /**
+   * Writes a reference to an object that was already written.
+   *
+   * @param value the object already written
+   * @throws IOException if the appendable throws an IOException
+   */
+  private void writeReference(final Object value) throws IOException {
+    write(value.getClass().getName());
+    write("@");
+    write(Integer.toHexString(System.identityHashCode(value)));
+  }
+
+  /**
+   * Writes the given character, ending the dump if the maximum length is reached.
+   *
+   * @param character the character to write
+   * @throws IOException if the appendable throws an IOException
+   */
+  private void write(final char character) throws IOException {
+    if (length >= maximumLength) truncate();
+    out.append(character);
+    length++ ;
+  }
+
+  /**
+   * Writes the given string, ending the dump if the maximum length is reached.
+   *
+   * @param string the string to write
+   * @throws IOException if the appendable throws an IOException
+   */
+  private void write(final String string) throws IOException {
+    if (length + string.length() > maximumLength) {
+      out.append(string, 0, maximumLength - length);
+      truncate();
+    }
+    out.append(string);
+    length += string.length();
+  }
+
+  /**
+   * Ends the dump because the maximum length is reached.
+   *
+   * @throws IOException if the appendable throws an IOException
+   */
+  private void truncate() throws IOException {
+    out.append(TRUNCATION);
+    throw new TruncatedException();
+  }
+
+  /**
+   * Ends a dump once its maximum length is reached, without filling in a stack trace.
+   */
+  private static final class TruncatedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates the exception.
+     */
+    TruncatedException() {
+      super(null, null, false, false);
+    }
+  }
+}
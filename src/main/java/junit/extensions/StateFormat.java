@@ -0,0 +1,60 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+/**
+ * The formats {@link PA#writeState(Object, java.io.OutputStream, StateFormat)} can export the state of an object graph in.
+ * <p>
+ * Both formats write the root value followed by a table of all objects reachable from it (including the root itself). Each object is
+ * written exactly once, in the order it was first reached; all references to it are written as its position in the table. Objects are
+ * written with the values of all their instance fields and the fields of their super classes, or with the values of all static fields
+ * if a class is exported. Arrays and collections are written with their elements, maps with their entries. Primitives, wrappers, strings,
+ * enums (by name) and classes (by name) are written as values. Other objects whose fields can't be made accessible (like the ones of the
+ * JDK) are written by their own {@code toString()}.
+ * </p>
+ *
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+public enum StateFormat {
+  /**
+   * A compact binary format. It starts with the bytes {@code "PAST"} and the format version 1, followed by the root value and the object
+   * table. Values start with a tag byte:
+   * <ul>
+   * <li>0: null, 1: false, 2: true</li>
+   * <li>3: byte (1 byte), 4: short (2 bytes), 5: char (2 bytes), 6: int (zig-zag varint), 7: long (zig-zag varint), 8: float (4 bytes), 9:
+   * double (8 bytes), all fixed size values in big endian byte order</li>
+   * <li>10: string, 11: enum (type name and constant name as strings), 12: class (name as string), 13: text (the {@code toString()} of an
+   * object as string)</li>
+   * <li>14: reference (the position of the object in the object table as varint)</li>
+   * <li>15: primitive array (tag of the element type, with 2 for booleans, length as varint and the elements without tags; ints and longs
+   * as zig-zag varints, booleans as 0 or 1)</li>
+   * </ul>
+   * Strings are written as their length in UTF-8 bytes (as varint) followed by these bytes. Each object of the table starts with the
+   * position of its type in the type table plus 1 (as varint). If the type is not yet in the type table, its definition follows: the kind
+   * of the type (0: object, 1: statics of a class, 2: array, 3: collection, 4: map), its name and for objects and statics the number of
+   * fields and their names. Objects and statics continue with the values of the fields, arrays with their length and elements,
+   * collections with their elements and maps with their keys and values in turns, both ended by the tag 16. The object table is ended by
+   * a 0 type position.
+   */
+  BINARY,
+
+  /**
+   * JSON (encoded in UTF-8) of the form
+   * <code>{"root":&lt;value&gt;,"objects":[{"@id":0,"@type":"&lt;classname&gt;","&lt;fieldname&gt;":&lt;value&gt;,...},...]}</code>
+   * with one object per line. References to objects are written as <code>{"@ref":&lt;id&gt;}</code>. Statics of classes are marked with
+   * <code>"@static":true</code>, arrays and collections have <code>"@elements":[...]</code>, maps
+   * <code>"@entries":[[&lt;key&gt;,&lt;value&gt;],...]</code>. Chars, enums, classes and texts are written as strings, infinite and NaN
+   * floating point values as strings as well.
+   */
+  JSON
+}
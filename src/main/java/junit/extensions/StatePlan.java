@@ -0,0 +1,165 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The fields to read when exporting the state of objects of a class: the instance fields or the static fields of the class and its super
+ * classes in lookup order. Fields shadowed by fields with the same name earlier in lookup order are left out. Plans are computed once per
+ * class and hold the (accessible) field handles, so the state of an object can be read without any further lookup.
+ * <p>
+ * Fields declared by classes of the JDK (i.e. loaded by the bootstrap or platform class loader) are never planned, even if they could be
+ * made accessible (e.g. on Java 11 or with {@code --add-opens}), so the exported state doesn't depend on the Java version or its options.
+ * </p>
+ *
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+final class StatePlan {
+  private static final FieldHandle[] NO_FIELDS = new FieldHandle[0];
+  private static final String[] NO_NAMES = new String[0];
+
+  private static final ClassValue<StatePlan> INSTANCE_PLANS = new ClassValue<StatePlan>() {
+    @Override
+    protected StatePlan computeValue(final Class<?> type) {
+      return new StatePlan(type, false);
+    }
+  };
+
+  private static final ClassValue<StatePlan> STATIC_PLANS = new ClassValue<StatePlan>() {
+    @Override
+    protected StatePlan computeValue(final Class<?> type) {
+      return new StatePlan(type, true);
+    }
+  };
+
+  private final Class<?> type;
+  private final boolean accessible;
+  private final FieldHandle[] fields;
+  private final String[] names;
+
+  /**
+   * Creates the plan for the given class.
+   *
+   * @param type the class to create the plan for
+   * @param isStatic true to plan the static fields, false to plan the instance fields
+   */
+  private StatePlan(final Class<?> type, final boolean isStatic) {
+    this.type = type;
+
+    ClassMirror mirror = ClassMirror.of(type);
+    List<FieldHandle> handles = new ArrayList<>();
+    List<String> fieldNames = new ArrayList<>();
+    boolean allAccessible = true;
+    for (Field field : mirror.getFields()) {
+      if ((Modifier.isStatic(field.getModifiers()) != isStatic) || (mirror.getField(field.getName()) != field)) continue;
+      if (isJdkType(field.getDeclaringClass())) {
+        allAccessible = false;
+        break;
+      }
+      try {
+        field.setAccessible(true);
+        handles.add(FieldHandle.of(field));
+        fieldNames.add(field.getName());
+      } catch (RuntimeException e) {
+        allAccessible = false;
+        break;
+      }
+    }
+    accessible = allAccessible;
+    fields = allAccessible ? handles.toArray(NO_FIELDS) : NO_FIELDS;
+    names = allAccessible ? fieldNames.toArray(NO_NAMES) : NO_NAMES;
+  }
+
+  /**
+   * Checks if the given class belongs to the JDK, i.e. if it is loaded by the bootstrap or the platform class loader.
+   *
+   * @param type the class to check
+   * @return true if the class belongs to the JDK, otherwise false
+   */
+  private static boolean isJdkType(final Class<?> type) {
+    ClassLoader classLoader = type.getClassLoader();
+    return (classLoader == null) || (classLoader == ClassLoader.getPlatformClassLoader());
+  }
+
+  /**
+   * Gets the plan of the instance fields of the given class.
+   *
+   * @param type the class to get the plan for
+   * @return the plan of the instance fields
+   */
+  static StatePlan ofInstances(final Class<?> type) {
+    return INSTANCE_PLANS.get(type);
+  }
+
+  /**
+   * Gets the plan of the static fields of the given class.
+   *
+   * @param type the class to get the plan for
+   * @return the plan of the static fields
+   */
+  static StatePlan ofStatics(final Class<?> type) {
+    return STATIC_PLANS.get(type);
+  }
+
+  /**
+   * Gets the planned class.
+   *
+   * @return the class
+   */
+  Class<?> getType() {
+    return type;
+  }
+
+  /**
+   * Checks whether all fields of the class could be made accessible. Otherwise (e.g. for classes with fields declared by the JDK) the plan
+   * has no fields.
+   *
+   * @return true if the fields of the class are accessible
+   */
+  boolean isAccessible() {
+    return accessible;
+  }
+
+  /**
+   * Gets the number of planned fields.
+   *
+   * @return the number of fields
+   */
+  int size() {
+    return fields.length;
+  }
+
+  /**
+   * Gets the name of the planned field at the given position.
+   *
+   * @param index the position of the field
+   * @return the name of the field
+   */
+  String getName(final int index) {
+    return names[index];
+  }
+
+  /**
+   * Gets the handle of the planned field at the given position.
+   *
+   * @param index the position of the field
+   * @return the handle of the field
+   */
+  FieldHandle getField(final int index) {
+    return fields[index];
+  }
+}
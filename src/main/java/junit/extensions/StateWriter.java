@@ -0,0 +1,1268 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Streams the state of an object graph in a {@link StateFormat} to a channel. The graph is traversed breadth first through the
+ * {@link StatePlan}s of the classes: each object reached is given the next position in the object table and queued, so the traversal
+ * needs no recursion however deep the graph is. Values are encoded directly into a fixed size buffer that is written to the channel
+ * whenever it is full; no intermediate strings or maps are built besides the table of objects already reached. The only strings built
+ * are the {@code toString()} of the objects written as text, since that string is the value written.
+ *
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+abstract class StateWriter {
+  private static final int BUFFER_SIZE = 8 * 1024;
+  private static final String LONG_MIN_VALUE = Long.toString(Long.MIN_VALUE);
+
+  private final WritableByteChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  private final Map<Object, Integer> ids = new IdentityHashMap<>();
+  private final ArrayDeque<Object> pending = new ArrayDeque<>();
+  private final byte[] digits = new byte[20];
+
+  /**
+   * Creates a writer writing to the given channel.
+   *
+   * @param channel the channel to write to
+   */
+  StateWriter(final WritableByteChannel channel) {
+    this.channel = channel;
+  }
+
+  /**
+   * Writes the state of the given object graph to the given channel. The channel is not closed.
+   *
+   * @param instanceOrClass the object or class to export (static fields are exported for classes)
+   * @param channel the channel to write to
+   * @param format the format to write
+   * @throws UncheckedIOException if the channel throws an IOException
+   * @throws IllegalArgumentException if a field can't be read
+   */
+  static void write(final Object instanceOrClass, final WritableByteChannel channel, final StateFormat format) {
+    StateWriter writer = (format == StateFormat.JSON) ? new JsonStateWriter(channel) : new BinaryStateWriter(channel);
+    try {
+      writer.writeGraph(instanceOrClass);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Writes the given root value and the table of all objects reachable from it.
+   *
+   * @param root the object or class to export
+   * @throws IOException if the channel throws an IOException
+   */
+  private void writeGraph(final Object root) throws IOException {
+    beginStream();
+    if (root instanceof Class) {
+      writeReference(reach(root));
+    } else {
+      writeValue(root);
+    }
+    beginTable();
+    for (int id = 0; !pending.isEmpty(); id++ ) {
+      writeEntry(id, pending.poll());
+    }
+    endStream();
+    flush();
+  }
+
+  /**
+   * Writes the given object of the object table.
+   *
+   * @param id the position of the object in the object table
+   * @param value the object (or class for its statics)
+   * @throws IOException if the channel throws an IOException
+   */
+  private void writeEntry(final int id, final Object value) throws IOException {
+    if (value instanceof Class) {
+      writeFields(id, value, StatePlan.ofStatics((Class<?>) value), true);
+      return;
+    }
+
+    Class<?> type = value.getClass();
+    if (type.isArray()) {
+      Object[] elements = (Object[]) value;
+      beginArray(id, type, elements.length);
+      for (int i = 0; i < elements.length; i++ ) {
+        beginElement(i == 0);
+        writeValue(elements[i]);
+      }
+      endArray();
+      return;
+    }
+
+    if (value instanceof Collection) {
+      beginCollection(id, type);
+      boolean first = true;
+      for (Object element : (Collection<?>) value) {
+        beginElement(first);
+        first = false;
+        writeValue(element);
+      }
+      endCollection();
+    } else if (value instanceof Map) {
+      beginMap(id, type);
+      boolean first = true;
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        beginKey(first);
+        first = false;
+        writeValue(entry.getKey());
+        beginMapValue();
+        writeValue(entry.getValue());
+        endMapEntry();
+      }
+      endMap();
+    } else {
+      writeFields(id, value, StatePlan.ofInstances(type), false);
+    }
+  }
+
+  /**
+   * Writes the fields of the given object following the given plan.
+   *
+   * @param id the position of the object in the object table
+   * @param instanceOrClass the object or class to write the fields of
+   * @param plan the plan of the fields
+   * @param statics true if the static fields of a class are written
+   * @throws IOException if the channel throws an IOException
+   */
+  private void writeFields(final int id, final Object instanceOrClass, final StatePlan plan, final boolean statics) throws IOException {
+    beginObject(id, plan, statics);
+    for (int i = 0; i < plan.size(); i++ ) {
+      beginField(plan.getName(i));
+      FieldHandle field = plan.getField(i);
+      try {
+        writeField(field, field.getType(), instanceOrClass);
+      } catch (IllegalAccessException e) {
+        throw new IllegalArgumentException("Can't read field " + plan.getName(i) + " of " + plan.getType().getName(), e);
+      }
+    }
+    endObject();
+  }
+
+  /**
+   * Writes the value of the given field, reading primitive fields without boxing.
+   *
+   * @param field the handle of the field
+   * @param type the type of the field
+   * @param instanceOrClass the object to read the field of (ignored for static fields)
+   * @throws IOException if the channel throws an IOException
+   * @throws IllegalAccessException if the field can't be read
+   */
+  private void writeField(final FieldHandle field, final Class<?> type, final Object instanceOrClass)
+      throws IOException,
+      IllegalAccessException {
+    if (type == int.class) {
+      writeInt(field.getInt(instanceOrClass));
+    } else if (type == long.class) {
+      writeLong(field.getLong(instanceOrClass));
+    } else if (type == double.class) {
+      writeDouble(field.getDouble(instanceOrClass));
+    } else if (type == boolean.class) {
+      writeBoolean(field.getBoolean(instanceOrClass));
+    } else if (type == float.class) {
+      writeFloat(field.getFloat(instanceOrClass));
+    } else if (type == char.class) {
+      writeChar(field.getChar(instanceOrClass));
+    } else if (type == short.class) {
+      writeShort(field.getShort(instanceOrClass));
+    } else if (type == byte.class) {
+      writeByte(field.getByte(instanceOrClass));
+    } else {
+      writeValue(field.get(instanceOrClass));
+    }
+  }
+
+  /**
+   * Writes the given value. Objects of the object table are written as references, reaching them if written for the first time.
+   *
+   * @param value the value to write
+   * @throws IOException if the channel throws an IOException
+   */
+  private void writeValue(final Object value) throws IOException {
+    if (value == null) {
+      writeNull();
+    } else if (value instanceof Integer) {
+      writeInt((Integer) value);
+    } else if (value instanceof Long) {
+      writeLong((Long) value);
+    } else if (value instanceof Double) {
+      writeDouble((Double) value);
+    } else if (value instanceof Boolean) {
+      writeBoolean((Boolean) value);
+    } else if (value instanceof Float) {
+      writeFloat((Float) value);
+    } else if (value instanceof Character) {
+      writeChar((Character) value);
+    } else if (value instanceof Short) {
+      writeShort((Short) value);
+    } else if (value instanceof Byte) {
+      writeByte((Byte) value);
+    } else if (value instanceof CharSequence) {
+      writeString((CharSequence) value);
+    } else if (value instanceof Enum) {
+      writeEnum((Enum<?>) value);
+    } else if (value instanceof Class) {
+      writeClass((Class<?>) value);
+    } else if (value.getClass().isArray() && value.getClass().getComponentType().isPrimitive()) {
+      writePrimitiveArray(value);
+    } else if (isTableEntry(value)) {
+      Integer id = ids.get(value);
+      writeReference((id == null) ? reach(value) : id);
+    } else {
+      writeText(String.valueOf(value));
+    }
+  }
+
+  /**
+   * Checks whether the given object is written to the object table, i.e. it is an array, a collection, a map or an object with accessible
+   * fields. Collections and maps are always written by their elements resp. entries, never by their fields.
+   *
+   * @param value the object
+   * @return true if the object belongs to the object table
+   */
+  private static boolean isTableEntry(final Object value) {
+    return value.getClass().isArray() || (value instanceof Collection) || (value instanceof Map)
+        || StatePlan.ofInstances(value.getClass()).isAccessible();
+  }
+
+  /**
+   * Reaches the given object for the first time: assigns it the next position in the object table and queues it for writing.
+   *
+   * @param value the object reached
+   * @return the position of the object in the object table
+   */
+  private int reach(final Object value) {
+    int id = ids.size();
+    ids.put(value, id);
+    pending.add(value);
+    return id;
+  }
+
+  /**
+   * Starts the stream.
+   *
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void beginStream() throws IOException;
+
+  /**
+   * Starts the object table after the root value.
+   *
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void beginTable() throws IOException;
+
+  /**
+   * Ends the object table and the stream.
+   *
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void endStream() throws IOException;
+
+  /**
+   * Starts an object (or the statics of a class) of the object table.
+   *
+   * @param id the position of the object in the object table
+   * @param plan the plan of the fields of the object
+   * @param statics true if the static fields of a class are written
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void beginObject(int id, StatePlan plan, boolean statics) throws IOException;
+
+  /**
+   * Starts the value of a field of an object.
+   *
+   * @param name the name of the field
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void beginField(String name) throws IOException;
+
+  /**
+   * Ends an object of the object table.
+   *
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void endObject() throws IOException;
+
+  /**
+   * Starts an array of the object table.
+   *
+   * @param id the position of the array in the object table
+   * @param type the type of the array
+   * @param length the length of the array
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void beginArray(int id, Class<?> type, int length) throws IOException;
+
+  /**
+   * Ends an array of the object table.
+   *
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void endArray() throws IOException;
+
+  /**
+   * Starts a collection of the object table.
+   *
+   * @param id the position of the collection in the object table
+   * @param type the type of the collection
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void beginCollection(int id, Class<?> type) throws IOException;
+
+  /**
+   * Starts an element of an array or collection.
+   *
+   * @param first true for the first element
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void beginElement(boolean first) throws IOException;
+
+  /**
+   * Ends a collection of the object table.
+   *
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void endCollection() throws IOException;
+
+  /**
+   * Starts a map of the object table.
+   *
+   * @param id the position of the map in the object table
+   * @param type the type of the map
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void beginMap(int id, Class<?> type) throws IOException;
+
+  /**
+   * Starts the key of an entry of a map.
+   *
+   * @param first true for the first entry
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void beginKey(boolean first) throws IOException;
+
+  /**
+   * Starts the value of an entry of a map.
+   *
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void beginMapValue() throws IOException;
+
+  /**
+   * Ends an entry of a map.
+   *
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void endMapEntry() throws IOException;
+
+  /**
+   * Ends a map of the object table.
+   *
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void endMap() throws IOException;
+
+  /**
+   * Writes null.
+   *
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void writeNull() throws IOException;
+
+  /**
+   * Writes the given boolean.
+   *
+   * @param value the value to write
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void writeBoolean(boolean value) throws IOException;
+
+  /**
+   * Writes the given byte.
+   *
+   * @param value the value to write
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void writeByte(byte value) throws IOException;
+
+  /**
+   * Writes the given short.
+   *
+   * @param value the value to write
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void writeShort(short value) throws IOException;
+
+  /**
+   * Writes the given char.
+   *
+   * @param value the value to write
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void writeChar(char value) throws IOException;
+
+  /**
+   * Writes the given int.
+   *
+   * @param value the value to write
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void writeInt(int value) throws IOException;
+
+  /**
+   * Writes the given long.
+   *
+   * @param value the value to write
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void writeLong(long value) throws IOException;
+
+  /**
+   * Writes the given float.
+   *
+   * @param value the value to write
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void writeFloat(float value) throws IOException;
+
+  /**
+   * Writes the given double.
+   *
+   * @param value the value to write
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void writeDouble(double value) throws IOException;
+
+  /**
+   * Writes the given string.
+   *
+   * @param value the value to write
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void writeString(CharSequence value) throws IOException;
+
+  /**
+   * Writes the given enum constant.
+   *
+   * @param value the value to write
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void writeEnum(Enum<?> value) throws IOException;
+
+  /**
+   * Writes the given class.
+   *
+   * @param value the value to write
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void writeClass(Class<?> value) throws IOException;
+
+  /**
+   * Writes the given text representing an object that isn't written to the object table.
+   *
+   * @param value the value to write
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void writeText(String value) throws IOException;
+
+  /**
+   * Writes a reference to an object of the object table.
+   *
+   * @param id the position of the object in the object table
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void writeReference(int id) throws IOException;
+
+  /**
+   * Writes the given array of primitives.
+   *
+   * @param array the array to write
+   * @throws IOException if the channel throws an IOException
+   */
+  abstract void writePrimitiveArray(Object array) throws IOException;
+
+  /**
+   * Makes sure the buffer has room for the given number of bytes, writing its content to the channel if necessary.
+   *
+   * @param size the number of bytes to put
+   * @return the buffer
+   * @throws IOException if the channel throws an IOException
+   */
+  final ByteBuffer reserve(final int size) throws IOException {
+    if (buffer.remaining() < size) flush();
+    return buffer;
+  }
+
+  /**
+   * Puts the given byte into the buffer.
+   *
+   * @param value the byte to put
+   * @throws IOException if the channel throws an IOException
+   */
+  final void put(final int value) throws IOException {
+    reserve(1).put((byte) value);
+  }
+
+  /**
+   * Puts the given ASCII characters into the buffer.
+   *
+   * @param ascii the characters to put
+   * @throws IOException if the channel throws an IOException
+   */
+  final void putAscii(final CharSequence ascii) throws IOException {
+    for (int i = 0; i < ascii.length(); i++ ) {
+      put(ascii.charAt(i));
+    }
+  }
+
+  /**
+   * Puts the given value as decimal ASCII digits into the buffer.
+   *
+   * @param value the value to put
+   * @throws IOException if the channel throws an IOException
+   */
+  final void putDecimal(final long value) throws IOException {
+    if (value == Long.MIN_VALUE) {
+      putAscii(LONG_MIN_VALUE);
+      return;
+    }
+
+    long rest = Math.abs(value);
+    int start = digits.length;
+    do {
+      digits[--start] = (byte) ('0' + (rest % 10));
+      rest /= 10;
+    } while (rest != 0);
+    if (value < 0) put('-');
+    reserve(digits.length - start).put(digits, start, digits.length - start);
+  }
+
+  /**
+   * Puts the given code point encoded in UTF-8 into the buffer. Unpaired surrogates are encoded like other characters.
+   *
+   * @param codePoint the code point to put
+   * @throws IOException if the channel throws an IOException
+   */
+  final void putUtf8(final int codePoint) throws IOException {
+    ByteBuffer out = reserve(4);
+    if (codePoint < 0x80) {
+      out.put((byte) codePoint);
+    } else if (codePoint < 0x800) {
+      out.put((byte) (0xC0 | (codePoint >> 6))).put((byte) (0x80 | (codePoint & 0x3F)));
+    } else if (codePoint < 0x10000) {
+      out.put((byte) (0xE0 | (codePoint >> 12))).put((byte) (0x80 | ((codePoint >> 6) & 0x3F))).put((byte) (0x80 | (codePoint & 0x3F)));
+    } else {
+      out.put((byte) (0xF0 | (codePoint >> 18))).put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+      out.put((byte) (0x80 | ((codePoint >> 6) & 0x3F))).put((byte) (0x80 | (codePoint & 0x3F)));
+    }
+  }
+
+  /**
+   * Gets the number of bytes the given code point takes in UTF-8.
+   *
+   * @param codePoint the code point
+   * @return the number of bytes
+   */
+  static int utf8Length(final int codePoint) {
+    if (codePoint < 0x80) return 1;
+    if (codePoint < 0x800) return 2;
+    if (codePoint < 0x10000) return 3;
+    return 4;
+  }
+
+  /**
+   * Writes the content of the buffer to the channel.
+   *
+   * @throws IOException if the channel throws an IOException
+   */
+  private void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Writes the {@link StateFormat#BINARY binary} format.
+   */
+  private static final class BinaryStateWriter extends StateWriter {
+    private static final int NULL = 0;
+    private static final int FALSE = 1;
+    private static final int TRUE = 2;
+    private static final int BYTE = 3;
+    private static final int SHORT = 4;
+    private static final int CHAR = 5;
+    private static final int INT = 6;
+    private static final int LONG = 7;
+    private static final int FLOAT = 8;
+    private static final int DOUBLE = 9;
+    private static final int STRING = 10;
+    private static final int ENUM = 11;
+    private static final int CLASS = 12;
+    private static final int TEXT = 13;
+    private static final int REFERENCE = 14;
+    private static final int PRIMITIVE_ARRAY = 15;
+    private static final int END = 16;
+
+    private static final int KIND_OBJECT = 0;
+    private static final int KIND_STATICS = 1;
+    private static final int KIND_ARRAY = 2;
+    private static final int KIND_COLLECTION = 3;
+    private static final int KIND_MAP = 4;
+
+    private static final int VERSION = 1;
+
+    /**
+     * The positions of the types already defined, keyed by the plan for objects and statics or by the class for all other kinds.
+     */
+    private final Map<Object, Integer> types = new HashMap<>();
+
+    /**
+     * Creates a writer writing to the given channel.
+     *
+     * @param channel the channel to write to
+     */
+    BinaryStateWriter(final WritableByteChannel channel) {
+      super(channel);
+    }
+
+    @Override
+    void beginStream() throws IOException {
+      putAscii("PAST");
+      put(VERSION);
+    }
+
+    @Override
+    void beginTable() {
+      // the object table directly follows the root value
+    }
+
+    @Override
+    void endStream() throws IOException {
+      putVarint(0);
+    }
+
+    @Override
+    void beginObject(final int id, final StatePlan plan, final boolean statics) throws IOException {
+      if ( !beginType(plan)) return;
+
+      put(statics ? KIND_STATICS : KIND_OBJECT);
+      putString(plan.getType().getName());
+      putVarint(plan.size());
+      for (int i = 0; i < plan.size(); i++ ) {
+        putString(plan.getName(i));
+      }
+    }
+
+    @Override
+    void beginField(final String name) {
+      // fields are written in the order of the type definition
+    }
+
+    @Override
+    void endObject() {
+      // the number of fields is given by the type definition
+    }
+
+    @Override
+    void beginArray(final int id, final Class<?> type, final int length) throws IOException {
+      defineType(type, KIND_ARRAY);
+      putVarint(length);
+    }
+
+    @Override
+    void endArray() {
+      // the number of elements was written before the elements
+    }
+
+    @Override
+    void beginCollection(final int id, final Class<?> type) throws IOException {
+      defineType(type, KIND_COLLECTION);
+    }
+
+    @Override
+    void beginElement(final boolean first) {
+      // elements are written one after the other
+    }
+
+    @Override
+    void endCollection() throws IOException {
+      put(END);
+    }
+
+    @Override
+    void beginMap(final int id, final Class<?> type) throws IOException {
+      defineType(type, KIND_MAP);
+    }
+
+    @Override
+    void beginKey(final boolean first) {
+      // keys and values are written in turns
+    }
+
+    @Override
+    void beginMapValue() {
+      // keys and values are written in turns
+    }
+
+    @Override
+    void endMapEntry() {
+      // keys and values are written in turns
+    }
+
+    @Override
+    void endMap() throws IOException {
+      put(END);
+    }
+
+    @Override
+    void writeNull() throws IOException {
+      put(NULL);
+    }
+
+    @Override
+    void writeBoolean(final boolean value) throws IOException {
+      put(value ? TRUE : FALSE);
+    }
+
+    @Override
+    void writeByte(final byte value) throws IOException {
+      reserve(2).put((byte) BYTE).put(value);
+    }
+
+    @Override
+    void writeShort(final short value) throws IOException {
+      reserve(3).put((byte) SHORT).putShort(value);
+    }
+
+    @Override
+    void writeChar(final char value) throws IOException {
+      reserve(3).put((byte) CHAR).putChar(value);
+    }
+
+    @Override
+    void writeInt(final int value) throws IOException {
+      put(INT);
+      putVarint(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+    }
+
+    @Override
+    void writeLong(final long value) throws IOException {
+      put(LONG);
+      putVarint((value << 1) ^ (value >> 63));
+    }
+
+    @Override
+    void writeFloat(final float value) throws IOException {
+      reserve(5).put((byte) FLOAT).putFloat(value);
+    }
+
+    @Override
+    void writeDouble(final double value) throws IOException {
+      reserve(9).put((byte) DOUBLE).putDouble(value);
+    }
+
+    @Override
+    void writeString(final CharSequence value) throws IOException {
+      put(STRING);
+      putString(value);
+    }
+
+    @Override
+    void writeEnum(final Enum<?> value) throws IOException {
+      put(ENUM);
+      putString(value.getDeclaringClass().getName());
+      putString(value.name());
+    }
+
+    @Override
+    void writeClass(final Class<?> value) throws IOException {
+      put(CLASS);
+      putString(value.getName());
+    }
+
+    @Override
+    void writeText(final String value) throws IOException {
+      put(TEXT);
+      putString(value);
+    }
+
+    @Override
+    void writeReference(final int id) throws IOException {
+      put(REFERENCE);
+      putVarint(id);
+    }
+
+    @Override
+    void writePrimitiveArray(final Object array) throws IOException {
+      put(PRIMITIVE_ARRAY);
+      if (array instanceof int[]) {
+        int[] values = (int[]) array;
+        put(INT);
+        putVarint(values.length);
+        for (int value : values) {
+          putVarint(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+        }
+      } else if (array instanceof long[]) {
+        long[] values = (long[]) array;
+        put(LONG);
+        putVarint(values.length);
+        for (long value : values) {
+          putVarint((value << 1) ^ (value >> 63));
+        }
+      } else if (array instanceof double[]) {
+        double[] values = (double[]) array;
+        put(DOUBLE);
+        putVarint(values.length);
+        for (double value : values) {
+          reserve(8).putDouble(value);
+        }
+      } else if (array instanceof float[]) {
+        float[] values = (float[]) array;
+        put(FLOAT);
+        putVarint(values.length);
+        for (float value : values) {
+          reserve(4).putFloat(value);
+        }
+      } else if (array instanceof short[]) {
+        short[] values = (short[]) array;
+        put(SHORT);
+        putVarint(values.length);
+        for (short value : values) {
+          reserve(2).putShort(value);
+        }
+      } else if (array instanceof char[]) {
+        char[] values = (char[]) array;
+        put(CHAR);
+        putVarint(values.length);
+        for (char value : values) {
+          reserve(2).putChar(value);
+        }
+      } else if (array instanceof byte[]) {
+        byte[] values = (byte[]) array;
+        put(BYTE);
+        putVarint(values.length);
+        for (byte value : values) {
+          put(value);
+        }
+      } else {
+        boolean[] values = (boolean[]) array;
+        put(TRUE);
+        putVarint(values.length);
+        for (boolean value : values) {
+          put(value ? 1 : 0);
+        }
+      }
+    }
+
+    /**
+     * Writes the position of the given type in the type table and its definition if the type is new.
+     *
+     * @param type the class of the array, collection or map
+     * @param kind the kind of the type
+     * @throws IOException if the channel throws an IOException
+     */
+    private void defineType(final Class<?> type, final int kind) throws IOException {
+      if ( !beginType(type)) return;
+
+      put(kind);
+      putString(type.getName());
+    }
+
+    /**
+     * Writes the position of the given type in the type table (plus 1), adding the type if it is new.
+     *
+     * @param key the plan or the class of the type
+     * @return true if the type is new and must be defined
+     * @throws IOException if the channel throws an IOException
+     */
+    private boolean beginType(final Object key) throws IOException {
+      Integer position = types.get(key);
+      if (position != null) {
+        putVarint(position + 1L);
+        return false;
+      }
+
+      position = types.size();
+      types.put(key, position);
+      putVarint(position + 1L);
+      return true;
+    }
+
+    /**
+     * Puts the given value as unsigned varint (7 bits per byte, least significant first) into the buffer.
+     *
+     * @param value the value to put
+     * @throws IOException if the channel throws an IOException
+     */
+    private void putVarint(final long value) throws IOException {
+      ByteBuffer out = reserve(10);
+      long rest = value;
+      while ((rest & ~0x7FL) != 0) {
+        out.put((byte) ((rest & 0x7F) | 0x80));
+        rest >>>= 7;
+      }
+      out.put((byte) rest);
+    }
+
+    /**
+     * Puts the given string as its length in UTF-8 bytes followed by these bytes into the buffer.
+     *
+     * @param value the string to put
+     * @throws IOException if the channel throws an IOException
+     */
+    private void putString(final CharSequence value) throws IOException {
+      long length = 0;
+      for (int i = 0; i < value.length(); i += Character.charCount(Character.codePointAt(value, i))) {
+        length += utf8Length(Character.codePointAt(value, i));
+      }
+      putVarint(length);
+      for (int i = 0; i < value.length(); ) {
+        int codePoint = Character.codePointAt(value, i);
+        putUtf8(codePoint);
+        i += Character.charCount(codePoint);
+      }
+    }
+  }
+
+  /**
+   * Writes the {@link StateFormat#JSON JSON} format.
+   */
+  private static final class JsonStateWriter extends StateWriter {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * The characters of the floating point value written last. Appending a float or double to a string builder formats it in place,
+     * without creating a string.
+     */
+    private final StringBuilder decimal = new StringBuilder(32);
+
+    /**
+     * Creates a writer writing to the given channel.
+     *
+     * @param channel the channel to write to
+     */
+    JsonStateWriter(final WritableByteChannel channel) {
+      super(channel);
+    }
+
+    @Override
+    void beginStream() throws IOException {
+      putAscii("{\"root\":");
+    }
+
+    @Override
+    void beginTable() throws IOException {
+      putAscii(",\"objects\":[\n");
+    }
+
+    @Override
+    void endStream() throws IOException {
+      putAscii("]}\n");
+    }
+
+    @Override
+    void beginObject(final int id, final StatePlan plan, final boolean statics) throws IOException {
+      beginEntry(id, plan.getType());
+      if (statics) putAscii(",\"@static\":true");
+    }
+
+    @Override
+    void beginField(final String name) throws IOException {
+      put(',');
+      putString(name);
+      put(':');
+    }
+
+    @Override
+    void endObject() throws IOException {
+      endEntry();
+    }
+
+    @Override
+    void beginArray(final int id, final Class<?> type, final int length) throws IOException {
+      beginEntry(id, type);
+      putAscii(",\"@elements\":[");
+    }
+
+    @Override
+    void endArray() throws IOException {
+      put(']');
+      endEntry();
+    }
+
+    @Override
+    void beginCollection(final int id, final Class<?> type) throws IOException {
+      beginArray(id, type, 0);
+    }
+
+    @Override
+    void beginElement(final boolean first) throws IOException {
+      if ( !first) put(',');
+    }
+
+    @Override
+    void endCollection() throws IOException {
+      endArray();
+    }
+
+    @Override
+    void beginMap(final int id, final Class<?> type) throws IOException {
+      beginEntry(id, type);
+      putAscii(",\"@entries\":[");
+    }
+
+    @Override
+    void beginKey(final boolean first) throws IOException {
+      putAscii(first ? "[" : ",[");
+    }
+
+    @Override
+    void beginMapValue() throws IOException {
+      put(',');
+    }
+
+    @Override
+    void endMapEntry() throws IOException {
+      put(']');
+    }
+
+    @Override
+    void endMap() throws IOException {
+      put(']');
+      endEntry();
+    }
+
+    @Override
+    void writeNull() throws IOException {
+      putAscii("null");
+    }
+
+    @Override
+    void writeBoolean(final boolean value) throws IOException {
+      putAscii(value ? "true" : "false");
+    }
+
+    @Override
+    void writeByte(final byte value) throws IOException {
+      putDecimal(value);
+    }
+
+    @Override
+    void writeShort(final short value) throws IOException {
+      putDecimal(value);
+    }
+
+    @Override
+    void writeChar(final char value) throws IOException {
+      put('"');
+      putChar(value);
+      put('"');
+    }
+
+    @Override
+    void writeInt(final int value) throws IOException {
+      putDecimal(value);
+    }
+
+    @Override
+    void writeLong(final long value) throws IOException {
+      putDecimal(value);
+    }
+
+    @Override
+    void writeFloat(final float value) throws IOException {
+      decimal.setLength(0);
+      decimal.append(value);
+      if (Float.isFinite(value)) {
+        putAscii(decimal);
+      } else {
+        putString(decimal);
+      }
+    }
+
+    @Override
+    void writeDouble(final double value) throws IOException {
+      decimal.setLength(0);
+      decimal.append(value);
+      if (Double.isFinite(value)) {
+        putAscii(decimal);
+      } else {
+        putString(decimal);
+      }
+    }
+
+    @Override
+    void writeString(final CharSequence value) throws IOException {
+      putString(value);
+    }
+
+    @Override
+    void writeEnum(final Enum<?> value) throws IOException {
+      putString(value.name());
+    }
+
+    @Override
+    void writeClass(final Class<?> value) throws IOException {
+      putString(value.getName());
+    }
+
+    @Override
+    void writeText(final String value) throws IOException {
+      putString(value);
+    }
+
+    @Override
+    void writeReference(final int id) throws IOException {
+      putAscii("{\"@ref\":");
+      putDecimal(id);
+      put('}');
+    }
+
+    @Override
+    void writePrimitiveArray(final Object array) throws IOException {
+      put('[');
+      if (array instanceof int[]) {
+        int[] values = (int[]) array;
+        for (int i = 0; i < values.length; i++ ) {
+          if (i > 0) put(',');
+          putDecimal(values[i]);
+        }
+      } else if (array instanceof long[]) {
+        long[] values = (long[]) array;
+        for (int i = 0; i < values.length; i++ ) {
+          if (i > 0) put(',');
+          putDecimal(values[i]);
+        }
+      } else if (array instanceof double[]) {
+        double[] values = (double[]) array;
+        for (int i = 0; i < values.length; i++ ) {
+          if (i > 0) put(',');
+          writeDouble(values[i]);
+        }
+      } else if (array instanceof float[]) {
+        float[] values = (float[]) array;
+        for (int i = 0; i < values.length; i++ ) {
+          if (i > 0) put(',');
+          writeFloat(values[i]);
+        }
+      } else if (array instanceof short[]) {
+        short[] values = (short[]) array;
+        for (int i = 0; i < values.length; i++ ) {
+          if (i > 0) put(',');
+          putDecimal(values[i]);
+        }
+      } else if (array instanceof char[]) {
+        char[] values = (char[]) array;
+        for (int i = 0; i < values.length; i++ ) {
+          if (i > 0) put(',');
+          writeChar(values[i]);
+        }
+      } else if (array instanceof byte[]) {
+        byte[] values = (byte[]) array;
+        for (int i = 0; i < values.length; i++ ) {
+          if (i > 0) put(',');
+          putDecimal(values[i]);
+        }
+      } else {
+        boolean[] values = (boolean[]) array;
+        for (int i = 0; i < values.length; i++ ) {
+          if (i > 0) put(',');
+          writeBoolean(values[i]);
+        }
+      }
+      put(']');
+    }
+
+    /**
+     * Starts an entry of the object table with its position and type.
+     *
+     * @param id the position of the entry in the object table
+     * @param type the type of the entry
+     * @throws IOException if the channel throws an IOException
+     */
+    private void beginEntry(final int id, final Class<?> type) throws IOException {
+      if (id > 0) putAscii(",\n");
+      putAscii("{\"@id\":");
+      putDecimal(id);
+      putAscii(",\"@type\":");
+      putString(type.getName());
+    }
+
+    /**
+     * Ends an entry of the object table.
+     *
+     * @throws IOException if the channel throws an IOException
+     */
+    private void endEntry() throws IOException {
+      put('}');
+    }
+
+    /**
+     * Puts the given string as quoted and escaped JSON string into the buffer.
+     *
+     * @param value the string to put
+     * @throws IOException if the channel throws an IOException
+     */
+    private void putString(final CharSequence value) throws IOException {
+      put('"');
+      for (int i = 0; i < value.length(); ) {
+        int codePoint = Character.codePointAt(value, i);
+        if (codePoint < 0x80) {
+          putChar((char) codePoint);
+        } else {
+          putUtf8(codePoint);
+        }
+        i += Character.charCount(codePoint);
+      }
+      put('"');
+    }
+
+    /**
+     * Puts the given character escaped for a JSON string into the buffer.
+     *
+     * @param character the character to put
+     * @throws IOException if the channel throws an IOException
+     */
+    private void putChar(final char character) throws IOException {
+      if ((character == '"') || (character == '\\')) {
+        put('\\');
+        put(character);
+      } else if (character < 0x20) {
+        putAscii("\\u00");
+        put(HEX_DIGITS[character >> 4]);
+        put(HEX_DIGITS[character & 0xF]);
+      } else if (character < 0x80) {
+        put(character);
+      } else {
+        putUtf8(character);
+      }
+    }
+  }
+}
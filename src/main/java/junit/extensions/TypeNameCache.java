@@ -0,0 +1,137 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caches the classes a {@link TypeResolver} resolved per class loader and type name. Names the type resolver could not resolve are cached
+ * as well. The number of names cached per class loader is bounded to {@link LruMap#getMaximumSize()}, the least recently used names are
+ * evicted first.
+ * <p>
+ * Class loaders are referenced weakly and so are the cached classes (which are referenced by their class loader anyway), so the cache never
+ * keeps a class loader alive.
+ * </p>
+ *
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ */
+final class TypeNameCache {
+  /**
+   * Marks type names the type resolver could not resolve.
+   */
+  private static final Object NOT_FOUND = new Object();
+
+  /**
+   * Counts the caches created so far, i.e. the type resolvers set.
+   */
+  private static final AtomicInteger GENERATIONS = new AtomicInteger();
+
+  private final int generation = GENERATIONS.incrementAndGet();
+  private final TypeResolver typeResolver;
+  private final CacheCounters counters;
+  private final Map<ClassLoader, Map<String, Object>> typesPerClassLoader = new WeakHashMap<>();
+  private final Map<String, Object> bootstrapTypes;
+
+  /**
+   * Creates a cache for the types resolved by the given type resolver.
+   *
+   * @param typeResolver the type resolver to cache the resolved types of
+   * @param counters the counters to count hits, misses, evictions and load time with
+   */
+  TypeNameCache(final TypeResolver typeResolver, final CacheCounters counters) {
+    this.typeResolver = typeResolver;
+    this.counters = counters;
+    this.bootstrapTypes = new LruMap<>(counters);
+  }
+
+  /**
+   * Gets the generation of this cache. Each cache (and thus each type resolver set) has its own generation, so types resolved by an
+   * earlier type resolver can be told apart without referencing that type resolver.
+   *
+   * @return the generation of this cache
+   */
+  int getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Gets the type resolver whose results are cached.
+   *
+   * @return the type resolver
+   */
+  TypeResolver getTypeResolver() {
+    return typeResolver;
+  }
+
+  /**
+   * Resolves the class with the given name using the given class loader. Asks the type resolver only if the name was not resolved before.
+   *
+   * @param typeName the name of the class
+   * @param classLoader the class loader to resolve the class with (null for the bootstrap class loader)
+   * @return the class with the given name or null if no such class can be found
+   */
+  Class<?> resolve(final String typeName, final ClassLoader classLoader) {
+    Object cachedType;
+    synchronized (this) {
+      cachedType = getTypes(classLoader).get(typeName);
+    }
+    if (cachedType == NOT_FOUND) {
+      counters.hit();
+      return null;
+    }
+    if (cachedType != null) {
+      Class<?> type = (Class<?>) ((WeakReference<?>) cachedType).get();
+      if (type != null) {
+        counters.hit();
+        return type;
+      }
+    }
+
+    counters.miss();
+    long start = System.nanoTime();
+    Class<?> type = typeResolver.resolve(typeName, classLoader);
+    counters.loaded(System.nanoTime() - start);
+
+    synchronized (this) {
+      getTypes(classLoader).put(typeName, (type == null) ? NOT_FOUND : new WeakReference<Class<?>>(type));
+    }
+    return type;
+  }
+
+  /**
+   * Takes a snapshot of the statistics of this cache.
+   *
+   * @return the current statistics of this cache
+   */
+  synchronized CacheStatistics statistics() {
+    long size = bootstrapTypes.size();
+    for (Map<String, Object> types : typesPerClassLoader.values()) {
+      size += types.size();
+    }
+    return counters.snapshot(size);
+  }
+
+  /**
+   * Gets the types cached for the given class loader.
+   *
+   * @param classLoader the class loader (null for the bootstrap class loader)
+   * @return the types cached for the given class loader
+   */
+  private Map<String, Object> getTypes(final ClassLoader classLoader) {
+    if (classLoader == null) return bootstrapTypes;
+    return typesPerClassLoader.computeIfAbsent(classLoader, key -> new LruMap<>(counters));
+  }
+}
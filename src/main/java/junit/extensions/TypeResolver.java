@@ -0,0 +1,37 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package junit.extensions;
+
+/**
+ * Resolves the type names used in method signatures (e.g. "java.lang.String" or just "String" in "setName(String)") to classes. Primitives,
+ * arrays and varargs are handled by PA itself, so a type resolver only gets the names of (non-array) classes.
+ * <p>
+ * PA asks the resolver for the class loader of the class a method is invoked on first and for the context class loader of the current
+ * thread afterwards. Results (including unresolvable names) are cached per class loader, so a type resolver is asked at most once for a
+ * name and class loader.
+ * </p>
+ *
+ * @author Sebastian Dietrich (sebastian.dietrich@e-movimento.com)
+ * @see PA#setTypeResolver(TypeResolver)
+ */
+@FunctionalInterface
+public interface TypeResolver {
+  /**
+   * Resolves the class with the given name using the given class loader.
+   *
+   * @param typeName the name of the class as used in a method signature
+   * @param classLoader the class loader to resolve the class with (null for the bootstrap class loader)
+   * @return the class with the given name or null if no such class can be found
+   */
+  Class<?> resolve(String typeName, ClassLoader classLoader);
+}
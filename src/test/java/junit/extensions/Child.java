@@ -187,6 +187,18 @@ public class Child extends Parent {
       this.privateObjects = privateObjects;
    }
 
+   @SuppressWarnings("unused")
+   private void setPrivateArrays(String[] privateStrings, Object[] privateObjects) {
+      this.privateStrings = privateStrings;
+      this.privateObjects = privateObjects;
+   }
+
+   @SuppressWarnings("unused")
+   private void setPrivateArrays(Object[] privateObjects, String[] privateStrings) {
+      this.privateStrings = privateStrings;
+      this.privateObjects = privateObjects;
+   }
+
    @SuppressWarnings("unused")
    private void setPrivateObjectsAndObjects(Object[] privateObjects1, Object[] privateObjects2) {
       this.privateObjects = privateObjects1;
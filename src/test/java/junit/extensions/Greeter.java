@@ -0,0 +1,35 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package junit.extensions;
+
+/**
+ * Test interface with private and default methods to invoke via PrivilegedAccessor
+ */
+public interface Greeter {
+    String SALUTATION = "Hello";
+
+    default String greet(String name) {
+        return salutation() + " " + name;
+    }
+
+    private String salutation() {
+        return SALUTATION;
+    }
+
+    static Greeter create() {
+        return new Greeter() {};
+    }
+}
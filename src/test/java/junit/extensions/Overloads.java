@@ -0,0 +1,65 @@
+/*
+ * Copyright Sebastian Dietrich (Sebastian.Dietrich@e-movimento.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package junit.extensions;
+
+/**
+ * Test class with private overloaded constructors and methods to choose from via PrivilegedAccessor. Each of them records which overload
+ * was chosen.
+ */
+@SuppressWarnings("unused")
+public class Overloads {
+   private String chosen;
+
+   private Overloads(int number) {
+      this.chosen = "int";
+   }
+
+   private Overloads(Integer number) {
+      this.chosen = "Integer";
+   }
+
+   private Overloads(long number, Integer otherNumber) {
+      this.chosen = "long, Integer";
+   }
+
+   private Overloads(Integer number, long otherNumber) {
+      this.chosen = "Integer, long";
+   }
+
+   private String pick(int number) {
+      return "int";
+   }
+
+   private String pick(Integer number) {
+      return "Integer";
+   }
+
+   private String choose(int number) {
+      return "int";
+   }
+
+   private String choose(Object object) {
+      return "Object";
+   }
+
+   private String mix(long number, Integer otherNumber) {
+      return "long, Integer";
+   }
+
+   private String mix(Integer number, long otherNumber) {
+      return "Integer, long";
+   }
+}
@@ -12,25 +12,45 @@
  */
 package junit.extensions;
 
+import java.io.ByteArrayOutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.channels.Channels;
 import java.security.InvalidParameterException;
 import java.security.cert.CertificateException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  * Tests for the class <code>PA</code>.
@@ -92,6 +112,33 @@ public class PATest {
         assertEquals(this.childInParent, PA.instantiate(Child.class, new Class[] {String.class, Integer.class}, "Charlie", 8));
     }
 
+    /**
+     * Tests that constructors are resolved only once per class and argument types.
+     *
+     * @see junit.extensions.PA#instantiate(Class, Object...)
+     * @see junit.extensions.PA#instantiate(Class, Class[], Object...)
+     */
+    @Test
+    public void testInstantiateIsCached() {
+        PA.instantiate(Child.class, "Charlie", 8);
+        long hits = cacheStatistics("constructors").getHits();
+        long misses = cacheStatistics("constructors").getMisses();
+
+        assertEquals(this.child, PA.instantiate(Child.class, "Charlie", 8));
+        assertEquals(hits + 1, cacheStatistics("constructors").getHits());
+        assertEquals(misses, cacheStatistics("constructors").getMisses());
+
+        Class<?>[] argumentTypes = new Class[] {String.class, Integer.TYPE};
+        PA.instantiate(Child.class, argumentTypes, "Charlie", 8);
+        hits = cacheStatistics("constructors").getHits();
+        misses = cacheStatistics("constructors").getMisses();
+
+        argumentTypes[1] = String.class;
+        assertEquals(this.child, PA.instantiate(Child.class, new Class[] {String.class, Integer.TYPE}, "Charlie", 8));
+        assertEquals(hits + 1, cacheStatistics("constructors").getHits());
+        assertEquals(misses, cacheStatistics("constructors").getMisses());
+    }
+
     @Test
     public void testAutoboxingInConstructor() {
         child = PA.instantiate(Child.class, new Class[] {Integer.TYPE, Float.TYPE}, 3, 5f);
@@ -111,6 +158,50 @@ public class PATest {
         assertEquals("Sebastian", PA.getValue(child, "privateName"));
     }
 
+    /**
+     * Tests the method <code>instantiate</code> with null arguments.
+     *
+     * @see junit.extensions.PA#instantiate(Class, Object...)
+     */
+    @Test
+    public void testInstantiateWithNullArguments() {
+        Parent parentWithoutObject = PA.instantiate(Parent.class, "Charlie", null);
+        assertEquals("Charlie", PA.getValue(parentWithoutObject, "privateName"));
+        assertNull(PA.getValue(parentWithoutObject, "privateObject"));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.instantiate(Child.class, null, 1f);
+        });
+    }
+
+    /**
+     * Tests the method <code>instantiate</code> with arguments that need a widening primitive conversion.
+     *
+     * @see junit.extensions.PA#instantiate(Class, Object...)
+     * @see junit.extensions.PA#instantiate(Class, Class[], Object...)
+     */
+    @Test
+    public void testWideningInConstructor() {
+        child = PA.instantiate(Child.class, 1, 2);
+        assertEquals(1, PA.getValue(child, "privateInt"));
+        assertEquals(2f, PA.getValue(child, "privateFloat"));
+
+        child = PA.instantiate(Child.class, (short) 3, 'a');
+        assertEquals(3, PA.getValue(child, "privateInt"));
+        assertEquals((float) 'a', PA.getValue(child, "privateFloat"));
+
+        child = PA.instantiate(Child.class, new Class[] {Byte.TYPE, Long.TYPE}, (byte) 5, 6L);
+        assertEquals(5, PA.getValue(child, "privateInt"));
+        assertEquals(6f, PA.getValue(child, "privateFloat"));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.instantiate(Child.class, 1L, 2f);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.instantiate(Child.class, 1, 2d);
+        });
+    }
+
     /**
      * Tests the method <code>instantiate</code> with arrays. See https://code.google.com/p/privilegedaccessor/issues/detail?id=17
      * 
@@ -235,6 +326,37 @@ public class PATest {
         }
     }
 
+    /**
+     * Tests the method <code>instantiator</code>.
+     *
+     * @see junit.extensions.PA#instantiator(Class, Class...)
+     */
+    @Test
+    public void testInstantiator() {
+        Instantiator<Child> nameAndNumber = PA.instantiator(Child.class, String.class, Integer.class);
+        Child child = nameAndNumber.newInstance("Charlie", 8);
+        assertEquals("Charlie", PA.getValue(child, "privateName"));
+        assertEquals(8, PA.getValue(child, "privateInt"));
+
+        child = nameAndNumber.<String, Integer> asBiFunction().apply("Hubert", 3);
+        assertEquals("Hubert", PA.getValue(child, "privateName"));
+
+        Child namedChild = PA.instantiator(Child.class, String.class).<String> asFunction().apply("Marcus");
+        assertEquals("Marcus", PA.getValue(namedChild, "privateName"));
+
+        assertEquals(Parent.class, PA.instantiator(Parent.class).asSupplier().get().getClass());
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.instantiator(Child.class, Integer.class);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            nameAndNumber.asFunction();
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            nameAndNumber.newInstance("Charlie", "8");
+        });
+    }
+
     /**
      * Tests Autoboxing
      *
@@ -255,6 +377,50 @@ public class PATest {
         }
     }
 
+    /**
+     * Tests the conversion of array arguments to the array type of the parameter.
+     *
+     * @see junit.extensions.PA#invokeMethod(Object, String, Object...)
+     */
+    @Test
+    public void testInvokeMethodWithConvertedArrays() {
+        PA.invokeMethod(this.child, "setPrivateInts(int[])", (Object) new Object[] {1, 2});
+        assertTrue(Arrays.equals(new int[] {1, 2}, (int[]) PA.getValue(this.child, "privateInts")));
+
+        PA.invokeMethod(this.child, "setPrivateInts(int[])", (Object) new short[] {3, 4});
+        assertTrue(Arrays.equals(new int[] {3, 4}, (int[]) PA.getValue(this.child, "privateInts")));
+
+        PA.invokeMethod(this.child, "setPrivateInts(int[])", (Object) new char[] {'a'});
+        assertTrue(Arrays.equals(new int[] {'a'}, (int[]) PA.getValue(this.child, "privateInts")));
+
+        PA.invokeMethod(this.child, "setPrivateStrings(java.lang.String[])", (Object) new Object[] {"Hello", null});
+        assertTrue(Arrays.equals(new String[] {"Hello", null}, (String[]) PA.getValue(this.child, "privateStrings")));
+
+        PA.invokeMethod(this.child, "setPrivateObjects(java.lang.Object[])", (Object) new int[] {5});
+        assertTrue(Arrays.equals(new Object[] {5}, (Object[]) PA.getValue(this.child, "privateObjects")));
+
+        Map<?, ?> conversions = (Map<?, ?>) ((Map<?, ?>) PA.getValue(ArrayConverter.class, "CONVERSIONS")).get(Object[].class);
+        Object referenceConversion = conversions.get(String[].class);
+        Object reflectiveConversion = conversions.get(int[].class);
+        assertNotNull(referenceConversion);
+        assertNotNull(reflectiveConversion);
+        PA.invokeMethod(this.child, "setPrivateStrings(java.lang.String[])", (Object) new Object[] {"World"});
+        PA.invokeMethod(this.child, "setPrivateInts(int[])", (Object) new Object[] {6});
+        assertSame(referenceConversion, conversions.get(String[].class));
+        assertSame(reflectiveConversion, conversions.get(int[].class));
+        assertTrue(Arrays.equals(new int[] {6}, (int[]) PA.getValue(this.child, "privateInts")));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.invokeMethod(this.child, "setPrivateStrings(java.lang.String[])", (Object) new Object[] {"Hello", 1});
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.invokeMethod(this.child, "setPrivateInts(int[])", (Object) new Integer[] {1, null});
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.invokeMethod(this.child, "setPrivateInts(int[])", (Object) new long[] {1});
+        });
+    }
+
     /**
      * Tests the method <code>setValue</code> with a static final field.
      *
@@ -392,6 +558,246 @@ public class PATest {
         assertEquals(1.175, PA.getValue(this.child, "privateDouble"));
     }
 
+    /**
+     * Tests the methods <code>getValues</code> and <code>setValues</code>.
+     *
+     * @see junit.extensions.PA#getValues(Object, String...)
+     * @see junit.extensions.PA#setValues(Object, Map)
+     */
+    @Test
+    public void testSetGetValues() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("privateInt", 17);
+        values.put("privateName", "Hugo");
+        values.put("privateStrings", new String[] {"Hello"});
+        PA.setValues(this.child, values);
+
+        assertEquals(17, PA.getValue(this.child, "privateInt"));
+        assertEquals("Hugo", PA.getValue(this.child, "privateName"));
+
+        Map<String, Object> readValues = PA.getValues(this.child, "privateName", "privateInt");
+        assertEquals(Arrays.asList("privateName", "privateInt"), new ArrayList<>(readValues.keySet()));
+        assertEquals("Hugo", readValues.get("privateName"));
+        assertEquals(17, readValues.get("privateInt"));
+        assertTrue(PA.getValues(this.child).isEmpty());
+
+        values.put("noSuchField", 1);
+        values.put("otherMissingField", 2);
+        values.put("privateInt", 18);
+        try {
+            PA.setValues(this.child, values);
+            fail("setting missing fields should throw Exception");
+        } catch (IllegalArgumentException e) {
+            assertEquals(NoSuchFieldException.class, e.getCause().getClass());
+            assertEquals("[noSuchField, otherMissingField]", e.getCause().getMessage());
+        }
+        assertEquals(17, PA.getValue(this.child, "privateInt"));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.getValues(this.child, "privateInt", null);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.getValues(null, "privateInt");
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.setValues(this.child, Collections.singletonMap("privateInt", "17"));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.setValues(this.child, null);
+        });
+    }
+
+    /**
+     * Tests that <code>setValues</code> doesn't set any value if one of the values can't be set.
+     *
+     * @see junit.extensions.PA#setValues(Object, Map)
+     */
+    @Test
+    public void testSetValuesFailsWithoutSettingAnyValue() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("privateName", "Hugo");
+        values.put("privateLong", 18);
+        values.put("privateInt", 18L);
+        values.put("privateDouble", null);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> {
+            PA.setValues(this.child, values);
+        });
+        assertTrue(e.getMessage().contains("[privateInt=18, privateDouble=null]"));
+        assertEquals("Charlie", PA.getValue(this.child, "privateName"));
+        assertEquals(8, PA.getValue(this.child, "privateInt"));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.setValues(Child.class, Collections.singletonMap("privateName", "Hugo"));
+        });
+
+        values.remove("privateInt");
+        values.remove("privateDouble");
+        PA.setValues(this.child, values);
+        assertEquals("Hugo", PA.getValue(this.child, "privateName"));
+        assertEquals(18L, PA.getValue(this.child, "privateLong"));
+    }
+
+    /**
+     * Tests the primitive typed methods <code>getInt</code>, <code>setInt</code> and so on.
+     *
+     * @see junit.extensions.PA#getInt(Object, String)
+     * @see junit.extensions.PA#setInt(Object, String, int)
+     */
+    @Test
+    public void testSetGetPrimitiveValues() {
+        PA.setInt(this.child, "privateInt", 6);
+        assertEquals(6, PA.getInt(this.child, "privateInt"));
+        assertEquals(6L, PA.getLong(this.child, "privateInt"));
+        assertEquals(6.0, PA.getDouble(this.child, "privateInt"));
+
+        PA.setBoolean(this.child, "privateBoolean", true);
+        assertTrue(PA.getBoolean(this.child, "privateBoolean"));
+        PA.setByte(this.child, "privateByte", (byte) 2);
+        assertEquals((byte) 2, PA.getByte(this.child, "privateByte"));
+        PA.setChar(this.child, "privateChar", 'F');
+        assertEquals('F', PA.getChar(this.child, "privateChar"));
+        PA.setShort(this.child, "privateShort", (short) 6);
+        assertEquals((short) 6, PA.getShort(this.child, "privateShort"));
+        PA.setLong(this.child, "privateLong", 8L);
+        assertEquals(8L, PA.getLong(this.child, "privateLong"));
+        PA.setFloat(this.child, "privateFloat", 1.5f);
+        assertEquals(1.5f, PA.getFloat(this.child, "privateFloat"));
+        PA.setDouble(this.child, "privateDouble", 1.175);
+        assertEquals(1.175, PA.getDouble(this.child, "privateDouble"));
+        PA.setLong(this.child, "privateDouble", 3L);
+        assertEquals(3.0, PA.getDouble(this.child, "privateDouble"));
+
+        PA.setInt(Parent.class, "privateStaticInt", 5);
+        assertEquals(5, PA.getInt(Parent.class, "privateStaticInt"));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.getInt(this.child, "privateLong");
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.setInt(this.child, "privateShort", 3);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.getInt(this.child, "privateName");
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.setInt(this.child, "noSuchField", 3);
+        });
+        assertEquals("privateLong of type long can't be read as int", assertThrows(IllegalArgumentException.class, () -> {
+            PA.getInt(this.child, "privateLong");
+        }).getCause().getMessage());
+        assertEquals("privateShort of type short can't be written as int", assertThrows(IllegalArgumentException.class, () -> {
+            PA.setInt(this.child, "privateShort", 3);
+        }).getCause().getMessage());
+        assertEquals("privateDouble of type double can't be written as boolean", assertThrows(IllegalArgumentException.class, () -> {
+            PA.setBoolean(this.child, "privateDouble", true);
+        }).getCause().getMessage());
+        assertEquals(3.0, PA.getDouble(this.child, "privateDouble"));
+    }
+
+    /**
+     * Tests the primitive typed methods <code>getInt</code>, <code>setInt</code> and so on with array elements.
+     *
+     * @see junit.extensions.PA#getInt(Object, String, int)
+     * @see junit.extensions.PA#setInt(Object, String, int, int)
+     */
+    @Test
+    public void testSetGetPrimitiveArrayElements() {
+        PA.setValue(this.child, "privateInts", new int[] {1, 2, 3});
+        PA.setInt(this.child, "privateInts", 1, 42);
+        assertEquals(42, PA.getInt(this.child, "privateInts", 1));
+        assertEquals(3L, PA.getLong(this.child, "privateInts", 2));
+
+        FieldAccessor<Child, int[]> privateInts = PA.field(Child.class, "privateInts");
+        privateInts.setInt(this.child, 0, 7);
+        assertEquals(7, privateInts.getInt(this.child, 0));
+        assertEquals(7, ((int[]) PA.getValue(this.child, "privateInts"))[0]);
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.getInt(this.child, "privateInts", 3);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.setLong(this.child, "privateInts", 0, 3L);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.getInt(this.child, "privateInt", 0);
+        });
+        assertEquals("privateInts[] of type int can't be written as long", assertThrows(IllegalArgumentException.class, () -> {
+            PA.setLong(this.child, "privateInts", 0, 3L);
+        }).getCause().getMessage());
+        assertEquals("Field privateInt of type int is no array", assertThrows(IllegalArgumentException.class, () -> {
+            PA.getInt(this.child, "privateInt", 0);
+        }).getCause().getMessage());
+        assertEquals("privateObjects[] of type java.lang.Object can't be read as int", assertThrows(IllegalArgumentException.class, () -> {
+            PA.getInt(this.child, "privateObjects", 0);
+        }).getCause().getMessage());
+    }
+
+    /**
+     * Tests the method <code>field</code>.
+     *
+     * @see junit.extensions.PA#field(Class, String)
+     */
+    @Test
+    public void testField() {
+        FieldAccessor<Child, Integer> privateInt = PA.field(Child.class, "privateInt");
+        assertEquals("privateInt", privateInt.getName());
+        assertEquals(int.class, privateInt.getType());
+
+        privateInt.set(this.child, 9);
+        assertEquals(9, privateInt.get(this.child));
+        assertEquals(9, PA.getValue(this.child, "privateInt"));
+
+        FieldAccessor<Child, String> privateName = PA.field(Child.class, "privateName");
+        privateName.set(this.child, "Hubert");
+        assertEquals("Hubert", privateName.get(this.child));
+
+        privateInt.setInt(this.child, 10);
+        assertEquals(10, privateInt.getInt(this.child));
+        assertEquals(10L, privateInt.getLong(this.child));
+
+        FieldAccessor<Parent, Integer> privateStaticInt = PA.field(Parent.class, "privateStaticInt");
+        privateStaticInt.setStatic(7);
+        assertEquals(7, privateStaticInt.getStatic());
+        assertEquals(7, PA.getValue(Parent.class, "privateStaticInt"));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.field(Child.class, "noSuchField");
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            privateInt.set(this.child, null);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            privateInt.get(null);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            privateInt.getStatic();
+        });
+    }
+
+    /**
+     * Tests the method <code>setValue</code> with values that need a widening primitive conversion.
+     *
+     * @see junit.extensions.PA#setValue(java.lang.Object, java.lang.String, java.lang.Object)
+     */
+    @Test
+    public void testSetValueWithWideningConversion() {
+        PA.setValue(this.child, "privateLong", 8);
+        assertEquals(8L, PA.getValue(this.child, "privateLong"));
+
+        PA.setValue(Parent.class, "privateStaticInt", (byte) 4);
+        assertEquals(4, PA.getValue(Parent.class, "privateStaticInt"));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.setValue(this.child, "privateInt", 8L);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.setValue(this.child, "privateInt", null);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.setValue(Child.class, "privateInt", 8);
+        });
+    }
+
     /**
      * Tests the method <code>setValue</code>.
      * 
@@ -551,6 +957,23 @@ public class PATest {
         assertEquals(1, PA.getValue(Parent.class, "privateStaticInt"));
     }
 
+    /**
+     * Tests that fields are resolved only once per class and field name.
+     *
+     * @see junit.extensions.PA#getValue(java.lang.Object, java.lang.String)
+     */
+    @Test
+    public void testGetFieldIsCached() {
+        Object field = PA.invokeMethod(PA.class, "getField(Object, String)", this.child, "privateName");
+        assertSame(field, PA.invokeMethod(PA.class, "getField(Object, String)", this.childInParent, "privateName"));
+        assertSame(field, PA.invokeMethod(PA.class, "getField(Object, String)", Child.class, "privateName"));
+        assertNotSame(field, PA.invokeMethod(PA.class, "getField(Object, String)", this.parent, "privateName"));
+
+        PA.setValue(this.child, "privateName", "Hubert");
+        assertEquals("Hubert", PA.getValue(this.child, "privateName"));
+        assertEquals("Charlie", PA.getValue(this.parent, "privateName"));
+    }
+
     @Test
     public final void testMethodChaining() {
         PA.setValue(this.child, "privateInt", 6).setValue("privateLong", 8L);
@@ -575,6 +998,144 @@ public class PATest {
         assertTrue(toStringEquals(this.childInParent.toString(), PA.toString(this.childInParent)));
     }
 
+    /**
+     * Tests the method <code>dump</code>.
+     *
+     * @see junit.extensions.PA#dump(java.lang.Object, java.lang.Appendable, int, int)
+     */
+    @Test
+    public void testDump() {
+        String parentState = "junit.extensions.Parent {privateFinalInt=2, privateFinalString=Tom, privateName=Charlie, "
+            + "privateObject=Brown}";
+        assertEquals(parentState, PA.dump(this.parent, new StringBuilder()).toString());
+        assertEquals("null", PA.dump(null, new StringBuilder()).toString());
+        assertEquals("java.lang.Object", PA.dump(new Object(), new StringBuilder()).toString());
+        assertTrue(PA.dump(Parent.class, new StringBuilder()).toString()
+            .startsWith("junit.extensions.Parent {privateStaticFinalInt=3, privateStaticFinalString=Tester, privateStaticInt="));
+
+        PA.setValue(this.child, "privateInts", new int[] {1, 2});
+        PA.setValue(this.child, "privateChar", 'c');
+        PA.setValue(this.child, "privateCollection", Arrays.asList("a", "b"));
+        String childState = PA.dump(this.child, new StringBuilder()).toString();
+        assertTrue(childState.startsWith("junit.extensions.Child {privateInt=8, "));
+        assertTrue(childState.contains(", privateChar=c, "));
+        assertTrue(childState.contains(", privateInts=[1, 2], privateStrings=null, "));
+        assertTrue(childState.contains(", privateCollection=[a, b], privateFinalInt=2, "));
+
+        Object[] cycle = new Object[2];
+        cycle[0] = this.parent;
+        cycle[1] = cycle;
+        String cycleState = PA.dump(cycle, new StringBuilder()).toString();
+        assertEquals("[" + parentState + ", [Ljava.lang.Object;@" + Integer.toHexString(System.identityHashCode(cycle)) + "]", cycleState);
+
+        PA.setValue(this.parent, "privateObject", new Parent("Bob"));
+        assertEquals("junit.extensions.Parent {privateFinalInt=2, privateFinalString=Tom, privateName=Charlie, privateObject="
+            + "junit.extensions.Parent {...}}", PA.dump(this.parent, new StringBuilder(), 0, 1000).toString());
+        assertEquals("junit.extensions.Parent {priv...", PA.dump(this.parent, new StringBuilder(), 10, 29).toString());
+
+        Object[] nested = {new Object[] {new Object[] {new Object[] {1}}}};
+        assertEquals("[[...]]", PA.dump(nested, new StringBuilder(), 0, 1000).toString());
+        assertEquals("[[[[1]]]]", PA.dump(nested, new StringBuilder(), 3, 1000).toString());
+        assertEquals("[[{...}], [1]]",
+            PA.dump(new Object[] {new Object[] {Collections.singletonMap(1, 2)}, Arrays.asList(1)}, new StringBuilder(), 1, 1000)
+                .toString());
+        Parent dora = new Parent("Dora");
+        assertEquals("[[junit.extensions.Parent {...}], junit.extensions.Parent {privateFinalInt=2, privateFinalString=Tom, "
+            + "privateName=Dora, privateObject=Brown}]",
+            PA.dump(new Object[] {new Object[] {dora}, dora}, new StringBuilder(), 1, 1000).toString());
+
+        Object[] chain = new Object[1];
+        for (int i = 0; i < 100000; i++ ) {
+            chain = new Object[] {chain};
+        }
+        assertEquals("[[[[[...]]]]]", PA.dump(chain, new StringBuilder(), 3, 10000000).toString());
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.dump(this.parent, null);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.dump(this.parent, new StringBuilder(), -1, 1000);
+        });
+    }
+
+    /**
+     * Tests the method <code>writeState</code>.
+     *
+     * @see junit.extensions.PA#writeState(java.lang.Object, java.io.OutputStream, junit.extensions.StateFormat)
+     * @see junit.extensions.PA#writeState(java.lang.Object, java.nio.channels.WritableByteChannel, junit.extensions.StateFormat)
+     */
+    @Test
+    public void testWriteState() throws Exception {
+        String parentState = "\"@type\":\"junit.extensions.Parent\",\"privateFinalInt\":2,\"privateFinalString\":\"Tom\","
+            + "\"privateName\":\"Charlie\",\"privateObject\":\"Brown\"}";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PA.writeState(this.parent, out, StateFormat.JSON);
+        assertEquals("{\"root\":{\"@ref\":0},\"objects\":[\n{\"@id\":0," + parentState + "]}\n", out.toString("UTF-8"));
+
+        Object[] cycle = {this.parent, null, new int[] {1, -2}, Collections.singletonMap("k\u00e4y", 'c')};
+        cycle[1] = cycle;
+        out.reset();
+        PA.writeState(cycle, Channels.newChannel(out), StateFormat.JSON);
+        assertEquals("{\"root\":{\"@ref\":0},\"objects\":[\n"
+            + "{\"@id\":0,\"@type\":\"[Ljava.lang.Object;\",\"@elements\":[{\"@ref\":1},{\"@ref\":0},[1,-2],{\"@ref\":2}]},\n"
+            + "{\"@id\":1," + parentState + ",\n"
+            + "{\"@id\":2,\"@type\":\"java.util.Collections$SingletonMap\",\"@entries\":[[\"k\u00e4y\",\"c\"]]}]}\n",
+            out.toString("UTF-8"));
+
+        out.reset();
+        PA.writeState(Parent.class, out, StateFormat.JSON);
+        assertTrue(out.toString("UTF-8").contains("\"@static\":true,\"privateStaticFinalInt\":3,\"privateStaticFinalString\":\"Tester\","));
+
+        out.reset();
+        PA.writeState(new Object[] {this.parent, this.parent}, out, StateFormat.BINARY);
+        byte[] state = out.toByteArray();
+        assertEquals("PAST", new String(state, 0, 4, "US-ASCII"));
+        assertEquals(1, state[4]);
+        assertEquals(0, state[state.length - 1]);
+        String binaryState = new String(state, "UTF-8");
+        assertEquals(binaryState.indexOf("privateFinalString"), binaryState.lastIndexOf("privateFinalString"));
+        assertEquals(binaryState.indexOf("Charlie"), binaryState.lastIndexOf("Charlie"));
+
+        Overloads overloads = PA.instantiate(Overloads.class, 1);
+        out.reset();
+        PA.writeState(new Object[] {overloads, 1, -1L, 'c', null, true, 2.5, overloads}, out, StateFormat.BINARY);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write("PAST".getBytes("US-ASCII"));
+        expected.write(new byte[] {1, 14, 0}); // version, root value: reference to 0
+        expected.write(new byte[] {1, 2, 19}); // object 0: new type 0 (an array), name of 19 bytes
+        expected.write("[Ljava.lang.Object;".getBytes("US-ASCII"));
+        expected.write(new byte[] {8, 14, 1, 6, 2, 7, 1, 5, 0, 'c', 0, 2, 9, 0x40, 4, 0, 0, 0, 0, 0, 0, 14, 1}); // length and elements
+        expected.write(new byte[] {2, 0, 26}); // object 1: new type 1 (an object), name of 26 bytes
+        expected.write("junit.extensions.Overloads".getBytes("US-ASCII"));
+        expected.write(new byte[] {1, 6}); // 1 field, name of 6 bytes
+        expected.write("chosen".getBytes("US-ASCII"));
+        expected.write(new byte[] {10, 7}); // string of 7 bytes
+        expected.write("Integer".getBytes("US-ASCII"));
+        expected.write(0); // end of object table
+        assertArrayEquals(expected.toByteArray(), out.toByteArray());
+
+        out.reset();
+        PA.writeState(new double[] {1.5, -0.0, Double.NaN, 1e300}, out, StateFormat.JSON);
+        assertEquals("{\"root\":[1.5,-0.0,\"NaN\",1.0E300],\"objects\":[\n]}\n", out.toString("UTF-8"));
+
+        Object[] chain = new Object[1];
+        for (int i = 0; i < 100000; i++ ) {
+            chain = new Object[] {chain};
+        }
+        for (StateFormat format : StateFormat.values()) {
+            out.reset();
+            PA.writeState(chain, out, format);
+            assertTrue(out.size() > 100000);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.writeState(this.parent, (ByteArrayOutputStream) null, StateFormat.JSON);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.writeState(this.parent, new ByteArrayOutputStream(), null);
+        });
+    }
+
     private boolean toStringEquals(String toString1, String toString2) {
         if (toString1.equals(toString2)) return true;
 
@@ -594,6 +1155,124 @@ public class PATest {
         return attributes1.containsAll(attributes2);
     }
 
+    /**
+     * Tests that the methods <code>getFieldNames</code> and <code>getMethodSignatures</code> return new, modifiable sets in lookup order.
+     *
+     * @see junit.extensions.PA#getFieldNames(java.lang.Object)
+     * @see junit.extensions.PA#getMethodSignatures(java.lang.Object)
+     */
+    @Test
+    public void testFieldNamesAndMethodSignaturesAreOrderedAndModifiable() {
+        Collection<String> fieldNames = PA.getFieldNames(this.child);
+        assertNotSame(fieldNames, PA.getFieldNames(Child.class));
+        assertEquals("privateInt", fieldNames.iterator().next());
+        assertEquals(Arrays.asList("privateStaticFinalInt", "privateStaticFinalString", "privateStaticInt"),
+            new ArrayList<>(PA.getFieldNames(this.parent)).subList(0, 3));
+        fieldNames.add("noSuchField");
+        assertFalse(PA.getFieldNames(this.child).contains("noSuchField"));
+        assertFalse(PA.getFieldNames(Greeter.create()).contains("SALUTATION"));
+        assertEquals(1, PA.getFieldNames(Shadow.class).stream().filter("privateName"::equals).count());
+
+        Collection<String> methodSignatures = PA.getMethodSignatures(this.child);
+        methodSignatures.clear();
+        assertFalse(PA.getMethodSignatures(this.child).isEmpty());
+    }
+
+    /**
+     * Tests that the methods <code>getFieldNameList</code> and <code>getMethodSignatureList</code> compute their ordered, immutable lists
+     * only once per class, keeping the declaring classes as well as shadowed fields and overridden methods.
+     *
+     * @see junit.extensions.PA#getFieldNameList(java.lang.Object)
+     * @see junit.extensions.PA#getMethodSignatureList(java.lang.Object)
+     */
+    @Test
+    public void testFieldNameAndMethodSignatureListsAreCached() {
+        List<MemberName> fieldNames = PA.getFieldNameList(new Shadow());
+        assertSame(fieldNames, PA.getFieldNameList(Shadow.class));
+        assertEquals("privateName", fieldNames.get(0).getName());
+        assertEquals(Shadow.class, fieldNames.get(0).getDeclaringClass());
+        assertEquals(Arrays.asList(Shadow.class, Parent.class), fieldNames.stream().filter(name -> "privateName".equals(name.getName()))
+            .map(MemberName::getDeclaringClass).collect(Collectors.toList()));
+        assertEquals("junit.extensions.Shadow#privateName", fieldNames.get(0).toString());
+        assertThrows(UnsupportedOperationException.class, () -> {
+            fieldNames.clear();
+        });
+        assertTrue(PA.getFieldNameList(Greeter.create()).stream()
+            .anyMatch(name -> "SALUTATION".equals(name.getName()) && (name.getDeclaringClass() == Greeter.class)));
+        assertTrue(PA.getFieldNameList(null).isEmpty());
+
+        List<MemberName> methodSignatures = PA.getMethodSignatureList(this.child);
+        assertSame(methodSignatures, PA.getMethodSignatureList(Child.class));
+        for (MemberName methodSignature : methodSignatures) {
+            assertSame(methodSignature.getName().intern(), methodSignature.getName());
+            assertSame(methodSignature.getName(), methodSignature.getName());
+        }
+        assertEquals(Arrays.asList(Child.class, Parent.class, Object.class), methodSignatures.stream()
+            .filter(name -> "java.lang.String toString()".equals(name.getName())).map(MemberName::getDeclaringClass)
+            .collect(Collectors.toList()));
+        assertEquals(new ArrayList<>(PA.getMethodSignatures(this.child)),
+            methodSignatures.stream().map(MemberName::getName).distinct().collect(Collectors.toList()));
+    }
+
+    /**
+     * Tests the methods <code>fields</code> and <code>methods</code>.
+     *
+     * @see junit.extensions.PA#fields(java.lang.Object)
+     * @see junit.extensions.PA#methods(java.lang.Object)
+     */
+    @Test
+    public void testQueryMembers() {
+        assertEquals(PA.getFieldNames(this.child), PA.fields(this.child).stream().map(Field::getName).collect(Collectors.toSet()));
+        assertEquals(Arrays.asList("privateInt"), names(PA.fields(Child.class).named("privateInt")));
+        assertEquals(Arrays.asList("privateStaticFinalInt", "privateStaticFinalString", "privateStaticInt"),
+            names(PA.fields(this.parent).prefixed("privateStatic")));
+        assertEquals(Arrays.asList("privateStaticFinalInt", "privateStaticFinalString", "privateFinalInt", "privateFinalString"),
+            names(PA.fields(this.parent).matching("private*Final*")));
+        assertEquals(Arrays.asList("privateStaticFinalString", "privateFinalString", "privateName"),
+            names(PA.fields(this.parent).ofType(String.class)));
+        assertEquals(Arrays.asList("privateStaticFinalInt", "privateStaticFinalString"),
+            names(PA.fields(this.parent).withModifiers(Modifier.STATIC | Modifier.FINAL)));
+        assertEquals(Arrays.asList("privateFinalInt", "privateFinalString"),
+            names(PA.fields(this.parent).withModifiers(Modifier.FINAL).withoutModifiers(Modifier.STATIC)));
+        assertEquals(0, PA.fields(this.parent).named("noSuchField").count());
+        assertEquals(0, PA.fields(this.parent).withModifiers(Modifier.TRANSIENT).count());
+
+        assertEquals(Arrays.asList("getInt", "setInt"), names(PA.methods(this.child).matching("?etInt")));
+        assertEquals(Arrays.asList("isPrivateBoolean"), names(PA.methods(this.child).ofType(boolean.class).prefixed("is")));
+        assertEquals(Arrays.asList("testQueryMembers"), names(PA.methods(this).annotatedWith(Test.class).named("testQueryMembers")));
+        assertEquals(0, PA.methods(this.child).annotatedWith(Test.class).count());
+        assertEquals(1, PA.methods(this.parent).named("setNamesWithVarargs").count());
+        assertEquals(0, PA.methods(this.parent).withModifiers(Modifier.TRANSIENT).count());
+        assertEquals(0, PA.methods(this.parent).withModifiers(Modifier.VOLATILE).count());
+        assertEquals(Arrays.asList("privateName"), names(PA.fields(this.child).annotatedWith(Marker.class)));
+
+        assertEquals(8, PA.getValue(this.child, "privateInt"));
+        Field privateInt = PA.fields(this.child).named("privateInt").stream().findFirst().get();
+        assertFalse(privateInt.canAccess(this.child));
+        privateInt.setAccessible(true);
+        privateInt.setAccessible(false);
+        assertEquals(8, PA.getValue(this.child, "privateInt"));
+        assertFalse(PA.methods(this.child).named("getInt").stream().findFirst().get().canAccess(this.child));
+        assertEquals(Arrays.asList("greet"), names(PA.methods(Greeter.class).named("greet")));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.fields(null);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.methods(null);
+        });
+    }
+
+    /**
+     * Gets the names of the members selected by the given query.
+     *
+     * @param query the query selecting the members
+     * @return the names of the selected members in lookup order
+     */
+    private static List<String> names(final MemberQuery<?> query) {
+        return query.stream().map(Member::getName).collect(Collectors.toList());
+    }
+
     /**
      * Tests the method <code>getFieldNames</code>.
      *
@@ -644,6 +1323,64 @@ public class PATest {
         assertEquals(testFieldNames, PA.getFieldNames(this.childInParent), "getFieldNames didn't return all field names");
     }
 
+    /**
+     * Tests accessing fields and methods through a deeper class hierarchy with a shadowed field.
+     *
+     * @see junit.extensions.PA#getValue(Object, String)
+     * @see junit.extensions.PA#invokeMethod(Object, String, Object...)
+     */
+    @Test
+    public void testAccessThroughDeepHierarchy() {
+        Child grandChild = new Child("Charlie") {
+            @SuppressWarnings("unused")
+            private String privateName = "shadowed";
+        };
+        Child greatGrandChild = new Child("Charlie") {};
+
+        assertEquals("shadowed", PA.getValue(grandChild, "privateName"));
+        assertEquals("Charlie", PA.invokeMethod(grandChild, "getName()"));
+        assertEquals(8, PA.getValue(grandChild, "privateInt"));
+        assertEquals(8, PA.invokeMethod(greatGrandChild, "getInt()"));
+        assertTrue(PA.getFieldNames(greatGrandChild).containsAll(PA.getFieldNames(this.child)));
+        assertTrue(PA.getMethodSignatures(greatGrandChild).containsAll(PA.getMethodSignatures(this.child)));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.getValue(greatGrandChild, "noSuchField");
+        });
+    }
+
+    /**
+     * Tests accessing private and default methods and constants of interfaces.
+     *
+     * @see junit.extensions.PA#invokeMethod(Object, String, Object...)
+     */
+    @Test
+    public void testAccessInterfaceMembers() {
+        Greeter greeter = Greeter.create();
+        Greeter overridingGreeter = new Greeter() {
+            @Override
+            public String greet(String name) {
+                return "Hi " + name;
+            }
+        };
+
+        assertEquals("Hello", PA.invokeMethod(greeter, "salutation()"));
+        assertEquals("Hello Hugo", PA.invokeMethod(greeter, "greet(java.lang.String)", "Hugo"));
+        assertEquals("Hello Hugo", PA.invokeMethod(greeter, "greet", "Hugo"));
+        assertEquals("Hello Hugo", PA.method(Greeter.class, "greet(java.lang.String)").invoke(greeter, "Hugo"));
+        assertEquals("Hi Hugo", PA.invokeMethod(overridingGreeter, "greet(java.lang.String)", "Hugo"));
+        assertEquals("Hello", PA.invokeMethod(overridingGreeter, "salutation()"));
+        assertEquals("Hello", PA.getValue(greeter, "SALUTATION"));
+        assertTrue(PA.getMethodSignatures(greeter).contains("java.lang.String salutation()"));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.invokeMethod(greeter, "create()");
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.invokeMethod(greeter, "noSuchMethod()");
+        });
+    }
+
     /**
      * Tests the method <code>getFieldTpye</code>.
      *
@@ -786,6 +1523,118 @@ public class PATest {
         assertEquals(3, PA.getValue(this.childInParent, "privateInt"));
     }
 
+    /**
+     * Tests that methods are resolved only once per class, method name and parameter types.
+     *
+     * @see junit.extensions.PA#invokeMethod(java.lang.Object, java.lang.String, java.lang.Object)
+     */
+    @Test
+    public void testInvokeMethodIsCached() {
+        PA.invokeMethod(this.child, "setInt(int)", 3);
+        long hits = cacheStatistics("methods").getHits();
+        long misses = cacheStatistics("methods").getMisses();
+
+        PA.invokeMethod(this.childInParent, "setInt(int)", 4);
+        assertEquals(hits + 1, cacheStatistics("methods").getHits());
+        assertEquals(misses, cacheStatistics("methods").getMisses());
+        assertEquals(4, PA.getValue(this.childInParent, "privateInt"));
+
+        try {
+            PA.invokeMethod(this.child, "setInt(java.lang.String)", "Herbert");
+            fail("should throw NoSuchMethodException");
+        } catch (RuntimeException e) {
+            // that is what we expect - misses must not be cached
+            assertEquals(NoSuchMethodException.class, e.getCause().getClass());
+            assertEquals(misses + 1, cacheStatistics("methods").getMisses());
+        }
+    }
+
+    /**
+     * Tests that method signatures are parsed only once per class and signature.
+     *
+     * @see junit.extensions.PA#invokeMethod(java.lang.Object, java.lang.String, java.lang.Object)
+     */
+    @Test
+    public void testMethodSignatureIsCached() {
+        Object signature = PA.invokeMethod(PA.class, "getMethodSignature(Class, String)", Child.class, "setData(String, int)");
+        assertSame(signature, PA.invokeMethod(PA.class, "getMethodSignature(Class, String)", Child.class, "setData(String, int)"));
+        assertEquals("setData", PA.invokeMethod(signature, "getName()"));
+        assertTrue(Arrays.equals(new Class[] {String.class, int.class}, (Class<?>[]) PA.invokeMethod(signature, "getParameterTypes()")));
+
+        PA.invokeMethod(this.child, "setData(String, int)", "Marcus", 5);
+        PA.invokeMethod(this.child, "setData(String, int)", "Markus", 6);
+        assertEquals("Markus", PA.getValue(this.child, "privateName"));
+        assertEquals(6, PA.getValue(this.child, "privateInt"));
+    }
+
+    /**
+     * Tests that cached method signatures whose types were resolved without the context class loader survive changing the context class
+     * loader, but not changing the type resolver.
+     *
+     * @see junit.extensions.PA#invokeMethod(java.lang.Object, java.lang.String, java.lang.Object)
+     */
+    @Test
+    public void testMethodSignatureIsCachedAcrossContextClassLoaders() {
+        Object signature = PA.invokeMethod(PA.class, "getMethodSignature(Class, String)", Child.class, "setData(String, int)");
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        try {
+            thread.setContextClassLoader(new URLClassLoader(new URL[0], null));
+            assertSame(signature, PA.invokeMethod(PA.class, "getMethodSignature(Class, String)", Child.class, "setData(String, int)"));
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+        assertSame(signature, PA.invokeMethod(PA.class, "getMethodSignature(Class, String)", Child.class, "setData(String, int)"));
+
+        TypeResolver standardTypeResolver = PA.getTypeResolver();
+        try {
+            PA.setTypeResolver(standardTypeResolver);
+            assertNotSame(signature, PA.invokeMethod(PA.class, "getMethodSignature(Class, String)", Child.class, "setData(String, int)"));
+        } finally {
+            PA.setTypeResolver(standardTypeResolver);
+        }
+    }
+
+    /**
+     * Tests the method <code>setTypeResolver</code>.
+     *
+     * @see junit.extensions.PA#setTypeResolver(TypeResolver)
+     */
+    @Test
+    public void testSetTypeResolver() {
+        TypeResolver standardTypeResolver = PA.getTypeResolver();
+        Collection<String> resolvedTypeNames = new ArrayList<>();
+        try {
+            PA.setTypeResolver((typeName, classLoader) -> {
+                resolvedTypeNames.add(typeName);
+                return "Name".equals(typeName) ? String.class : standardTypeResolver.resolve(typeName, classLoader);
+            });
+
+            PA.invokeMethod(this.child, "setName(Name)", "Hubert");
+            assertEquals("Hubert", PA.getValue(this.child, "privateName"));
+            PA.invokeMethod(this.parent, "setName(Name)", "Herbert");
+            assertEquals("Herbert", PA.getValue(this.parent, "privateName"));
+            assertEquals(Arrays.asList("Name"), resolvedTypeNames);
+
+            for (int x = 0; x < 2; x++ ) {
+                try {
+                    PA.invokeMethod(this.child, "setName(NotAString)", "Heribert");
+                    fail("should throw NoSuchMethodException");
+                } catch (RuntimeException e) {
+                    // that is what we expect - unresolvable names are cached as well
+                    assertEquals(NoSuchMethodException.class, e.getCause().getClass());
+                    assertEquals(Arrays.asList("Name", "NotAString"), resolvedTypeNames);
+                }
+            }
+        } finally {
+            PA.setTypeResolver(null);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.invokeMethod(this.child, "setName(Name)", "Hubert");
+        });
+    }
+
     /**
      * Tests the method <code>invokeMethod</code> with not fully declared types.
      * 
@@ -1043,6 +1892,119 @@ public class PATest {
         assertEquals("Bruno", strings[1]);
     }
 
+    /**
+     * Tests the method <code>invokeMethod</code> with just the name of the method.
+     *
+     * @see junit.extensions.PA#invokeMethod(Object, String, Object...)
+     */
+    @Test
+    public void testInvokeMethodByName() {
+        PA.invokeMethod(this.child, "setName", "Herbert");
+        assertEquals("Herbert", PA.invokeMethod(this.child, "getName"));
+
+        PA.invokeMethod(this.child, "setName");
+        assertEquals("Chaplin", PA.invokeMethod(this.child, "getName"));
+
+        PA.invokeMethod(this.child, "setPrivateLong", 5);
+        assertEquals(5L, PA.invokeMethod(this.child, "getPrivateLong"));
+
+        PA.invokeMethod(this.child, "setSumOfTwoInts", (short) 1, 'a');
+        assertEquals(1 + 'a', PA.invokeMethod(this.child, "getInt"));
+
+        PA.invokeMethod(this.child, "setPrivateStrings", (Object) new String[] {"Hello"});
+        assertEquals("Hello", ((String[]) PA.getValue(this.child, "privateStrings"))[0]);
+
+        PA.invokeMethod(this.parent, "setObject", (Object) null);
+        assertNull(PA.invokeMethod(this.parent, "getObject"));
+
+        Object previousValue = PA.invokeMethod(Parent.class, "getPrivateStaticInt");
+        PA.invokeMethod(Parent.class, "setPrivateStaticInt", 3);
+        assertEquals(3, PA.invokeMethod(Parent.class, "getPrivateStaticInt"));
+        PA.invokeMethod(Parent.class, "setPrivateStaticInt", previousValue);
+
+        long hits = cacheStatistics("dispatches").getHits();
+        PA.invokeMethod(this.child, "setName", "Charlie");
+        assertEquals(hits + 1, cacheStatistics("dispatches").getHits());
+    }
+
+    /**
+     * Tests that invoking an overloaded method or constructor by name fails if none of the matching overloads is more specific than all
+     * others.
+     *
+     * @see junit.extensions.PA#invokeMethod(Object, String, Object...)
+     * @see junit.extensions.PA#instantiate(Class, Object...)
+     */
+    @Test
+    public void testInvokeAmbiguousOverloads() {
+        String[] strings = new String[] {"Hello"};
+        Object[] objects = new Object[] {"World"};
+        PA.invokeMethod(this.child, "setPrivateArrays", strings, objects);
+        assertSame(objects, PA.getValue(this.child, "privateObjects"));
+        PA.invokeMethod(this.child, "setPrivateArrays", objects, strings);
+        assertSame(strings, PA.getValue(this.child, "privateStrings"));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> {
+            PA.invokeMethod(this.child, "setPrivateArrays", strings, strings);
+        });
+        assertEquals(NoSuchMethodException.class, e.getCause().getClass());
+        assertTrue(e.getCause().getMessage().contains("setPrivateArrays(java.lang.String[],java.lang.Object[])"));
+        assertTrue(e.getCause().getMessage().contains("setPrivateArrays(java.lang.Object[],java.lang.String[])"));
+
+        e = assertThrows(IllegalArgumentException.class, () -> {
+            PA.instantiate(Child.class, (Object) null);
+        });
+        assertEquals(NoSuchMethodException.class, e.getCause().getClass());
+        assertTrue(e.getCause().getMessage().startsWith("Ambiguous invocation"));
+    }
+
+    /**
+     * Tests that overloaded constructors are chosen like the compiler does: exact matches first, then the most specific constructor
+     * applicable without boxing and only then the ones applicable with boxing.
+     *
+     * @see junit.extensions.PA#instantiate(Class, Object...)
+     * @see junit.extensions.PA#instantiate(Class, Class[], Object...)
+     */
+    @Test
+    public void testInstantiateOverloads() {
+        assertEquals("int", PA.getValue(PA.instantiate(Overloads.class, new Class[] {int.class}, 1), "chosen"));
+        assertEquals("Integer", PA.getValue(PA.instantiate(Overloads.class, new Class[] {Integer.class}, 1), "chosen"));
+        assertEquals("Integer", PA.getValue(PA.instantiate(Overloads.class, 1), "chosen"));
+        assertEquals("int", PA.getValue(PA.instantiate(Overloads.class, (short) 1), "chosen"));
+        assertEquals("Integer", PA.getValue(PA.instantiate(Overloads.class, (Object) null), "chosen"));
+        assertEquals("long, Integer", PA.getValue(PA.instantiate(Overloads.class, 1L, 2), "chosen"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> {
+            PA.instantiate(Overloads.class, 1, 2);
+        });
+        assertEquals(NoSuchMethodException.class, e.getCause().getClass());
+        assertTrue(e.getCause().getMessage().startsWith("Ambiguous invocation"));
+    }
+
+    /**
+     * Tests that overloaded methods invoked by name are chosen like the compiler does: exact matches first, then the most specific method
+     * applicable without boxing and only then the ones applicable with boxing.
+     *
+     * @see junit.extensions.PA#invokeMethod(Object, String, Object...)
+     */
+    @Test
+    public void testInvokeMethodOverloads() {
+        Overloads overloads = PA.instantiate(Overloads.class, 1);
+        assertEquals("Integer", PA.invokeMethod(overloads, "pick", 1));
+        assertEquals("int", PA.invokeMethod(overloads, "pick", (short) 1));
+        assertEquals("int", PA.invokeMethod(overloads, "pick(int)", 1));
+        assertEquals("Object", PA.invokeMethod(overloads, "choose", 1));
+        assertEquals("Object", PA.invokeMethod(overloads, "choose", "one"));
+        assertEquals("int", PA.invokeMethod(overloads, "choose(int)", 1));
+        assertEquals("Integer, long", PA.invokeMethod(overloads, "mix", 1, 2L));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> {
+            PA.invokeMethod(overloads, "mix", 1, 2);
+        });
+        assertEquals(NoSuchMethodException.class, e.getCause().getClass());
+        assertTrue(e.getCause().getMessage().contains("mix(long,java.lang.Integer)"));
+        assertTrue(e.getCause().getMessage().contains("mix(java.lang.Integer,long)"));
+    }
+
     /**
      * Tests the method <code>invokeMethod</code> on a non-existing method.
      *
@@ -1051,7 +2013,7 @@ public class PATest {
     @Test
     public void testInvokeMethodOnInvalidMethodName() {
         try {
-            PA.invokeMethod(this.child, "getInt");
+            PA.invokeMethod(this.child, "noSuchMethod");
             fail("should throw NoSuchMethodException");
         } catch (RuntimeException e) {
             // that is what we expect
@@ -1122,10 +2084,10 @@ public class PATest {
     @Test
     public void testInvokeMethodWithInvalidSignature() {
         try {
-            PA.invokeMethod(this.child, "setName", "Herbert");
+            PA.invokeMethod(this.child, "setName", 42);
             fail("should throw NoSuchMethodException");
         } catch (RuntimeException e) {
-            // that is what we expect - since the signature is missing
+            // that is what we expect - since there is no setName method accepting an integer
             assertEquals(NoSuchMethodException.class, e.getCause().getClass());
             assertNotNull(e.getMessage());
         }
@@ -1390,6 +2352,187 @@ public class PATest {
         assertEquals(3, PA.getValue(Parent.class, "privateStaticInt"));
     }
 
+    /**
+     * Tests the method <code>method</code>.
+     *
+     * @see junit.extensions.PA#method(Class, String)
+     */
+    @Test
+    public void testMethod() {
+        MethodInvoker<Child> setData = PA.method(Child.class, "setData(String, int)");
+        assertEquals("setData(String, int)", setData.getMethodSignature());
+        setData.invoke(this.child, "Hubert", 9);
+        assertEquals("Hubert", PA.getValue(this.child, "privateName"));
+        assertEquals(9, PA.method(Child.class, "getInt()").invoke(this.child));
+
+        MethodInvoker<Child> setPrivateStrings = PA.method(Child.class, "setPrivateStrings(String[])");
+        setPrivateStrings.invoke(this.child, (Object[]) new String[] {"Hello", "World"});
+        assertTrue(Arrays.equals(new String[] {"Hello", "World"}, (String[]) PA.getValue(this.child, "privateStrings")));
+
+        PA.method(Parent.class, "setPrivateStaticInt(int)").invokeStatic(11);
+        assertEquals(11, PA.getValue(Parent.class, "privateStaticInt"));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.method(Child.class, "noSuchMethod()");
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            setData.invoke(this.child, "Hubert", "9");
+        });
+        assertThrows(NullPointerException.class, () -> {
+            PA.method(Parent.class, "methodThrowingRuntimeException()").invoke(this.parent);
+        });
+    }
+
+    /**
+     * Tests the method <code>callSite</code> on receivers of more and more classes.
+     *
+     * @see junit.extensions.PA#callSite(String)
+     */
+    @Test
+    public void testCallSite() {
+        MethodCallSite setName = PA.callSite("setName(java.lang.String)");
+        assertEquals("setName(java.lang.String)", setName.getMethodSignature());
+
+        setName.invoke(this.child, "Hubert");
+        assertEquals("Hubert", PA.getValue(this.child, "privateName"));
+        assertEquals(Child.class, ((MethodInvoker<?>) PA.getValue(setName, "monomorphic")).getType());
+
+        setName.invoke(this.parent, "Herbert");
+        assertEquals("Herbert", PA.getValue(this.parent, "privateName"));
+        assertEquals(1, ((MethodInvoker<?>[]) PA.getValue(setName, "polymorphic")).length);
+
+        Parent[] parents = {new Parent("1") {}, new Parent("2") {}, new Parent("3") {}, new Parent("4") {}, new Parent("5") {},
+            new Parent("6") {}, new Parent("7") {}, new Parent("8") {}, new Parent("9") {}};
+        for (Parent otherParent : parents) {
+            setName.invoke(otherParent, "Heinz");
+            assertEquals("Heinz", PA.getValue(otherParent, "privateName"));
+        }
+        assertTrue(PA.getBoolean(setName, "megamorphic"));
+
+        setName.invoke(this.child, "Harald");
+        assertEquals("Harald", PA.getValue(this.child, "privateName"));
+        setName.invoke(new Parent("10") {}, "Hugo");
+
+        MethodCallSite setPrivateStaticInt = PA.callSite("setPrivateStaticInt(int)");
+        setPrivateStaticInt.invoke(Parent.class, 14);
+        assertEquals(14, PA.getValue(Parent.class, "privateStaticInt"));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.callSite("setName");
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            setName.invoke(this.child, 42);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.callSite("noSuchMethod()").invoke(this.child);
+        });
+    }
+
+    /**
+     * Tests the primitive typed invocations of <code>MethodInvoker</code>.
+     *
+     * @see junit.extensions.MethodInvoker#invokeInt(Object)
+     * @see junit.extensions.MethodInvoker#invokeVoid(Object, int)
+     */
+    @Test
+    public void testMethodWithPrimitives() {
+        PA.method(Child.class, "setInt(int)").invokeVoid(this.child, 12);
+        assertEquals(12, PA.method(Child.class, "getInt()").invokeInt(this.child));
+        assertEquals(12L, PA.method(Child.class, "getInt()").invokeLong(this.child));
+
+        PA.method(Child.class, "setPrivateBoolean(boolean)").invokeVoid(this.child, true);
+        assertTrue(PA.method(Child.class, "isPrivateBoolean()").invokeBoolean(this.child));
+        PA.method(Child.class, "setPrivateChar(char)").invokeVoid(this.child, 'x');
+        assertEquals('x', PA.method(Child.class, "getPrivateChar()").invokeChar(this.child));
+        assertEquals(120, PA.method(Child.class, "getPrivateChar()").invokeInt(this.child));
+        PA.method(Child.class, "setPrivateDouble(double)").invokeVoid(this.child, 2.5);
+        assertEquals(2.5, PA.method(Child.class, "getPrivateDouble()").invokeDouble(this.child));
+        PA.method(Child.class, "setPrivateLong(long)").invokeVoid(this.child, 7);
+        assertEquals(7L, PA.method(Child.class, "getPrivateLong()").invokeLong(this.child));
+
+        PA.method(Parent.class, "setPrivateStaticInt(int)").invokeVoid(null, 13);
+        assertEquals(13, PA.method(Parent.class, "getPrivateStaticInt()").invokeInt(null));
+        PA.method(Child.class, "getInt()").invokeVoid(this.child);
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.method(Child.class, "getPrivateLong()").invokeInt(this.child);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.method(Child.class, "setInt(int)").invokeInt(this.child);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.method(Child.class, "setInt(int)").invokeVoid(this.child, 3L);
+        });
+        assertThrows(NullPointerException.class, () -> {
+            PA.method(Child.class, "getInt()").invokeInt(null);
+        });
+        assertThrows(NullPointerException.class, () -> {
+            PA.method(Parent.class, "methodThrowingRuntimeException()").invokeVoid(this.parent);
+        });
+    }
+
+    /**
+     * Tests that the method <code>invokeMethod</code> doesn't allocate anything if the arguments already match the parameters of the
+     * method.
+     *
+     * @see junit.extensions.PA#invokeMethod(java.lang.Object, java.lang.String, java.lang.Object)
+     */
+    @Test
+    public void testInvokeMethodDoesNotAllocate() {
+        java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        assumeTrue(allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled());
+
+        Object[] name = new Object[] {"Hubert"};
+        Object[] stringsAndInt = new Object[] {new String[] {"Hello", "World"}, 3};
+        int calls = 10000;
+        for (int i = 0; i < calls; i++ ) {
+            PA.invokeMethod(this.child, "setName(java.lang.String)", name);
+            PA.invokeMethod(this.child, "setPrivateStringsAndInt(String[], int)", stringsAndInt);
+        }
+
+        // the bound only allows for the constant overhead of measuring, even a single small allocation per call would exceed it by far. A
+        // one-off allocation (e.g. by a deoptimization) is ruled out by measuring again, since it doesn't happen in every round.
+        long threadId = Thread.currentThread().getId();
+        long allocatedBytes = Long.MAX_VALUE;
+        for (int round = 0; (round < 5) && (allocatedBytes >= 1024); round++ ) {
+            allocatedBytes = allocationBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < calls; i++ ) {
+                PA.invokeMethod(this.child, "setName(java.lang.String)", name);
+                PA.invokeMethod(this.child, "setPrivateStringsAndInt(String[], int)", stringsAndInt);
+            }
+            allocatedBytes = allocationBean.getThreadAllocatedBytes(threadId) - allocatedBytes;
+        }
+
+        assertTrue(allocatedBytes < 1024, allocatedBytes + " bytes allocated by " + (2 * calls) + " calls");
+        assertEquals("Hubert", PA.getValue(this.child, "privateName"));
+    }
+
+    /**
+     * Tests the method <code>invokeMethod</code> with arguments that need a widening primitive conversion.
+     *
+     * @see junit.extensions.PA#invokeMethod(java.lang.Object, java.lang.String, java.lang.Object)
+     */
+    @Test
+    public void testInvokeMethodWithWideningConversion() {
+        PA.invokeMethod(this.child, "setPrivateLong(long)", 5);
+        assertEquals(5L, PA.getValue(this.child, "privateLong"));
+
+        PA.invokeMethod(this.child, "setPrivateDouble(double)", 'a');
+        assertEquals(97.0, PA.getValue(this.child, "privateDouble"));
+
+        PA.invokeMethod(this.child, "setInt(int)", (short) 3);
+        assertEquals(3, PA.getValue(this.child, "privateInt"));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.invokeMethod(this.child, "setInt(int)", 3L);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.invokeMethod(this.child, "setPrivateChar(char)", (byte) 3);
+        });
+    }
+
     /**
      * Tests the method <code>instantiate</code> on an inner class.
      *
@@ -1446,4 +2589,145 @@ public class PATest {
             fail("wront exception thrown");
         }
     }
+
+    /**
+     * Tests the method <code>getCacheStatistics</code>.
+     *
+     * @see junit.extensions.PA#getCacheStatistics()
+     */
+    @Test
+    public void testGetCacheStatistics() {
+        assertEquals(
+            Arrays.asList("fields", "methods", "constructors", "signatures", "dispatches", "typeNames"),
+            new ArrayList<>(PA.getCacheStatistics().keySet()));
+
+        PA.getValue(this.child, "privateInt");
+        long hits = cacheStatistics("fields").getHits();
+        PA.getValue(this.child, "privateInt");
+        assertEquals(hits + 1, cacheStatistics("fields").getHits());
+        assertTrue(cacheStatistics("fields").getSize() > 0);
+        assertTrue(cacheStatistics("fields").getTotalLoadTime() > 0);
+        assertEquals("fields", cacheStatistics("fields").getName());
+    }
+
+    /**
+     * Tests the method <code>setCacheSize</code>.
+     *
+     * @see junit.extensions.PA#setCacheSize(int)
+     */
+    @Test
+    public void testSetCacheSize() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            PA.setCacheSize(0);
+        });
+
+        long evictions = cacheStatistics("signatures").getEvictions();
+        try {
+            PA.setCacheSize(2);
+            PA.invokeMethod(this.parent, "setName( String)", "Hubert");
+            PA.invokeMethod(this.parent, "setName(String )", "Herbert");
+            PA.invokeMethod(this.parent, "setName( String )", "Heribert");
+            assertTrue(cacheStatistics("signatures").getEvictions() > evictions);
+        } finally {
+            PA.setCacheSize(LruMap.DEFAULT_MAXIMUM_SIZE);
+        }
+
+        PA.invokeMethod(this.parent, "setName(String)", "Herbert");
+        assertEquals("Herbert", PA.getValue(this.parent, "privateName"));
+    }
+
+    /**
+     * Tests that the caches of PA do not keep the class loader of the classes they cached members for alive.
+     *
+     * @throws Exception if the test classes can't be loaded
+     */
+    @Test
+    public void testCachesDoNotPinClassLoaders() throws Exception {
+        WeakReference<ClassLoader> classLoader = accessChildOfSeparateClassLoader();
+
+        for (int x = 0; (x < 100) && (classLoader.get() != null); x++ ) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(classLoader.get(), "discarded class loader should have been garbage collected");
+    }
+
+    /**
+     * Tests that caches forget the metadata of unloaded classes when caching metadata for further classes, even if their statistics are
+     * never taken.
+     *
+     * @throws Exception if the test classes can't be loaded
+     */
+    @Test
+    public void testCachesPurgeUnloadedClasses() throws Exception {
+        MemberCache<String, String> cache = new MemberCache<>("test", false);
+        for (int x = 0; x < 20; x++ ) {
+            cacheForChildOfSeparateClassLoader(cache);
+        }
+        assertEquals(20, cache.segmentCount());
+
+        for (int x = 0; (x < 100) && (cache.segmentCount() >= 10); x++ ) {
+            System.gc();
+            Thread.sleep(10);
+            cacheForChildOfSeparateClassLoader(cache);
+        }
+        assertTrue(cache.segmentCount() < 10, "metadata of unloaded classes should have been purged");
+    }
+
+    /**
+     * Caches metadata for the class <code>Child</code> loaded by a separate, afterwards discarded class loader.
+     *
+     * @param cache the cache to cache the metadata in
+     * @throws Exception if the test classes can't be loaded
+     */
+    private static void cacheForChildOfSeparateClassLoader(final MemberCache<String, String> cache) throws Exception {
+        URL testClasses = Child.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {testClasses}, ClassLoader.getPlatformClassLoader())) {
+            assertEquals("Child", cache.get(classLoader.loadClass(Child.class.getName()), "name", (type, key) -> type.getSimpleName()));
+        }
+    }
+
+    /**
+     * Accesses fields, methods and constructors of the class <code>Child</code> loaded by a separate class loader and queries classes of
+     * other class loaders for an annotation loaded by the separate class loader.
+     *
+     * @return the (already closed) separate class loader
+     * @throws Exception if the test classes can't be loaded
+     */
+    private static WeakReference<ClassLoader> accessChildOfSeparateClassLoader() throws Exception {
+        URL testClasses = Child.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {testClasses}, ClassLoader.getPlatformClassLoader())) {
+            Class<?> childClass = classLoader.loadClass(Child.class.getName());
+            assertNotSame(Child.class, childClass);
+
+            Object child = PA.instantiate(childClass, "Charlie");
+            PA.setValue(child, "privateInt", 3);
+            assertEquals(3, PA.getValue(child, "privateInt"));
+            PA.invokeMethod(child, "setData(String, int)", "Marcus", 5);
+            assertEquals(5, PA.invokeMethod(child, "getInt()"));
+            assertEquals("Marcus", PA.invokeMethod(child, "getName()"));
+            assertEquals(Integer.TYPE, PA.getFieldType(childClass, "privateInt"));
+            assertThrows(IllegalArgumentException.class, () -> {
+                PA.invokeMethod(childClass, "setData(NotAString, int)", "Marcus", 5);
+            });
+
+            @SuppressWarnings("unchecked")
+            Class<? extends Annotation> markerClass = (Class<? extends Annotation>) classLoader.loadClass(Marker.class.getName());
+            assertNotSame(Marker.class, markerClass);
+            assertEquals(0, PA.fields(Parent.class).annotatedWith(markerClass).count());
+            assertEquals(0, PA.methods(Object.class).annotatedWith(markerClass).count());
+
+            return new WeakReference<>(classLoader);
+        }
+    }
+
+    /**
+     * Gets the current statistics of the cache with the given name.
+     *
+     * @param name the name of the cache
+     * @return the statistics of the cache
+     */
+    private static CacheStatistics cacheStatistics(String name) {
+        return PA.getCacheStatistics().get(name);
+    }
 }
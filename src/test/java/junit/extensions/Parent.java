@@ -30,6 +30,7 @@ public class Parent {
     private static int privateStaticInt;
     private final int privateFinalInt;
     private final String privateFinalString;
+    @Marker
     private String privateName;
     private Object privateObject;
 